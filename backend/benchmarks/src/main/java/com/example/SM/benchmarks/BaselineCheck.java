@@ -0,0 +1,86 @@
+package com.example.SM.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result file against a baseline recorded on the same machine and exits non-zero
+ * when any benchmark is slower than the allowed tolerance.
+ *
+ * Usage: java -cp target/benchmarks.jar com.example.SM.benchmarks.BaselineCheck
+ *            target/baseline.json target/current.json [tolerancePercent, default 15]
+ */
+public final class BaselineCheck {
+
+    private BaselineCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineCheck <baseline.json> <current.json> [tolerancePercent]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 15.0;
+
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> current = load(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("NEW       %s%n", entry.getKey());
+                continue;
+            }
+            double oldScore = before.path("primaryMetric").path("score").asDouble();
+            double newScore = entry.getValue().path("primaryMetric").path("score").asDouble();
+            String unit = entry.getValue().path("primaryMetric").path("scoreUnit").asText();
+
+            // Throughput modes: bigger is better; time modes (avgt, sample, ss): smaller is better
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().path("mode").asText());
+            double change = (newScore - oldScore) / oldScore * 100.0;
+            double slowdown = higherIsBetter ? -change : change;
+
+            String verdict = slowdown > tolerance ? "REGRESSED" : "ok";
+            if (slowdown > tolerance) {
+                regressions++;
+            }
+            System.out.printf("%-9s %s: %.3f -> %.3f %s (%+.1f%%)%n",
+                verdict, entry.getKey(), oldScore, newScore, unit, change);
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, tolerance);
+            System.exit(1);
+        }
+        System.out.println("No regressions beyond " + tolerance + "%");
+    }
+
+    // Keyed by benchmark name plus @Param values, e.g. "...JacksonBenchmark.serializeStudents{size=500}"
+    private static Map<String, JsonNode> load(File file) throws Exception {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            JsonNode params = result.path("params");
+            if (params.size() > 0) {
+                key.append('{');
+                Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> param = fields.next();
+                    key.append(param.getKey()).append('=').append(param.getValue().asText());
+                    if (fields.hasNext()) {
+                        key.append(',');
+                    }
+                }
+                key.append('}');
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.SM.benchmarks;
+
+import com.example.SM.entity.FeePayment;
+import com.example.SM.entity.FeeStructure;
+import com.example.SM.entity.SchoolClass;
+import com.example.SM.entity.Student;
+import com.example.SM.service.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Builds services and entities without a Spring context or a database.
+ * Field injection is done reflectively, the same way Spring would set the @Autowired / @Value fields.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static <T> T inject(T target, String fieldName, Object value) {
+        Class<?> type = target.getClass();
+        while (type != null) {
+            try {
+                Field field = type.getDeclaredField(fieldName);
+                field.setAccessible(true);
+                field.set(target, value);
+                return target;
+            } catch (NoSuchFieldException e) {
+                type = type.getSuperclass();
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot set " + fieldName, e);
+            }
+        }
+        throw new IllegalArgumentException("No field " + fieldName + " on " + target.getClass().getName());
+    }
+
+    static MetricsService metrics() {
+        return inject(new MetricsService(), "meterRegistry", new SimpleMeterRegistry());
+    }
+
+    // Spring Data repository stand-in: only the named methods are answered, anything else fails loudly
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "toString":
+                    return type.getSimpleName() + "Stub";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer == null) {
+                        throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+                    }
+                    return answer.apply(args);
+            }
+        });
+    }
+
+    // The services log every call to stdout; keep that out of the JMH output
+    static void silenceStdout() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    static SchoolClass schoolClass() {
+        SchoolClass schoolClass = new SchoolClass("Grade 10 - A", "Grade 10", "Science", "Mrs. Perera", "B-12");
+        schoolClass.setId(1L);
+        return schoolClass;
+    }
+
+    static FeeStructure feeStructure(SchoolClass schoolClass) {
+        FeeStructure feeStructure = new FeeStructure();
+        feeStructure.setId(1L);
+        feeStructure.setSchoolClass(schoolClass);
+        feeStructure.setMonthlyFee(new BigDecimal("2500.00"));
+        feeStructure.setTotalFee(new BigDecimal("2500.00"));
+        return feeStructure;
+    }
+
+    static Student student(int index, SchoolClass schoolClass) {
+        Student student = new Student();
+        student.setId((long) index);
+        student.setStudentId(String.format("STU%05d", index));
+        student.setFirstName("Kasun");
+        student.setLastName("Jayawardena");
+        student.setGender("Male");
+        student.setDob(LocalDate.of(2009, 4, 12));
+        student.setGrade("Grade 10");
+        student.setEmail("student" + index + "@example.com");
+        student.setPhone("0771234567");
+        student.setAddress("42 Temple Road");
+        student.setCity("Kandy");
+        student.setDistrict("Kandy");
+        student.setGuardianName("Nimal Jayawardena");
+        student.setGuardianPhone("0777654321");
+        student.setRelationship("Father");
+        student.setSubjects("Maths,Science,English");
+        student.setSchoolClass(schoolClass);
+        return student;
+    }
+
+    static FeePayment payment(int index, Student student, SchoolClass schoolClass, FeeStructure feeStructure) {
+        FeePayment payment = new FeePayment();
+        payment.setId((long) index);
+        payment.setStudent(student);
+        payment.setSchoolClass(schoolClass);
+        payment.setFeeStructure(feeStructure);
+        payment.setAmountPaid(new BigDecimal("2500.00"));
+        payment.setPaymentDate(LocalDate.of(2024, 3, 5));
+        payment.setMonth("2024-03");
+        payment.setPaymentMethod(FeePayment.PaymentMethod.CASH);
+        payment.setTransactionId("TXN-2024030500" + index);
+        payment.setStatus(FeePayment.PaymentStatus.PAID);
+        payment.setNotes("March fee");
+        payment.setCreatedAt(LocalDateTime.of(2024, 3, 5, 9, 30));
+        payment.setUpdatedAt(LocalDateTime.of(2024, 3, 5, 9, 30));
+        return payment;
+    }
+
+    static List<Student> students(int count, SchoolClass schoolClass) {
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            students.add(student(i, schoolClass));
+        }
+        return students;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.SM.benchmarks;
+
+import com.example.SM.dto.FeeStatus;
+import com.example.SM.entity.FeeStructure;
+import com.example.SM.entity.SchoolClass;
+import com.example.SM.entity.Student;
+import com.example.SM.repository.FeePaymentRepository;
+import com.example.SM.repository.FeeStructureRepository;
+import com.example.SM.repository.StudentFeeBalanceRepository;
+import com.example.SM.repository.StudentRepository;
+import com.example.SM.service.FeeLedgerService;
+import com.example.SM.service.FeePaymentService;
+import com.example.SM.service.FeeStructureService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FeePaymentService.getFeeStatus with in-memory repositories, so only the status
+ * computation itself is measured (database round trips are covered by the load tests).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeeStatusBenchmark {
+
+    // Amount already paid this month: none, part of it, or the full fee
+    @Param({"0.00", "1000.00", "2500.00"})
+    public String totalPaid;
+
+    private FeePaymentService feePaymentService;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.silenceStdout();
+        SchoolClass schoolClass = BenchmarkFixtures.schoolClass();
+        Student student = BenchmarkFixtures.student(42, schoolClass);
+        FeeStructure feeStructure = BenchmarkFixtures.feeStructure(schoolClass);
+        BigDecimal paid = new BigDecimal(totalPaid);
+
+        feePaymentService = new FeePaymentService();
+        BenchmarkFixtures.inject(feePaymentService, "metricsService", BenchmarkFixtures.metrics());
+        BenchmarkFixtures.inject(feePaymentService, "studentRepository", BenchmarkFixtures.repository(
+            StudentRepository.class, Map.of("findByStudentId", args -> Optional.of(student))));
+        // Uncached FeeStructureService: measures the computation, not a cache hit
+        FeeStructureService feeStructureService = BenchmarkFixtures.inject(new FeeStructureService(),
+            "feeStructureRepository", BenchmarkFixtures.repository(
+                FeeStructureRepository.class, Map.of("findBySchoolClassId", args -> Optional.of(feeStructure))));
+        BenchmarkFixtures.inject(feePaymentService, "feeStructureService", feeStructureService);
+        BenchmarkFixtures.inject(feePaymentService, "feePaymentRepository", BenchmarkFixtures.repository(
+            FeePaymentRepository.class, Map.of("findTotalPaidByStudentAndMonth", args -> paid)));
+        // Outstanding balance is a primary-key read of student_fee_balances
+        BenchmarkFixtures.inject(feePaymentService, "feeLedgerService", BenchmarkFixtures.inject(new FeeLedgerService(),
+            "studentFeeBalanceRepository", BenchmarkFixtures.repository(
+                StudentFeeBalanceRepository.class, Map.of("findById", args -> Optional.empty()))));
+    }
+
+    @Benchmark
+    public FeeStatus getFeeStatus() {
+        return feePaymentService.getFeeStatus("STU00042");
+    }
+}
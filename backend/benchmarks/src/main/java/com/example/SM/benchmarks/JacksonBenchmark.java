@@ -0,0 +1,101 @@
+package com.example.SM.benchmarks;
+
+import com.example.SM.dto.FeePaymentResponse;
+import com.example.SM.entity.FeeStructure;
+import com.example.SM.entity.SchoolClass;
+import com.example.SM.entity.Student;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of the list endpoints' payloads (GET /api/students, /api/fee-payments/recent),
+ * with an ObjectMapper configured like Spring Boot's default one and, for the *Lean variants,
+ * like the application's (NON_NULL inclusion + Blackbird). The *Cbor and *Smile variants are what
+ * clients get with Accept: application/cbor or application/x-jackson-smile.
+ * Run with -prof gc to compare allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonBenchmark {
+
+    @Param({"50", "500"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper leanObjectMapper;
+    private ObjectMapper cborObjectMapper;
+    private ObjectMapper smileObjectMapper;
+    private List<Student> students;
+    private List<FeePaymentResponse> payments;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        // spring.jackson.default-property-inclusion=non_null + JacksonConfig
+        leanObjectMapper = leanBuilder().build();
+        cborObjectMapper = leanBuilder().factory(new CBORFactory()).build();
+        smileObjectMapper = leanBuilder().factory(new SmileFactory()).build();
+
+        SchoolClass schoolClass = BenchmarkFixtures.schoolClass();
+        FeeStructure feeStructure = BenchmarkFixtures.feeStructure(schoolClass);
+        students = BenchmarkFixtures.students(size, schoolClass);
+        payments = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            payments.add(new FeePaymentResponse(
+                BenchmarkFixtures.payment(i + 1, students.get(i), schoolClass, feeStructure)));
+        }
+    }
+
+    private static Jackson2ObjectMapperBuilder leanBuilder() {
+        return Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .modulesToInstall(new BlackbirdModule());
+    }
+
+    @Benchmark
+    public byte[] serializeStudents() throws Exception {
+        return objectMapper.writeValueAsBytes(students);
+    }
+
+    @Benchmark
+    public byte[] serializeFeePayments() throws Exception {
+        return objectMapper.writeValueAsBytes(payments);
+    }
+
+    @Benchmark
+    public byte[] serializeStudentsLean() throws Exception {
+        return leanObjectMapper.writeValueAsBytes(students);
+    }
+
+    @Benchmark
+    public byte[] serializeFeePaymentsLean() throws Exception {
+        return leanObjectMapper.writeValueAsBytes(payments);
+    }
+
+    @Benchmark
+    public byte[] serializeStudentsCbor() throws Exception {
+        return cborObjectMapper.writeValueAsBytes(students);
+    }
+
+    @Benchmark
+    public byte[] serializeStudentsSmile() throws Exception {
+        return smileObjectMapper.writeValueAsBytes(students);
+    }
+}
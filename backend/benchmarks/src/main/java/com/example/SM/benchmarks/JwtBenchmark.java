@@ -0,0 +1,61 @@
+package com.example.SM.benchmarks;
+
+import com.example.SM.service.TokenRevocationService;
+import com.example.SM.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtil token issue (login) and validation (every authenticated request), plus the
+ * revocation lookup the authentication filter does after parsing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private TokenRevocationService revocations;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        // Same values as application.properties
+        BenchmarkFixtures.inject(jwtUtil, "secret", "mySecretKeyForJWTTokenGenerationInStudentManagementSystem2024");
+        BenchmarkFixtures.inject(jwtUtil, "expiration", 900000L);
+        BenchmarkFixtures.inject(jwtUtil, "refreshExpiration", 604800000L);
+        token = jwtUtil.generateToken("admin", "ADMIN", "System Administrator");
+
+        revocations = new TokenRevocationService();
+        BenchmarkFixtures.inject(revocations, "expectedEntries", 10000);
+        BenchmarkFixtures.inject(revocations, "falsePositiveRate", 0.01);
+        revocations.init();
+        // A populated set, as after a busy day of logouts and refresh rotations
+        for (int i = 0; i < 5000; i++) {
+            Claims claims = jwtUtil.parseClaims(jwtUtil.generateRefreshToken("user" + i));
+            revocations.revoke(claims.getId(), claims.getExpiration());
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("admin", "ADMIN", "System Administrator");
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token, "admin");
+    }
+
+    @Benchmark
+    public boolean parseAndCheckRevocation() {
+        Claims claims = jwtUtil.parseClaims(token);
+        return jwtUtil.isAccessToken(claims) && !revocations.isRevoked(claims.getId());
+    }
+}
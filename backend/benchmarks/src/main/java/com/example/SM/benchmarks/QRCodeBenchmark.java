@@ -0,0 +1,34 @@
+package com.example.SM.benchmarks;
+
+import com.example.SM.dto.QRData;
+import com.example.SM.service.QRCodeService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QRCodeService.generateQRCode: JSON encoding, zxing matrix and PNG write for one registration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QRCodeBenchmark {
+
+    private QRCodeService qrCodeService;
+    private QRData qrData;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.silenceStdout();
+        qrCodeService = BenchmarkFixtures.inject(new QRCodeService(), "metricsService", BenchmarkFixtures.metrics());
+        qrData = new QRData("STU00042", "Kasun", "Jayawardena", "Grade 10", "student42@example.com");
+    }
+
+    @Benchmark
+    public byte[] generateQRCode() throws Exception {
+        return qrCodeService.generateQRCode(qrData);
+    }
+}
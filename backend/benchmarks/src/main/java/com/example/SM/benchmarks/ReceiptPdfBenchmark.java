@@ -0,0 +1,40 @@
+package com.example.SM.benchmarks;
+
+import com.example.SM.entity.FeePayment;
+import com.example.SM.entity.SchoolClass;
+import com.example.SM.entity.Student;
+import com.example.SM.service.ReceiptPDFService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReceiptPDFService.generatePaymentReceipt: full iText document build for one payment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReceiptPdfBenchmark {
+
+    private ReceiptPDFService receiptPDFService;
+    private FeePayment payment;
+    private Student student;
+    private SchoolClass schoolClass;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.silenceStdout();
+        receiptPDFService = BenchmarkFixtures.inject(new ReceiptPDFService(), "metricsService", BenchmarkFixtures.metrics());
+        schoolClass = BenchmarkFixtures.schoolClass();
+        student = BenchmarkFixtures.student(42, schoolClass);
+        payment = BenchmarkFixtures.payment(1, student, schoolClass, BenchmarkFixtures.feeStructure(schoolClass));
+    }
+
+    @Benchmark
+    public byte[] generatePaymentReceipt() {
+        return receiptPDFService.generatePaymentReceipt(payment, student, schoolClass);
+    }
+}
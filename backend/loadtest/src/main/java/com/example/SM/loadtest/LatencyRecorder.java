@@ -0,0 +1,109 @@
+package com.example.SM.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-endpoint latency samples. Latency is measured from each request's scheduled start,
+ * not from when it was actually sent, so a stalled server shows up in the tail instead of
+ * silently lowering the offered load (coordinated omission).
+ */
+final class LatencyRecorder {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    void record(String scenario, String endpoint, long latencyNanos, int status) {
+        endpoints.computeIfAbsent(scenario + " " + endpoint, k -> new Endpoint(scenario, endpoint))
+            .add(latencyNanos, status);
+    }
+
+    void print(PrintStream out, Map<String, Long> scenarioNanos) {
+        out.printf("%n%-6s %-42s %7s %6s %7s %6s %9s %9s %9s %9s %9s%n",
+            "phase", "endpoint", "count", "2xx", "4xx", "fail", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (Endpoint endpoint : sorted()) {
+            Summary s = endpoint.summarize(scenarioNanos.getOrDefault(endpoint.scenario, 0L));
+            out.printf("%-6s %-42s %7d %6d %7d %6d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                endpoint.scenario, endpoint.name, s.count, s.ok, s.rejected, s.failed, s.throughput,
+                s.p50, s.p90, s.p99, s.max);
+        }
+    }
+
+    void writeCsv(Path file, Map<String, Long> scenarioNanos) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("phase,endpoint,count,ok,rejected,failed,throughput_rps,p50_ms,p90_ms,p99_ms,max_ms");
+        for (Endpoint endpoint : sorted()) {
+            Summary s = endpoint.summarize(scenarioNanos.getOrDefault(endpoint.scenario, 0L));
+            lines.add(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%.2f,%.2f,%.2f,%.2f,%.2f",
+                endpoint.scenario, endpoint.name, s.count, s.ok, s.rejected, s.failed, s.throughput,
+                s.p50, s.p90, s.p99, s.max));
+        }
+        Files.createDirectories(file.getParent());
+        Files.write(file, lines);
+    }
+
+    private List<Endpoint> sorted() {
+        List<Endpoint> list = new ArrayList<>(endpoints.values());
+        list.sort((a, b) -> (a.scenario + a.name).compareTo(b.scenario + b.name));
+        return list;
+    }
+
+    private static final class Endpoint {
+        private final String scenario;
+        private final String name;
+        private long[] samples = new long[1024];
+        private int count;
+        private int ok;
+        private int rejected;
+        private int failed;
+
+        Endpoint(String scenario, String name) {
+            this.scenario = scenario;
+            this.name = name;
+        }
+
+        // status 0 = I/O failure or timeout
+        synchronized void add(long latencyNanos, int status) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = latencyNanos;
+            if (status >= 200 && status < 300) {
+                ok++;
+            } else if (status >= 400 && status < 500) {
+                rejected++;
+            } else {
+                failed++;
+            }
+        }
+
+        synchronized Summary summarize(long elapsedNanos) {
+            long[] sortedSamples = Arrays.copyOf(samples, count);
+            Arrays.sort(sortedSamples);
+            double seconds = elapsedNanos / 1e9;
+            return new Summary(count, ok, rejected, failed,
+                seconds > 0 ? count / seconds : 0,
+                percentile(sortedSamples, 0.50), percentile(sortedSamples, 0.90),
+                percentile(sortedSamples, 0.99), count > 0 ? sortedSamples[count - 1] / 1e6 : 0);
+        }
+
+        private static double percentile(long[] sortedSamples, double p) {
+            if (sortedSamples.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sortedSamples.length) - 1;
+            return sortedSamples[Math.max(0, index)] / 1e6;
+        }
+    }
+
+    private record Summary(int count, int ok, int rejected, int failed, double throughput,
+                           double p50, double p90, double p99, double max) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.SM.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Harness settings, given as key=value program arguments, e.g.
+ * {@code classes=60 studentsPerClass=50 gateWindow=PT10M scenario=gate}.
+ */
+final class LoadTestConfig {
+
+    // all | gate | fees
+    final String scenario;
+    final int classes;
+    final int studentsPerClass;
+    // Morning rush: every student scans once inside this window
+    final Duration gateWindow;
+    // Share of scans that are repeated (double taps, re-queues) and should be rejected as duplicates
+    final double duplicateRate;
+    // Month-end rush: every student pays inside this window
+    final Duration feeWindow;
+    // Concurrent dashboard screens and how often each refreshes
+    final int pollers;
+    final Duration pollInterval;
+    // Simulated SMTP latency per message
+    final long smtpDelayMs;
+    // Empty: embedded H2 in MySQL mode; otherwise a local MySQL URL (schema created by Flyway)
+    final String jdbcUrl;
+    final String jdbcUser;
+    final String jdbcPassword;
+    // Spring profile for the booted app, e.g. prod to exercise the tuned pool settings
+    final String profile;
+    // platform (Tomcat worker pool) or virtual (spring.threads.virtual.enabled)
+    final String threads;
+    // Send application stdout to target/app-stdout.log instead of the console
+    final boolean quiet;
+    final long seed;
+
+    private LoadTestConfig(Map<String, String> args) {
+        scenario = args.getOrDefault("scenario", "all");
+        classes = Integer.parseInt(args.getOrDefault("classes", "40"));
+        studentsPerClass = Integer.parseInt(args.getOrDefault("studentsPerClass", "50"));
+        gateWindow = Duration.parse(args.getOrDefault("gateWindow", "PT10M"));
+        duplicateRate = Double.parseDouble(args.getOrDefault("duplicateRate", "0.05"));
+        feeWindow = Duration.parse(args.getOrDefault("feeWindow", "PT2M"));
+        pollers = Integer.parseInt(args.getOrDefault("pollers", "25"));
+        pollInterval = Duration.parse(args.getOrDefault("pollInterval", "PT10S"));
+        smtpDelayMs = Long.parseLong(args.getOrDefault("smtpDelayMs", "150"));
+        jdbcUrl = args.getOrDefault("jdbcUrl", "");
+        jdbcUser = args.getOrDefault("jdbcUser", "root");
+        jdbcPassword = args.getOrDefault("jdbcPassword", "");
+        profile = args.getOrDefault("profile", "");
+        threads = args.getOrDefault("threads", "platform");
+        if (!threads.equals("platform") && !threads.equals("virtual")) {
+            throw new IllegalArgumentException("threads must be platform or virtual");
+        }
+        quiet = Boolean.parseBoolean(args.getOrDefault("quiet", "true"));
+        seed = Long.parseLong(args.getOrDefault("seed", "42"));
+    }
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            values.put(arg.substring(0, eq).replaceFirst("^--", ""), arg.substring(eq + 1));
+        }
+        return new LoadTestConfig(values);
+    }
+
+    int totalStudents() {
+        return classes * studentsPerClass;
+    }
+
+    boolean runs(String name) {
+        return "all".equals(scenario) || name.equals(scenario);
+    }
+
+    @Override
+    public String toString() {
+        return "scenario=" + scenario + ", classes=" + classes + ", students=" + totalStudents()
+            + ", gateWindow=" + gateWindow + ", duplicateRate=" + duplicateRate + ", feeWindow=" + feeWindow
+            + ", pollers=" + pollers + "@" + pollInterval + ", smtpDelayMs=" + smtpDelayMs
+            + ", threads=" + threads
+            + ", profile=" + (profile.isEmpty() ? "default" : profile)
+            + ", db=" + (jdbcUrl.isEmpty() ? "embedded H2 (MySQL mode)" : jdbcUrl);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.SM.loadtest;
+
+import com.example.SM.StudentManagementApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Boots the backend in-process on a random port against an embedded (or local) database and a
+ * fake SMTP server, seeds it, replays the morning gate rush and the month-end fee rush while
+ * dashboard screens keep polling, then prints p50/p90/p99 latency and throughput per endpoint.
+ *
+ * Run from backend/loadtest: {@code mvn -B compile exec:java -Dexec.args="classes=40 studentsPerClass=50"}
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        PrintStream console = System.out;
+        console.println("Load test: " + config);
+
+        Path reportDir = Path.of("target");
+        Files.createDirectories(reportDir);
+        if (config.quiet) {
+            // The services log every request to stdout; keep the console for the harness
+            System.setOut(new PrintStream(new FileOutputStream(reportDir.resolve("app-stdout.log").toFile()), false));
+        }
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        Map<String, Long> phaseNanos = new LinkedHashMap<>();
+        Random random = new Random(config.seed);
+
+        try (FakeSmtpServer smtp = new FakeSmtpServer(config.smtpDelayMs);
+             ConfigurableApplicationContext app = new SpringApplicationBuilder(StudentManagementApplication.class)
+                 .run(applicationArgs(config, smtp.getPort()))) {
+
+            String port = app.getEnvironment().getProperty("local.server.port");
+            List<Seeder.Seat> seats = Seeder.seed(app.getBean(JdbcTemplate.class), config);
+            console.println("Seeded " + config.classes + " classes, " + seats.size() + " students; app on port " + port);
+
+            TrafficDriver driver = new TrafficDriver("http://localhost:" + port, recorder);
+            driver.login("admin", "admin123");
+
+            AtomicBoolean stopPolling = new AtomicBoolean();
+            List<Thread> pollers = driver.startPollers(config, random, stopPolling);
+
+            if (config.runs("gate")) {
+                console.println("Gate rush: " + seats.size() + " scans over " + config.gateWindow);
+                phaseNanos.put("gate", timed(() -> driver.gateRush(seats, config, random)));
+            }
+            if (config.runs("fees")) {
+                console.println("Fee rush: " + seats.size() + " payments over " + config.feeWindow);
+                phaseNanos.put("fees", timed(() -> driver.feeRush(seats, config, random)));
+            }
+
+            stopPolling.set(true);
+            for (Thread poller : pollers) {
+                poller.join();
+            }
+
+            recorder.print(console, phaseNanos);
+            console.println("\nEmails accepted by fake SMTP: " + smtp.getMessageCount() + " over "
+                + smtp.getConnectionCount() + " connections");
+            Path csv = reportDir.resolve("loadtest-report-" + config.threads + ".csv");
+            recorder.writeCsv(csv, phaseNanos);
+            console.println("Report written to " + csv.toAbsolutePath());
+        } finally {
+            System.setOut(console);
+        }
+        System.exit(0);
+    }
+
+    private static String[] applicationArgs(LoadTestConfig config, int smtpPort) {
+        List<String> args = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--spring.threads.virtual.enabled=" + config.threads.equals("virtual"),
+            "--spring.main.banner-mode=off",
+            "--spring.jpa.show-sql=false",
+            "--logging.level.com.example.SM=WARN",
+            // The driver logs in once; keep its access token valid for the whole run
+            "--jwt.expiration=86400000",
+            // All traffic comes from one login on one address, which per-client buckets would throttle;
+            // concurrency limits on PDF/QR/statistics stay on
+            "--ratelimit.enabled=false",
+            // Keep the monthly charge job from writing ledger rows while the seeder runs
+            "--fees.charge-job.run-on-startup=false",
+            "--spring.mail.host=localhost",
+            "--spring.mail.port=" + smtpPort,
+            "--spring.mail.username=",
+            "--spring.mail.password=",
+            "--spring.mail.properties.mail.smtp.auth=false",
+            "--spring.mail.properties.mail.smtp.starttls.enable=false",
+            "--spring.mail.properties.mail.smtp.starttls.required=false"));
+
+        if (config.jdbcUrl.isEmpty()) {
+            // Same H2 settings as RepositoryQueryPlanTests; schema comes from the Flyway migrations
+            args.addAll(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                    + "NON_KEYWORDS=MONTH,VALUE,YEAR;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=none"));
+        } else {
+            args.addAll(List.of(
+                "--spring.datasource.url=" + config.jdbcUrl,
+                "--spring.datasource.username=" + config.jdbcUser,
+                "--spring.datasource.password=" + config.jdbcPassword));
+        }
+        if (!config.profile.isEmpty()) {
+            args.add("--spring.profiles.active=" + config.profile);
+        }
+        return args.toArray(new String[0]);
+    }
+
+    private interface Phase {
+        void run() throws Exception;
+    }
+
+    private static long timed(Phase phase) throws Exception {
+        long start = System.nanoTime();
+        phase.run();
+        return System.nanoTime() - start;
+    }
+}
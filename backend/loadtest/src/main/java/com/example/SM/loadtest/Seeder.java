@@ -0,0 +1,77 @@
+package com.example.SM.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Seeds classes, fee structures, students and one all-day ACTIVE attendance session per class
+ * for today, straight through JDBC. Every run uses its own prefix so a local MySQL can be reused.
+ */
+final class Seeder {
+
+    // One student's gate scan target
+    record Seat(String studentId, long classId, long sessionId) {
+    }
+
+    private Seeder() {
+    }
+
+    static List<Seat> seed(JdbcTemplate jdbc, LoadTestConfig config) {
+        String run = "LT" + Long.toString(System.currentTimeMillis() % 1_000_000, 36).toUpperCase();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+
+        List<Object[]> classRows = new ArrayList<>();
+        for (int c = 1; c <= config.classes; c++) {
+            classRows.add(new Object[] {run + " Class " + c, "Grade " + (6 + c % 8), Timestamp.valueOf(now)});
+        }
+        jdbc.batchUpdate("INSERT INTO school_classes (class_name, grade, active, created_at) VALUES (?, ?, TRUE, ?)",
+            classRows);
+        List<Long> classIds = jdbc.queryForList(
+            "SELECT id FROM school_classes WHERE class_name LIKE ? ORDER BY id", Long.class, run + " Class %");
+
+        List<Object[]> feeRows = new ArrayList<>();
+        List<Object[]> sessionRows = new ArrayList<>();
+        for (Long classId : classIds) {
+            feeRows.add(new Object[] {classId, Timestamp.valueOf(now), Timestamp.valueOf(now)});
+            sessionRows.add(new Object[] {classId, Date.valueOf(today), Time.valueOf(LocalTime.MIN),
+                Time.valueOf(LocalTime.of(23, 59, 59)), Timestamp.valueOf(now)});
+        }
+        jdbc.batchUpdate("INSERT INTO fee_structures (class_id, monthly_fee, total_fee, created_at, updated_at) "
+            + "VALUES (?, 2500.00, 2500.00, ?, ?)", feeRows);
+        jdbc.batchUpdate("INSERT INTO attendance_sessions (class_id, date, scheduled_start_time, scheduled_end_time, "
+            + "subject, status, created_at) VALUES (?, ?, ?, ?, 'Load Test', 'ACTIVE', ?)", sessionRows);
+
+        Map<Long, Long> sessionByClass = jdbc.query(
+            "SELECT id, class_id FROM attendance_sessions WHERE date = ? AND subject = 'Load Test'",
+            (rs, i) -> new long[] {rs.getLong("class_id"), rs.getLong("id")}, Date.valueOf(today))
+            .stream()
+            .collect(Collectors.toMap(r -> r[0], r -> r[1], (a, b) -> b));
+
+        List<Seat> seats = new ArrayList<>(config.totalStudents());
+        List<Object[]> studentRows = new ArrayList<>(config.totalStudents());
+        for (int c = 0; c < classIds.size(); c++) {
+            long classId = classIds.get(c);
+            for (int s = 1; s <= config.studentsPerClass; s++) {
+                String studentId = String.format("%s-%03d-%03d", run, c + 1, s);
+                studentRows.add(new Object[] {studentId, "Load", "Student " + s, "Grade " + (6 + (c + 1) % 8),
+                    studentId.toLowerCase() + "@loadtest.local", classId, Date.valueOf(today), Timestamp.valueOf(now)});
+                seats.add(new Seat(studentId, classId, sessionByClass.get(classId)));
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO students (student_id, first_name, last_name, grade, email, status, class_id, "
+            + "registration_date, created_at) VALUES (?, ?, ?, ?, ?, 'Active', ?, ?, ?)", studentRows);
+
+        return seats;
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.SM.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Open-model traffic: every request has a planned start offset and is fired from its own
+ * virtual thread at that moment, whether or not earlier requests have completed.
+ */
+final class TrafficDriver {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient client;
+    private final AtomicReference<String> phase = new AtomicReference<>("setup");
+    private String token;
+
+    private record Planned(long offsetNanos, String label, HttpRequest request) {
+    }
+
+    TrafficDriver(String baseUrl, LatencyRecorder recorder) {
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+        this.client = HttpClient.newBuilder()
+            .executor(httpExecutor)
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    }
+
+    void login(String username, String password) throws Exception {
+        HttpResponse<String> response = client.send(
+            post("/api/auth/login", Map.of("username", username, "password", password)),
+            HttpResponse.BodyHandlers.ofString());
+        JsonNode body = objectMapper.readTree(response.body());
+        if (response.statusCode() != 200 || !body.hasNonNull("token")) {
+            throw new IllegalStateException("Login failed: " + response.statusCode() + " " + response.body());
+        }
+        token = body.get("token").asText();
+    }
+
+    // Every student scans once; a share of them scans again a few seconds later
+    void gateRush(List<Seeder.Seat> seats, LoadTestConfig config, Random random) throws Exception {
+        long window = config.gateWindow.toNanos();
+        String today = LocalDate.now().toString();
+        List<Planned> plan = new ArrayList<>();
+        for (Seeder.Seat seat : seats) {
+            // Arrivals build up towards the bell at ~60% of the window, then tail off
+            long offset = (long) (triangular(random, 0.6) * window);
+            HttpRequest scan = post("/api/attendance/record", Map.of(
+                "studentId", seat.studentId(), "sessionId", seat.sessionId(), "date", today));
+            plan.add(new Planned(offset, "POST /api/attendance/record", scan));
+            if (random.nextDouble() < config.duplicateRate) {
+                plan.add(new Planned(offset + TimeUnit.SECONDS.toNanos(1 + random.nextInt(5)),
+                    "POST /api/attendance/record (repeat)", scan));
+            }
+        }
+        replay("gate", plan);
+    }
+
+    // Every student pays the current month; most payments land early in the window
+    void feeRush(List<Seeder.Seat> seats, LoadTestConfig config, Random random) throws Exception {
+        long window = config.feeWindow.toNanos();
+        LocalDate today = LocalDate.now();
+        String month = today.toString().substring(0, 7);
+        List<Planned> plan = new ArrayList<>();
+        int n = 0;
+        for (Seeder.Seat seat : seats) {
+            long offset = (long) (triangular(random, 0.2) * window);
+            HttpRequest payment = post("/api/fee-payments/record-with-email", Map.of(
+                "studentId", seat.studentId(),
+                "classId", seat.classId(),
+                "amountPaid", "2500.00",
+                "paymentDate", today.toString(),
+                "month", month,
+                "paymentMethod", "CASH",
+                "transactionId", "LT-" + seat.studentId() + "-" + (n++),
+                "notes", "load test"));
+            plan.add(new Planned(offset, "POST /api/fee-payments/record-with-email", payment));
+        }
+        replay("fees", plan);
+    }
+
+    // Dashboard screens refreshing on a fixed interval, the way Dashboard.jsx does (all calls in parallel)
+    List<Thread> startPollers(LoadTestConfig config, Random random, AtomicBoolean stop) {
+        String today = LocalDate.now().toString();
+        Map<String, String> dashboard = Map.of(
+            "GET /api/students", "/api/students",
+            "GET /api/attendance/date/{date}", "/api/attendance/date/" + today,
+            "GET /api/classes/active", "/api/classes/active",
+            "GET /api/attendance/sessions/active", "/api/attendance/sessions/active",
+            "GET /api/fee-payments/statistics", "/api/fee-payments/statistics",
+            "GET /api/fee-payments/overdue", "/api/fee-payments/overdue");
+
+        long interval = config.pollInterval.toNanos();
+        List<Thread> pollers = new ArrayList<>();
+        for (int i = 0; i < config.pollers; i++) {
+            long jitter = (long) (random.nextDouble() * interval);
+            pollers.add(Thread.ofVirtual().name("dashboard-poller-" + i).start(() -> {
+                long next = System.nanoTime() + jitter;
+                while (!stop.get()) {
+                    sleepUntil(next);
+                    if (stop.get()) {
+                        return;
+                    }
+                    long scheduled = next;
+                    List<CompletableFuture<?>> calls = new ArrayList<>();
+                    dashboard.forEach((label, path) -> calls.add(
+                        CompletableFuture.runAsync(() -> send(phase.get(), label, get(path), scheduled), httpExecutor)));
+                    CompletableFuture.allOf(calls.toArray(new CompletableFuture[0])).join();
+                    next += interval;
+                }
+            }));
+        }
+        return pollers;
+    }
+
+    void setPhase(String name) {
+        phase.set(name);
+    }
+
+    private void replay(String scenario, List<Planned> plan) throws InterruptedException {
+        setPhase(scenario);
+        Collections.shuffle(plan);
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Planned planned : plan) {
+                long scheduled = start + planned.offsetNanos();
+                executor.submit(() -> {
+                    sleepUntil(scheduled);
+                    send(scenario, planned.label(), planned.request(), scheduled);
+                });
+            }
+        }
+    }
+
+    private void send(String scenario, String label, HttpRequest request, long scheduledNanos) {
+        int status;
+        try {
+            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception e) {
+            status = 0;
+        }
+        recorder.record(scenario, label, System.nanoTime() - scheduledNanos, status);
+    }
+
+    private HttpRequest post(String path, Map<String, ?> body) {
+        try {
+            return authorized(HttpRequest.newBuilder(URI.create(baseUrl + path)))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return authorized(HttpRequest.newBuilder(URI.create(baseUrl + path))).GET().build();
+    }
+
+    private HttpRequest.Builder authorized(HttpRequest.Builder builder) {
+        builder.timeout(REQUEST_TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    // Triangular distribution on [0, 1] peaking at mode
+    private static double triangular(Random random, double mode) {
+        double u = random.nextDouble();
+        return u < mode ? Math.sqrt(u * mode) : 1 - Math.sqrt((1 - u) * (1 - mode));
+    }
+
+    private static void sleepUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
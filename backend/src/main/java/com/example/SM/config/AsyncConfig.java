@@ -0,0 +1,61 @@
+package com.example.SM.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * @Async support. Plain @Async methods run on Boot's applicationTaskExecutor (spring.task.execution.*),
+ * which switches to virtual threads when spring.threads.virtual.enabled=true. Boot only creates it
+ * next to the executors below because spring.task.execution.mode=force.
+ *
+ * SMTP sends get their own small platform-thread pool in both modes: Jakarta Mail's
+ * Service.connect/close are synchronized, so a send on a virtual thread pins its carrier
+ * for the whole SMTP handshake (JDK 21).
+ *
+ * BCrypt checks on login run on a CPU-sized pool so a burst of logins queues there instead of
+ * holding Tomcat workers for ~100ms each.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    @Value("${mail.async.pool-size:4}")
+    private int mailPoolSize;
+
+    @Value("${mail.async.queue-capacity:1000}")
+    private int mailQueueCapacity;
+
+    // 0 = one thread per available core
+    @Value("${auth.bcrypt.pool-size:0}")
+    private int bcryptPoolSize;
+
+    @Value("${auth.bcrypt.queue-capacity:200}")
+    private int bcryptQueueCapacity;
+
+    @Bean(name = "mailExecutor")
+    public ThreadPoolTaskExecutor mailExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(mailPoolSize);
+        executor.setMaxPoolSize(mailPoolSize);
+        executor.setQueueCapacity(mailQueueCapacity);
+        executor.setThreadNamePrefix("sm-mail-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    @Bean(name = "passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor() {
+        int threads = bcryptPoolSize > 0 ? bcryptPoolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        // Full queue rejects the task; the login endpoint answers 503 instead of waiting
+        executor.setQueueCapacity(bcryptQueueCapacity);
+        executor.setThreadNamePrefix("sm-bcrypt-");
+        return executor;
+    }
+}
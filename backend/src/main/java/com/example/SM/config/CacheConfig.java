@@ -0,0 +1,21 @@
+package com.example.SM.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caffeine-backed Spring Cache for reference data (classes, fee structures, schedules).
+ * Sizes/TTL live in spring.cache.caffeine.spec; "recordStats" there feeds the
+ * cache.gets{result=hit|miss} metrics on /actuator/prometheus.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String CLASS_BY_ID = "classById";
+    public static final String ACTIVE_CLASSES = "activeClasses";
+    public static final String CLASSES_BY_GRADE = "classesByGrade";
+    public static final String FEE_BY_CLASS = "feeStructureByClass";
+    public static final String SCHEDULES_BY_CLASS = "schedulesByClass";
+    public static final String TODAY_SCHEDULES_BY_CLASS = "todaySchedulesByClass";
+}
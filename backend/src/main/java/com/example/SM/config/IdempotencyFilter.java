@@ -0,0 +1,207 @@
+package com.example.SM.config;
+
+import com.example.SM.service.IdempotencyService;
+import com.example.SM.service.MetricsService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Honours an Idempotency-Key header on payment and attendance writes. The first request with a
+ * key runs normally and its 2xx response is stored; a retry with the same key (same user,
+ * endpoint and body) gets that response back without reaching the controller. Failed responses
+ * are not stored, so a retry after an error is processed again.
+ *
+ * Runs between JwtAuthenticationFilter and RateLimitFilter: keys are scoped by user, and replays
+ * do not use up the client's rate-limit budget.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private MetricsService metricsService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || request.getHeader(KEY_HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        return !path.startsWith("/api/fee-payments/record")
+            && !path.equals("/api/attendance/record")
+            && !path.equals("/api/attendance/manual");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        String clientKey = request.getHeader(KEY_HEADER).trim();
+        if (clientKey.isEmpty() || clientKey.length() > MAX_KEY_LENGTH) {
+            reject(response, HttpStatus.BAD_REQUEST, KEY_HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+        String requestHash = IdempotencyService.sha256(body);
+        String key = idempotencyService.scopedKey(currentUser(), request.getMethod(), request.getRequestURI(), clientKey);
+
+        Optional<IdempotencyService.StoredResponse> stored = idempotencyService.find(key);
+        if (stored.isPresent()) {
+            replay(stored.get(), requestHash, response);
+            return;
+        }
+
+        if (!idempotencyService.begin(key)) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            reject(response, HttpStatus.CONFLICT, "A request with this " + KEY_HEADER + " is still being processed");
+            return;
+        }
+        try {
+            // The first request may have finished between find() and begin()
+            stored = idempotencyService.find(key);
+            if (stored.isPresent()) {
+                replay(stored.get(), requestHash, response);
+                return;
+            }
+
+            ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+            filterChain.doFilter(new CachedBodyRequest(request, body), captured);
+
+            int status = captured.getStatus();
+            if (status >= 200 && status < 300) {
+                idempotencyService.save(key, new IdempotencyService.StoredResponse(requestHash, status,
+                    captured.getContentType(), captured.getHeader(HttpHeaders.CONTENT_DISPOSITION),
+                    captured.getContentAsByteArray()));
+            }
+            captured.copyBodyToResponse();
+        } finally {
+            idempotencyService.end(key);
+        }
+    }
+
+    private void replay(IdempotencyService.StoredResponse stored, String requestHash, HttpServletResponse response)
+            throws IOException {
+        if (!stored.requestHash().equals(requestHash)) {
+            reject(response, HttpStatus.UNPROCESSABLE_ENTITY, KEY_HEADER + " was already used for a different request");
+            return;
+        }
+        metricsService.recordIdempotentReplay();
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.contentDisposition() != null) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, stored.contentDisposition());
+        }
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : "anonymous";
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+
+    // The body has to be hashed before the controller reads it, so it is read once and replayed from memory
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it is available straight away
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
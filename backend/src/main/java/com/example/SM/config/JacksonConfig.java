@@ -0,0 +1,41 @@
+package com.example.SM.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Extra Jackson modules; Spring Boot registers every Module bean on its ObjectMapper.
+ * Null fields are left out via spring.jackson.default-property-inclusion.
+ *
+ * Clients on slow links can send "Accept: application/cbor" or "Accept: application/x-jackson-smile"
+ * to get the same payload as binary JSON. JSON stays first in the converter list, so clients
+ * that accept anything still get JSON. Responses vary on Accept (VaryByAcceptAdvice), and list
+ * ETags carry the format (RepresentationETagAdvice).
+ */
+@Configuration
+public class JacksonConfig {
+
+    // Replaces reflective getter calls with generated lambdas on the list endpoints' hot path
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    // Built from Boot's builder (prototype bean) so the binary formats get the same modules and inclusion
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.SM.config;
 
+import com.example.SM.service.TokenRevocationService;
 import com.example.SM.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,9 +19,16 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // The one endpoint that takes a stream token from the query string instead of the header
+    public static final String STREAM_PATH = "/api/attendance/stream";
+    public static final String STREAM_TOKEN_PARAM = "token";
+
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                    HttpServletResponse response,
@@ -32,28 +41,39 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String username = null;
         String jwt = null;
+        boolean fromQuery = false;
 
-        // Only process if Authorization header exists and starts with "Bearer "
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             jwt = authHeader.substring(7);
-            
+        } else if (STREAM_PATH.equals(request.getRequestURI()) && request.getParameter(STREAM_TOKEN_PARAM) != null) {
+            // EventSource cannot set headers; it passes a short-lived stream token instead
+            jwt = request.getParameter(STREAM_TOKEN_PARAM);
+            fromQuery = true;
+        }
+
+        if (jwt != null) {
             try {
-                username = jwtUtil.extractUsername(jwt);
+                // One parse checks signature and expiry; revocation is an in-memory lookup
+                Claims claims = jwtUtil.parseClaims(jwt);
+                username = claims.getSubject();
                 System.out.println("🔍 Filter - Extracted username: " + username);
                 
-                // Validate token
-                if (username != null && jwtUtil.validateToken(jwt, username)) {
+                // Validate token: refresh tokens and logged-out tokens don't authenticate requests,
+                // and a stream token only authenticates the stream
+                boolean rightType = fromQuery ? jwtUtil.isStreamToken(claims) : jwtUtil.isAccessToken(claims);
+                if (username != null && rightType
+                        && !tokenRevocationService.isRevoked(claims.getId())) {
                     System.out.println("✅ Filter - Token valid for user: " + username);
                     
-                    // Create authentication object
-                    UsernamePasswordAuthenticationToken authToken = 
-                        new UsernamePasswordAuthenticationToken(username, null, null);
+                    // Authorities come from the signed role claim, so @PreAuthorize needs no user lookup
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        username, null, RoleAuthorities.forRole(claims.get("role", String.class)));
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     
                     // Set authentication in SecurityContext
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 } else {
-                    System.out.println("❌ Filter - Token invalid or expired");
+                    System.out.println("❌ Filter - Token revoked or of the wrong type");
                 }
             } catch (Exception e) {
                 System.err.println("❌ Filter - Error processing JWT: " + e.getMessage());
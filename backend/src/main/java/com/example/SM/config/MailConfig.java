@@ -0,0 +1,53 @@
+package com.example.SM.config;
+
+import com.example.SM.service.MetricsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Properties;
+
+/**
+ * Replaces Boot's JavaMailSender with PooledMailSender, configured from the same spring.mail.*
+ * properties. Every service that injects JavaMailSender sends over the pool.
+ */
+@Configuration
+@EnableConfigurationProperties(MailProperties.class)
+public class MailConfig {
+
+    // Matches mail.async.pool-size: one connection per mail thread
+    @Value("${mail.pool.size:4}")
+    private int poolSize;
+
+    @Value("${mail.pool.max-messages-per-connection:100}")
+    private int maxMessagesPerConnection;
+
+    @Value("${mail.pool.idle-timeout-ms:30000}")
+    private long idleTimeoutMs;
+
+    @Value("${mail.pool.max-wait-ms:10000}")
+    private long maxWaitMs;
+
+    @Bean
+    public PooledMailSender mailSender(MailProperties properties, MetricsService metricsService) {
+        PooledMailSender sender = new PooledMailSender(metricsService, poolSize, maxMessagesPerConnection,
+            idleTimeoutMs, maxWaitMs);
+        sender.setHost(properties.getHost());
+        if (properties.getPort() != null) {
+            sender.setPort(properties.getPort());
+        }
+        sender.setUsername(properties.getUsername());
+        sender.setPassword(properties.getPassword());
+        sender.setProtocol(properties.getProtocol());
+        if (properties.getDefaultEncoding() != null) {
+            sender.setDefaultEncoding(properties.getDefaultEncoding().name());
+        }
+        Properties javaMailProperties = new Properties();
+        javaMailProperties.putAll(properties.getProperties());
+        sender.setJavaMailProperties(javaMailProperties);
+        metricsService.registerMailPool(sender);
+        return sender;
+    }
+}
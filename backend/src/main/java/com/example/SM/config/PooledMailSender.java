@@ -0,0 +1,240 @@
+package com.example.SM.config;
+
+import com.example.SM.service.MetricsService;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JavaMailSender that keeps up to poolSize connected SMTP transports instead of connecting,
+ * doing STARTTLS and authenticating for every message. A connection serves one sender at a
+ * time, is retired after maxMessagesPerConnection messages and closed after idleTimeoutMs
+ * unused. Batches (send(MimeMessage...)) go out back to back over one connection.
+ */
+public class PooledMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private static final String HEADER_MESSAGE_ID = "Message-ID";
+
+    // Connection events, used as the "event" tag on sm.mail.connections
+    static final String OPENED = "opened";
+    static final String REUSED = "reused";
+    static final String RETIRED = "retired";
+    static final String EXPIRED = "expired";
+    static final String BROKEN = "broken";
+
+    private static final class Connection {
+        final Transport transport;
+        int sent;
+        long lastUsed = System.nanoTime();
+
+        Connection(Transport transport) {
+            this.transport = transport;
+        }
+    }
+
+    private final MetricsService metricsService;
+    private final int maxMessagesPerConnection;
+    private final long idleTimeoutNanos;
+    private final long maxWaitMs;
+
+    // Permits are connections in use; idle ones sit in the deque, most recently used first
+    private final Semaphore permits;
+    private final Deque<Connection> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger open = new AtomicInteger();
+
+    public PooledMailSender(MetricsService metricsService, int poolSize, int maxMessagesPerConnection,
+                            long idleTimeoutMs, long maxWaitMs) {
+        this.metricsService = metricsService;
+        this.permits = new Semaphore(poolSize, true);
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    public int getOpenConnections() {
+        return open.get();
+    }
+
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        acquirePermit();
+        Connection connection = null;
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                Object original = originalMessages != null ? originalMessages[i] : mimeMessages[i];
+                if (connection == null) {
+                    try {
+                        connection = borrow();
+                    } catch (AuthenticationFailedException e) {
+                        throw new MailAuthenticationException(e);
+                    } catch (MessagingException e) {
+                        // No server to talk to: this and every remaining message fails
+                        for (int j = i; j < mimeMessages.length; j++) {
+                            failedMessages.put(originalMessages != null ? originalMessages[j] : mimeMessages[j], e);
+                        }
+                        throw new MailSendException("Mail server connection failed", e, failedMessages);
+                    }
+                }
+                boolean reused = connection.sent > 0;
+                try {
+                    send(connection, mimeMessages[i]);
+                } catch (MessagingException e) {
+                    if (recipientsRejected(connection, e)) {
+                        // Rejected recipients; the connection itself is still good
+                        failedMessages.put(original, e);
+                    } else {
+                        discard(connection, BROKEN);
+                        connection = null;
+                        if (!reused) {
+                            failedMessages.put(original, e);
+                            continue;
+                        }
+                        // The server may have dropped a connection we kept; retry once on a fresh one
+                        try {
+                            connection = borrow();
+                            send(connection, mimeMessages[i]);
+                        } catch (MessagingException retryFailure) {
+                            failedMessages.put(original, retryFailure);
+                            if (connection != null && !recipientsRejected(connection, retryFailure)) {
+                                discard(connection, BROKEN);
+                                connection = null;
+                            }
+                        }
+                    }
+                }
+                if (connection != null && connection.sent >= maxMessagesPerConnection) {
+                    discard(connection, RETIRED);
+                    connection = null;
+                }
+            }
+        } finally {
+            if (connection != null) {
+                connection.lastUsed = System.nanoTime();
+                idle.offerFirst(connection);
+            }
+            permits.release();
+        }
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    // Closes connections left idle too long, so they are not reused after the server times them out
+    @Scheduled(fixedDelayString = "${mail.pool.reap-interval-ms:10000}")
+    public void closeIdleConnections() {
+        long now = System.nanoTime();
+        Iterator<Connection> iterator = idle.descendingIterator();
+        while (iterator.hasNext()) {
+            Connection connection = iterator.next();
+            if (now - connection.lastUsed > idleTimeoutNanos && idle.remove(connection)) {
+                discard(connection, EXPIRED);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            discard(connection, EXPIRED);
+        }
+    }
+
+    private void acquirePermit() {
+        try {
+            if (!permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                throw new MailSendException("No SMTP connection available within " + maxWaitMs + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted waiting for an SMTP connection", e);
+        }
+    }
+
+    // Most recently used idle connection that has not expired, else a new one
+    private Connection borrow() throws MessagingException {
+        Connection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            if (System.nanoTime() - connection.lastUsed <= idleTimeoutNanos) {
+                metricsService.recordMailConnection(REUSED);
+                return connection;
+            }
+            discard(connection, EXPIRED);
+        }
+        Timer.Sample sample = metricsService.startTimer();
+        boolean success = false;
+        try {
+            // Connect, STARTTLS and AUTH, as configured in spring.mail.*
+            connection = new Connection(connectTransport());
+            success = true;
+        } finally {
+            metricsService.stopTimer(sample, MetricsService.MAIL_CONNECT, success);
+        }
+        open.incrementAndGet();
+        metricsService.recordMailConnection(OPENED);
+        return connection;
+    }
+
+    private void send(Connection connection, MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        // saveChanges() regenerates the Message-ID; keep one the caller set
+        String messageId = message.getMessageID();
+        message.saveChanges();
+        if (messageId != null) {
+            message.setHeader(HEADER_MESSAGE_ID, messageId);
+        }
+        Address[] addresses = message.getAllRecipients();
+        Timer.Sample sample = metricsService.startTimer();
+        boolean success = false;
+        try {
+            connection.transport.sendMessage(message, addresses != null ? addresses : new Address[0]);
+            success = true;
+        } finally {
+            metricsService.stopTimer(sample, MetricsService.MAIL_TRANSPORT_SEND, success);
+        }
+        connection.sent++;
+    }
+
+    // SMTPSendFailedException is also how a server hang-up mid-transaction ([EOF]) surfaces,
+    // so only a failure on a connection that is still up means rejected recipients
+    private static boolean recipientsRejected(Connection connection, MessagingException e) {
+        return e instanceof SendFailedException && connection.transport.isConnected();
+    }
+
+    private void discard(Connection connection, String reason) {
+        open.decrementAndGet();
+        metricsService.recordMailConnection(reason);
+        try {
+            connection.transport.close();
+        } catch (MessagingException e) {
+            // already gone
+        }
+    }
+}
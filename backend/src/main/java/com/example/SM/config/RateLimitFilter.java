@@ -0,0 +1,122 @@
+package com.example.SM.config;
+
+import com.example.SM.service.MetricsService;
+import com.example.SM.service.RateLimitService;
+import com.example.SM.util.AdaptiveConcurrencyLimit;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Runs right after JwtAuthenticationFilter so buckets can be keyed by user. Over-rate clients get
+ * 429, and expensive endpoints over their concurrency limit get 503, both with Retry-After,
+ * instead of holding a Tomcat thread until they time out.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Scanner tablets identify themselves so several tablets under one login get separate buckets
+    public static final String DEVICE_HEADER = "X-Device-Id";
+
+    private static final AntPathMatcher PATHS = new AntPathMatcher();
+
+    @Autowired
+    private RateLimitService rateLimitService;
+
+    @Autowired
+    private MetricsService metricsService;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        String path = request.getRequestURI();
+
+        String rule = rateLimitRule(request.getMethod(), path);
+        if (rule != null) {
+            String client = clientKey(rule, request);
+            long retryAfter = rateLimitService.tryAcquire(rule, client);
+            if (retryAfter > 0) {
+                System.out.println("🚦 Rate limited " + rule + " for " + client);
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfter, "Too many requests, please slow down");
+                return;
+            }
+        }
+
+        String group = concurrencyGroup(path);
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        AdaptiveConcurrencyLimit limit = rateLimitService.concurrencyLimit(group);
+        if (!limit.tryAcquire()) {
+            metricsService.recordRejection(group, "overloaded");
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Server is busy, please try again");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limit.release(start);
+        }
+    }
+
+    private String rateLimitRule(String method, String path) {
+        if ("POST".equals(method) && path.equals("/api/attendance/record")) {
+            return RateLimitService.SCAN;
+        }
+        if ("POST".equals(method) && (path.equals("/api/auth/login") || path.equals("/api/auth/refresh"))) {
+            return RateLimitService.LOGIN;
+        }
+        if (path.startsWith("/api/fee-payments/receipt/") || path.equals("/api/fee-payments/record-and-download")) {
+            return RateLimitService.RECEIPT;
+        }
+        return null;
+    }
+
+    private String concurrencyGroup(String path) {
+        if (path.startsWith("/api/fee-payments/receipt/") || path.equals("/api/fee-payments/record-and-download")) {
+            return RateLimitService.PDF;
+        }
+        if (path.startsWith("/api/qrcode/")) {
+            return RateLimitService.QR;
+        }
+        if (path.equals("/api/fee-payments/statistics") || PATHS.match("/api/students/class/*/statistics", path)) {
+            return RateLimitService.STATISTICS;
+        }
+        return null;
+    }
+
+    // Logins are keyed by IP (there is no user yet); everything else by user, plus device for scans
+    private String clientKey(String rule, HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (RateLimitService.LOGIN.equals(rule) || authentication == null || !authentication.isAuthenticated()) {
+            return "ip:" + request.getRemoteAddr();
+        }
+        String device = RateLimitService.SCAN.equals(rule) ? request.getHeader(DEVICE_HEADER) : null;
+        return device != null ? "user:" + authentication.getName() + "/" + device : "user:" + authentication.getName();
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.SM.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JSON, Smile and CBOR bodies of the same list are different representations, so each gets its own
+ * strong ETag; JSON keeps the plain tag. List endpoints register their JSON tag through
+ * notModifiedTag and this advice writes the tag for the media type the converters selected, and
+ * answers If-None-Match against it.
+ */
+@ControllerAdvice
+public class RepresentationETagAdvice implements ResponseBodyAdvice<Object> {
+
+    private static final String ETAG_ATTRIBUTE = RepresentationETagAdvice.class.getName() + ".etag";
+
+    // Accept is client-controlled; past this many distinct values new ones are not remembered
+    private static final int MAX_REMEMBERED_ACCEPT_HEADERS = 256;
+
+    // Media type the converters selected per Accept header, so a revalidation can be answered
+    // before the list is loaded
+    private final Map<String, MediaType> negotiated = new ConcurrentHashMap<>();
+
+    // Registers the list's JSON ETag for this request. Returns the tag to send with a 304 when the
+    // client's copy is current in the format this Accept header is served in; null when the list
+    // has to be loaded, and the tag then goes out with the body.
+    public String notModifiedTag(WebRequest request, String etag) {
+        request.setAttribute(ETAG_ATTRIBUTE, etag, RequestAttributes.SCOPE_REQUEST);
+        MediaType format = negotiated.get(acceptKey(request.getHeader(HttpHeaders.ACCEPT)));
+        if (format == null) {
+            return null;
+        }
+        String tag = forRepresentation(etag, format);
+        String[] ifNoneMatch = request.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        return ifNoneMatch != null && matches(List.of(ifNoneMatch), tag) ? tag : null;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)
+                || !(servletRequest.getServletRequest().getAttribute(ETAG_ATTRIBUTE) instanceof String etag)) {
+            return body;
+        }
+        MediaType format = new MediaType(selectedContentType.getType(), selectedContentType.getSubtype());
+        String accept = acceptKey(request.getHeaders().getFirst(HttpHeaders.ACCEPT));
+        if (negotiated.size() < MAX_REMEMBERED_ACCEPT_HEADERS || negotiated.containsKey(accept)) {
+            negotiated.put(accept, format);
+        }
+
+        String tag = forRepresentation(etag, format);
+        response.getHeaders().setETag(tag);
+        if (matches(request.getHeaders().getIfNoneMatch(), tag)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return null;
+        }
+        return body;
+    }
+
+    private static String forRepresentation(String etag, MediaType format) {
+        if (format.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            return etag;
+        }
+        // application/cbor -> "-cbor", application/x-jackson-smile -> "-smile"
+        String suffix = "-" + format.getSubtype().replace("x-jackson-", "");
+        return etag.substring(0, etag.length() - 1) + suffix + '"';
+    }
+
+    private static boolean matches(List<String> ifNoneMatch, String tag) {
+        for (String header : ifNoneMatch) {
+            for (String candidate : header.split(",")) {
+                String value = candidate.trim();
+                if (value.startsWith("W/")) {
+                    value = value.substring(2);
+                }
+                if (value.equals("*") || value.equals(tag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String acceptKey(String accept) {
+        return accept != null ? accept.trim() : "";
+    }
+}
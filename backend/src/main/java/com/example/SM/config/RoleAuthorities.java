@@ -0,0 +1,39 @@
+package com.example.SM.config;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps the JWT "role" claim (ADMIN, TEACHER, STUDENT) to Spring authorities. Lists are built
+ * once per role and shared, so authenticating a request creates no authority objects.
+ */
+public final class RoleAuthorities {
+
+    private static final Map<String, List<GrantedAuthority>> BY_ROLE = new ConcurrentHashMap<>();
+
+    static {
+        for (String role : List.of("ADMIN", "TEACHER", "STUDENT")) {
+            BY_ROLE.put(role, build(role));
+        }
+    }
+
+    private RoleAuthorities() {
+    }
+
+    // Unknown roles are interned on first use; a token without a role gets no authorities
+    public static List<GrantedAuthority> forRole(String role) {
+        if (role == null || role.isBlank()) {
+            return List.of();
+        }
+        List<GrantedAuthority> authorities = BY_ROLE.get(role);
+        return authorities != null ? authorities : BY_ROLE.computeIfAbsent(role, RoleAuthorities::build);
+    }
+
+    private static List<GrantedAuthority> build(String role) {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+}
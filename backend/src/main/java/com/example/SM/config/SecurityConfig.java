@@ -1,14 +1,19 @@
 package com.example.SM.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -19,14 +24,45 @@ import java.util.List;
 
 @Configuration
 @EnableWebSecurity
+// @PreAuthorize on controllers, evaluated against the authorities the JWT filter derives from the token
+@EnableMethodSecurity
 public class SecurityConfig {
 
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private IdempotencyFilter idempotencyFilter;
+
+    // Existing hashes with a different cost are re-hashed on the user's next login
+    @Value("${auth.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    // Set when actuator runs on its own internal port (see management.server.port)
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
+    // Only run inside the security chain (after authentication), not again as a plain servlet filter
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter filter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilterRegistration(IdempotencyFilter filter) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -35,12 +71,14 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            // Missing/expired/revoked token -> 401, which the frontend answers with /api/auth/refresh
+            .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
             .authorizeHttpRequests(authz -> authz
                 // Public endpoints
                 .requestMatchers(
                     "/api/auth/**",
                     "/api/test/**",
-                    "/api/debug/**",
+                    "/actuator/health",
                     "/",
                     "/index.html",
                     "/static/**",
@@ -48,6 +86,12 @@ public class SecurityConfig {
                     "/js/**",
                     "/images/**"
                 ).permitAll()
+
+                // Actuator on the internal management port is for the Prometheus scraper, which has no token
+                .requestMatchers(request -> managementPort > 0 && request.getLocalPort() == managementPort).permitAll()
+
+                // Pool state, config dumps and metrics are for administrators only
+                .requestMatchers("/api/debug/**", "/actuator/**").hasRole("ADMIN")
                 
                 // Dashboard endpoints require authentication
                 .requestMatchers("/api/dashboard/**").authenticated()
@@ -64,7 +108,9 @@ public class SecurityConfig {
                 // Any other request
                 .anyRequest().permitAll()
             )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(idempotencyFilter, JwtAuthenticationFilter.class)
+            .addFilterAfter(rateLimitFilter, IdempotencyFilter.class);
 
         return http.build();
     }
@@ -77,6 +123,8 @@ public class SecurityConfig {
         configuration.setAllowedOriginPatterns(List.of("*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(List.of("*"));
+        // ETag for delta-sync polling clients; Idempotent-Replayed tells a retrying scanner it got a stored response
+        configuration.setExposedHeaders(List.of("ETag", IdempotencyFilter.REPLAYED_HEADER));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
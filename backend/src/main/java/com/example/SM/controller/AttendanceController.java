@@ -1,11 +1,23 @@
 package com.example.SM.controller;
 
+import com.example.SM.config.RepresentationETagAdvice;
 import com.example.SM.dto.AttendanceRequest;
 import com.example.SM.dto.AttendanceResponse;
 import com.example.SM.service.AttendanceService;
+import com.example.SM.service.AttendanceStreamService;
+import com.example.SM.util.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.HashMap;
@@ -20,6 +32,15 @@ public class AttendanceController {
     @Autowired
     private AttendanceService attendanceService;
     
+    @Autowired
+    private AttendanceStreamService attendanceStreamService;
+
+    @Autowired
+    private RepresentationETagAdvice representationETagAdvice;
+    
+    @Autowired
+    private JwtUtil jwtUtil;
+    
     @PostMapping("/record")
     public ResponseEntity<?> recordAttendance(@RequestBody AttendanceRequest request) {
         try {
@@ -37,9 +58,28 @@ public class AttendanceController {
         return attendanceService.getStudentAttendance(studentId);
     }
     
+    // Supports delta polling via ?since=<watermark> and ETag / If-None-Match revalidation
     @GetMapping("/date/{date}")
-    public List<AttendanceResponse> getAttendanceByDate(@PathVariable String date) {
-        return attendanceService.getAttendanceByDate(date);
+    public ResponseEntity<?> getAttendanceByDate(
+            @PathVariable String date,
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit,
+            WebRequest webRequest) {
+        try {
+            String notModified = representationETagAdvice.notModifiedTag(webRequest, attendanceService.getAttendanceETag(date, since, limit));
+            if (notModified != null) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(notModified).varyBy(HttpHeaders.ACCEPT).build();
+            }
+            
+            if (since == null) {
+                return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(attendanceService.getAttendanceByDate(date));
+            }
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(attendanceService.getAttendanceChangesByDate(date, since, limit));
+        } catch (Exception e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
     }
     
     @GetMapping("/session/{sessionId}")
@@ -59,6 +99,7 @@ public class AttendanceController {
         return attendanceService.getAttendanceSummary(studentId);
     }
     
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
     @PostMapping("/manual")
     public ResponseEntity<?> recordManualAttendance(
             @RequestParam String studentId,
@@ -79,8 +120,37 @@ public class AttendanceController {
     // REMOVED: getActiveSessions() method - This belongs in AttendanceSessionController
     
     @GetMapping("/today")
-    public List<AttendanceResponse> getTodayAttendance() {
+    public ResponseEntity<?> getTodayAttendance(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit,
+            WebRequest webRequest) {
         String today = LocalDate.now().toString();
-        return attendanceService.getAttendanceByDate(today);
+        return getAttendanceByDate(today, since, limit, webRequest);
+    }
+    
+    // EventSource cannot send the bearer token, so screens trade it for a short-lived stream token
+    // and open /stream?token=...
+    @PostMapping("/stream/token")
+    public ResponseEntity<?> createStreamToken() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String role = authentication.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .filter(authority -> authority.startsWith("ROLE_"))
+            .map(authority -> authority.substring(5))
+            .findFirst()
+            .orElse(null);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("token", jwtUtil.generateStreamToken(authentication.getName(), role));
+        response.put("expiresIn", jwtUtil.getStreamExpirationSeconds());
+        return ResponseEntity.ok(response);
+    }
+    
+    // Live feed of accepted scans, optionally narrowed to one session or class
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAttendance(
+            @RequestParam(required = false) Long sessionId,
+            @RequestParam(required = false) Long classId) {
+        return attendanceStreamService.subscribe(sessionId, classId);
     }
 }
\ No newline at end of file
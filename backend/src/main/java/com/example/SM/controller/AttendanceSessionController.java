@@ -4,6 +4,7 @@ import com.example.SM.entity.AttendanceSession;
 import com.example.SM.service.AttendanceSessionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -33,6 +34,7 @@ public class AttendanceSessionController {
         return attendanceSessionService.getSessionsByClassAndDate(classId, targetDate);
     }
     
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
     @PostMapping
     public ResponseEntity<?> createSession(@RequestBody AttendanceSession session) {
         try {
@@ -45,6 +47,7 @@ public class AttendanceSessionController {
         }
     }
     
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
     @PostMapping("/{sessionId}/start")
     public ResponseEntity<?> startSession(@PathVariable Long sessionId) {
         try {
@@ -57,6 +60,7 @@ public class AttendanceSessionController {
         }
     }
     
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
     @PostMapping("/{sessionId}/end")
     public ResponseEntity<?> endSession(@PathVariable Long sessionId) {
         try {
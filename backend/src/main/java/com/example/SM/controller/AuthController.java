@@ -3,16 +3,25 @@ package com.example.SM.controller;
 import com.example.SM.dto.LoginRequest;
 import com.example.SM.entity.User;
 import com.example.SM.repository.UserRepository;
+import com.example.SM.service.LastLoginService;
+import com.example.SM.service.PasswordVerificationService;
+import com.example.SM.service.TokenRevocationService;
 import com.example.SM.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -23,13 +32,20 @@ public class AuthController {
     private UserRepository userRepository;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordVerificationService passwordVerificationService;
+    
+    @Autowired
+    private LastLoginService lastLoginService;
+    
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
     
     @Autowired
     private JwtUtil jwtUtil;
 
+    // BCrypt runs on the passwordHashExecutor; the Tomcat thread is released while it works
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest loginRequest) {
         try {
             String username = loginRequest.getUsername();
             String password = loginRequest.getPassword();
@@ -38,73 +54,84 @@ public class AuthController {
 
             // Validate input
             if (username == null || username.trim().isEmpty()) {
-                return ResponseEntity.badRequest().body(createErrorResponse("Username is required"));
+                return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(createErrorResponse("Username is required")));
             }
 
             if (password == null || password.trim().isEmpty()) {
-                return ResponseEntity.badRequest().body(createErrorResponse("Password is required"));
+                return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(createErrorResponse("Password is required")));
             }
 
-            // Find user in database
+            // Find user (served from the second-level cache once warm)
             Optional<User> userOptional = userRepository.findByUsername(username);
             
             if (userOptional.isEmpty()) {
-                return ResponseEntity.badRequest().body(createErrorResponse("Invalid username or password"));
+                return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(createErrorResponse("Invalid username or password")));
             }
             
             User user = userOptional.get();
             
             // Check if user is active
             if (!user.isActive()) {
-                return ResponseEntity.badRequest().body(createErrorResponse("Account is deactivated"));
-            }
-            
-            // Verify password
-            if (!passwordEncoder.matches(password, user.getPassword())) {
-                return ResponseEntity.badRequest().body(createErrorResponse("Invalid username or password"));
+                return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(createErrorResponse("Account is deactivated")));
             }
             
-            // Update last login
-            user.setLastLogin(LocalDateTime.now());
-            userRepository.save(user);
-            
-            // Generate JWT token
-            String token = jwtUtil.generateToken(
-                user.getUsername(), 
-                user.getRole(), 
-                user.getFullName()
-            );
-            
-            System.out.println("✅ Login successful for user: " + username);
-            System.out.println("🔑 Token generated: " + (token != null ? "YES, length: " + token.length() : "NO"));
-            
-            // Create response
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Login successful");
-            response.put("token", token);
-            response.put("username", user.getUsername());
-            response.put("role", user.getRole());
-            response.put("fullName", user.getFullName());
-            response.put("email", user.getEmail());
-            
-            // Also include user object for compatibility
-            Map<String, Object> userObj = new HashMap<>();
-            userObj.put("username", user.getUsername());
-            userObj.put("role", user.getRole());
-            userObj.put("fullName", user.getFullName());
-            userObj.put("email", user.getEmail());
-            response.put("user", userObj);
-
-            return ResponseEntity.ok(response);
+            // Verify password off the request thread
+            return passwordVerificationService.verify(password, user.getPassword())
+                .<ResponseEntity<?>>thenApply(matches -> matches
+                    ? loginSucceeded(user, password)
+                    : ResponseEntity.badRequest().body(createErrorResponse("Invalid username or password")))
+                .exceptionally(e -> {
+                    System.err.println("💥 Login error: " + e.getMessage());
+                    return ResponseEntity.internalServerError().body(createErrorResponse("Login failed: " + e.getMessage()));
+                });
 
+        } catch (TaskRejectedException e) {
+            System.err.println("⚠️ Login rejected, password check queue is full");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(createErrorResponse("Too many logins in progress, please try again")));
         } catch (Exception e) {
             System.err.println("💥 Login error: " + e.getMessage());
             e.printStackTrace();
-            return ResponseEntity.internalServerError().body(createErrorResponse("Login failed: " + e.getMessage()));
+            return CompletableFuture.completedFuture(
+                ResponseEntity.internalServerError().body(createErrorResponse("Login failed: " + e.getMessage())));
         }
     }
 
+    private ResponseEntity<?> loginSucceeded(User user, String password) {
+        // Written in the next batch flush, not on this request
+        lastLoginService.recordLogin(user.getId());
+        if (passwordVerificationService.needsRehash(user.getPassword())) {
+            passwordVerificationService.rehashInBackground(user, password);
+        }
+        
+        System.out.println("✅ Login successful for user: " + user.getUsername());
+        
+        // Create response
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Login successful");
+        putTokens(response, user);
+        response.put("username", user.getUsername());
+        response.put("role", user.getRole());
+        response.put("fullName", user.getFullName());
+        response.put("email", user.getEmail());
+        
+        // Also include user object for compatibility
+        Map<String, Object> userObj = new HashMap<>();
+        userObj.put("username", user.getUsername());
+        userObj.put("role", user.getRole());
+        userObj.put("fullName", user.getFullName());
+        userObj.put("email", user.getEmail());
+        response.put("user", userObj);
+
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/validate")
     public ResponseEntity<?> validateSession(@RequestHeader(value = "Authorization", required = false) String authHeader) {
         try {
@@ -121,19 +148,28 @@ public class AuthController {
             String token = authHeader.substring(7);
             System.out.println("🔍 Token received: " + (token != null ? token.substring(0, Math.min(20, token.length())) + "..." : "NULL"));
             
-            String username = jwtUtil.extractUsername(token);
+            Claims claims;
+            try {
+                claims = jwtUtil.parseClaims(token);
+            } catch (ExpiredJwtException e) {
+                Map<String, Object> response = new HashMap<>();
+                response.put("authenticated", false);
+                response.put("message", "Token expired");
+                return ResponseEntity.ok(response);
+            }
+            String username = claims.getSubject();
             
-            if (username == null) {
+            if (username == null || !jwtUtil.isAccessToken(claims)) {
                 Map<String, Object> response = new HashMap<>();
                 response.put("authenticated", false);
                 response.put("message", "Invalid token");
                 return ResponseEntity.ok(response);
             }
             
-            if (jwtUtil.isTokenExpired(token)) {
+            if (tokenRevocationService.isRevoked(claims.getId())) {
                 Map<String, Object> response = new HashMap<>();
                 response.put("authenticated", false);
-                response.put("message", "Token expired");
+                response.put("message", "Token revoked");
                 return ResponseEntity.ok(response);
             }
             
@@ -171,14 +207,73 @@ public class AuthController {
         }
     }
 
+    // Exchanges a refresh token for a new access + refresh pair; the presented refresh token
+    // is revoked, so each one can be used once
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody(required = false) Map<String, String> request) {
+        String refreshToken = request != null ? request.get("refreshToken") : null;
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return ResponseEntity.badRequest().body(createErrorResponse("Refresh token is required"));
+        }
+        
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(createErrorResponse("Invalid or expired refresh token"));
+        }
+        
+        if (!jwtUtil.isRefreshToken(claims) || !tokenRevocationService.revoke(claims.getId(), claims.getExpiration())) {
+            System.out.println("⚠️ Refresh rejected for user: " + claims.getSubject());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(createErrorResponse("Invalid or expired refresh token"));
+        }
+        
+        Optional<User> userOptional = userRepository.findByUsername(claims.getSubject());
+        if (userOptional.isEmpty() || !userOptional.get().isActive()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(createErrorResponse("Account is not available"));
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        putTokens(response, userOptional.get());
+        System.out.println("🔄 Tokens refreshed for user: " + claims.getSubject());
+        return ResponseEntity.ok(response);
+    }
+
+    // Revokes the bearer access token and, if sent, the refresh token until they expire
     @PostMapping("/logout")
-    public ResponseEntity<?> logout() {
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                                    @RequestBody(required = false) Map<String, String> request) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            revokeQuietly(authHeader.substring(7));
+        }
+        if (request != null && request.get("refreshToken") != null) {
+            revokeQuietly(request.get("refreshToken"));
+        }
+        
         Map<String, String> response = new HashMap<>();
         response.put("message", "Logout successful");
         System.out.println("👋 Logout endpoint called");
         return ResponseEntity.ok(response);
     }
 
+    private void revokeQuietly(String token) {
+        try {
+            Claims claims = jwtUtil.parseClaims(token);
+            tokenRevocationService.revoke(claims.getId(), claims.getExpiration());
+        } catch (JwtException | IllegalArgumentException e) {
+            // Expired or invalid tokens are already unusable
+        }
+    }
+
+    private void putTokens(Map<String, Object> response, User user) {
+        String token = jwtUtil.generateToken(user.getUsername(), user.getRole(), user.getFullName());
+        response.put("token", token);
+        response.put("refreshToken", jwtUtil.generateRefreshToken(user.getUsername()));
+        response.put("tokenType", "Bearer");
+        response.put("expiresIn", jwtUtil.getExpirationSeconds());
+    }
+
     @GetMapping("/health")
     public ResponseEntity<?> healthCheck() {
         Map<String, String> response = new HashMap<>();
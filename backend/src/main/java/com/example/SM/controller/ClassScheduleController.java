@@ -4,6 +4,7 @@ import com.example.SM.entity.ClassSchedule;
 import com.example.SM.service.ClassScheduleService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -28,6 +29,7 @@ public class ClassScheduleController {
         return classScheduleService.getTodaySchedulesByClass(classId);
     }
     
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
     @PostMapping
     public ResponseEntity<?> createSchedule(@RequestBody ClassSchedule schedule) {
         try {
@@ -40,6 +42,7 @@ public class ClassScheduleController {
         }
     }
     
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
     @PutMapping("/{id}")
     public ResponseEntity<?> updateSchedule(@PathVariable Long id, @RequestBody ClassSchedule schedule) {
         try {
@@ -52,6 +55,7 @@ public class ClassScheduleController {
         }
     }
     
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, Boolean>> deleteSchedule(@PathVariable Long id) {
         try {
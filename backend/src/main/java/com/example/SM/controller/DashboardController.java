@@ -1,7 +1,11 @@
 package com.example.SM.controller;
 
 import com.example.SM.dto.AttendanceResponse;
+import com.example.SM.dto.DashboardQuickStats;
+import com.example.SM.dto.DashboardSummary;
 import com.example.SM.dto.FeePaymentResponse;
+import com.example.SM.dto.FeeStatistics;
+import com.example.SM.dto.PublicStats;
 import com.example.SM.entity.Student;
 import com.example.SM.service.AttendanceService;
 import com.example.SM.service.FeePaymentService;
@@ -39,8 +43,6 @@ public class DashboardController {
         try {
             System.out.println("🎯 DashboardController: Loading dashboard summary...");
             
-            Map<String, Object> summary = new HashMap<>();
-            
             // Get recent students (last 5 registered)
             List<Student> allStudents = studentService.getAllStudents();
             System.out.println("📊 Total students found: " + allStudents.size());
@@ -54,40 +56,39 @@ public class DashboardController {
                 })
                 .limit(5)
                 .collect(Collectors.toList());
-            summary.put("recentStudents", recentStudents);
             System.out.println("🎓 Recent students: " + recentStudents.size());
             
             // Get recent payments
             List<FeePaymentResponse> recentPayments = feePaymentService.getRecentPayments();
-            summary.put("recentPayments", recentPayments);
             System.out.println("💰 Recent payments: " + recentPayments.size());
             
             // Get today's attendance - FIXED: Use getAttendanceByDate with today's date
             String today = LocalDate.now().toString();
             List<AttendanceResponse> todayAttendance = attendanceService.getAttendanceByDate(today);
-            summary.put("todayAttendance", todayAttendance);
             System.out.println("📅 Today's attendance: " + todayAttendance.size());
             
             // Get statistics
-            Map<String, Object> feeStats = feePaymentService.getFeeStatistics();
-            summary.put("feeStatistics", feeStats);
+            FeeStatistics feeStats = feePaymentService.getFeeStatistics();
             System.out.println("📈 Fee statistics loaded");
             
             // Get counts
-            summary.put("totalStudents", allStudents.size());
-            
             List<?> activeClasses = schoolClassService.getActiveClasses();
-            summary.put("activeClassesCount", activeClasses.size());
-            
             List<?> allClasses = schoolClassService.getAllClasses();
-            summary.put("totalClassesCount", allClasses.size());
             
             // Get active sessions count
             List<?> activeSessions = attendanceService.getActiveSessions();
-            summary.put("activeSessionsCount", activeSessions.size());
+            
+            DashboardSummary summary = new DashboardSummary(
+                recentStudents,
+                recentPayments,
+                todayAttendance,
+                feeStats,
+                allStudents.size(),
+                activeClasses.size(),
+                allClasses.size(),
+                activeSessions.size());
             
             System.out.println("✅ Dashboard summary loaded successfully");
-            System.out.println("📋 Summary data: " + summary.keySet());
             
             return ResponseEntity.ok(summary);
             
@@ -106,8 +107,6 @@ public class DashboardController {
         try {
             System.out.println("🎯 DashboardController: Loading quick stats...");
             
-            Map<String, Object> stats = new HashMap<>();
-            
             // Basic counts for dashboard cards
             List<Student> allStudents = studentService.getAllStudents();
             List<?> activeClasses = schoolClassService.getActiveClasses();
@@ -116,14 +115,15 @@ public class DashboardController {
             String today = LocalDate.now().toString();
             List<AttendanceResponse> todayAttendance = attendanceService.getAttendanceByDate(today);
             
-            Map<String, Object> feeStats = feePaymentService.getFeeStatistics();
+            FeeStatistics feeStats = feePaymentService.getFeeStatistics();
             
-            stats.put("totalStudents", allStudents.size());
-            stats.put("activeClasses", activeClasses.size());
-            stats.put("todayAttendance", todayAttendance.size());
-            stats.put("totalCollected", feeStats.get("totalCollected"));
-            stats.put("pendingStudents", feeStats.get("pendingStudents"));
-            stats.put("collectionRate", feeStats.get("collectionRate"));
+            DashboardQuickStats stats = new DashboardQuickStats(
+                allStudents.size(),
+                activeClasses.size(),
+                todayAttendance.size(),
+                feeStats.totalCollected(),
+                feeStats.pendingStudents(),
+                feeStats.collectionRate());
             
             System.out.println("✅ Quick stats loaded: " + stats);
             
@@ -234,18 +234,17 @@ public class DashboardController {
         try {
             System.out.println("🎯 Public dashboard stats requested");
             
-            Map<String, Object> stats = new HashMap<>();
-            
             // Basic public statistics (no sensitive data)
             List<Student> allStudents = studentService.getAllStudents();
             List<?> activeClasses = schoolClassService.getActiveClasses();
             List<?> allClasses = schoolClassService.getAllClasses();
             
-            stats.put("totalStudents", allStudents.size());
-            stats.put("activeClasses", activeClasses.size());
-            stats.put("totalClasses", allClasses.size());
-            stats.put("serverTime", java.time.LocalDateTime.now().toString());
-            stats.put("status", "SUCCESS");
+            PublicStats stats = new PublicStats(
+                allStudents.size(),
+                activeClasses.size(),
+                allClasses.size(),
+                java.time.LocalDateTime.now().toString(),
+                "SUCCESS");
             
             return ResponseEntity.ok(stats);
             
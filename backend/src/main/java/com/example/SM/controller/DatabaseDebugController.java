@@ -74,6 +74,16 @@ public class DatabaseDebugController {
         }
     }
     
+    @GetMapping("/pool")
+    public ResponseEntity<?> poolStatus() {
+        try {
+            Map<String, Object> result = databaseDebugService.getPoolStatus();
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     @GetMapping("/health")
     public ResponseEntity<?> healthCheck() {
         try {
@@ -86,7 +96,8 @@ public class DatabaseDebugController {
                 "checkClass", "GET /api/debug/db/class/{id}",
                 "tableStructure", "GET /api/debug/db/table/{tableName}",
                 "recentStudents", "GET /api/debug/db/students/recent",
-                "createTest", "POST /api/debug/db/test/create"
+                "createTest", "POST /api/debug/db/test/create",
+                "poolStatus", "GET /api/debug/db/pool"
             ));
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -0,0 +1,67 @@
+package com.example.SM.controller;
+
+import com.example.SM.entity.FeeChargeRun;
+import com.example.SM.service.FeeChargeJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Progress of the monthly charge runs, and a manual trigger for re-running or back-filling a
+ * month. Runs are idempotent, so triggering a finished month is a no-op.
+ */
+@RestController
+@RequestMapping("/api/fee-charges")
+@PreAuthorize("hasRole('ADMIN')")
+@CrossOrigin(origins = "http://localhost:3000")
+public class FeeChargeController {
+    
+    @Autowired
+    private FeeChargeJobService feeChargeJobService;
+    
+    @GetMapping("/runs")
+    public ResponseEntity<?> getRecentRuns() {
+        List<FeeChargeRun> runs = feeChargeJobService.getRecentRuns();
+        Map<String, Object> response = new HashMap<>();
+        response.put("runs", runs);
+        response.put("inProgress", feeChargeJobService.isRunning());
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/runs/{month}")
+    public ResponseEntity<?> getRun(@PathVariable String month) {
+        try {
+            return feeChargeJobService.getRun(month)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> error(HttpStatus.NOT_FOUND, "No charge run for " + month));
+        } catch (RuntimeException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+    
+    // Runs on the request thread; progress is visible from GET /runs/{month} meanwhile
+    @PostMapping("/runs/{month}")
+    public ResponseEntity<?> startRun(@PathVariable String month) {
+        if (feeChargeJobService.isRunning()) {
+            return error(HttpStatus.CONFLICT, "A fee charge run is already in progress");
+        }
+        try {
+            FeeChargeRun run = feeChargeJobService.run(month);
+            return ResponseEntity.ok(run);
+        } catch (RuntimeException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+    
+    private ResponseEntity<?> error(HttpStatus status, String message) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", message);
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
@@ -1,14 +1,23 @@
 package com.example.SM.controller;
 
+import com.example.SM.config.RepresentationETagAdvice;
+import com.example.SM.dto.FeePaymentBatchResult;
 import com.example.SM.dto.FeePaymentRequest;
+import com.example.SM.dto.FeeStatistics;
 
 import com.example.SM.dto.FeePaymentResponse;
+import com.example.SM.dto.FeeLedgerEntryResponse;
 import com.example.SM.dto.FeeStatus;
+import com.example.SM.dto.OutstandingBalance;
 import com.example.SM.entity.FeePayment;
+import com.example.SM.service.FeeLedgerService;
 import com.example.SM.service.FeePaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.example.SM.repository.FeePaymentRepository; 
@@ -28,6 +37,9 @@ import java.util.Map;
 
 @RestController
 @RequestMapping("/api/fee-payments")
+// Staff record payments and print receipts at the desk (FeePaymentScanner);
+// arrears reports, statistics and bulk imports are admin-only (method-level below)
+@PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
 @CrossOrigin(origins = "http://localhost:3000")
 public class FeePaymentController {
     
@@ -39,6 +51,12 @@ public class FeePaymentController {
     
     @Autowired
     private ReceiptPDFService receiptPDFService;
+
+    @Autowired
+    private RepresentationETagAdvice representationETagAdvice;
+    
+    @Autowired
+    private FeeLedgerService feeLedgerService;
     
     @PostMapping("/record")
     public ResponseEntity<?> recordPayment(@RequestBody FeePaymentRequest request) {
@@ -73,17 +91,60 @@ public class FeePaymentController {
         }
     }
     
+    // Charges and payments across all months, with the running balance after each line
+    @GetMapping("/student/{studentId}/ledger")
+    public ResponseEntity<?> getStudentLedger(@PathVariable String studentId) {
+        try {
+            List<FeeLedgerEntryResponse> statement = feeLedgerService.getStatement(studentId);
+            return ResponseEntity.ok(statement);
+        } catch (RuntimeException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        }
+    }
+    
+    // Students with a positive balance across all months, largest first
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/outstanding")
+    public ResponseEntity<?> getOutstandingBalances() {
+        List<OutstandingBalance> balances = feeLedgerService.getOutstandingBalances();
+        Map<String, Object> response = new HashMap<>();
+        response.put("students", balances);
+        response.put("count", balances.size());
+        response.put("totalOutstanding", feeLedgerService.getTotalOutstanding());
+        return ResponseEntity.ok(response);
+    }
+    
     // FIXED: Changed return type from List<FeePayment> to List<FeePaymentResponse>
+    // Supports delta polling via ?since=<watermark> and ETag / If-None-Match revalidation
+    @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/recent")
-    public ResponseEntity<List<FeePaymentResponse>> getRecentPayments() {
+    public ResponseEntity<?> getRecentPayments(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit,
+            WebRequest webRequest) {
         try {
-            List<FeePaymentResponse> payments = feePaymentService.getRecentPayments();
-            return ResponseEntity.ok(payments);
+            String notModified = representationETagAdvice.notModifiedTag(webRequest, feePaymentService.getRecentPaymentsETag(since, limit));
+            if (notModified != null) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(notModified).varyBy(HttpHeaders.ACCEPT).build();
+            }
+            
+            if (since == null) {
+                List<FeePaymentResponse> payments = feePaymentService.getRecentPayments();
+                return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(payments);
+            }
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(feePaymentService.getRecentPaymentChanges(since, limit));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
     }
     
+    @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/overdue")
     public ResponseEntity<List<FeeStatus>> getOverdueStudents() {
         try {
@@ -94,10 +155,11 @@ public class FeePaymentController {
         }
     }
     
+    @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/statistics")
-    public ResponseEntity<Map<String, Object>> getFeeStatistics() {
+    public ResponseEntity<FeeStatistics> getFeeStatistics() {
         try {
-            Map<String, Object> statistics = feePaymentService.getFeeStatistics();
+            FeeStatistics statistics = feePaymentService.getFeeStatistics();
             return ResponseEntity.ok(statistics);
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
@@ -105,17 +167,54 @@ public class FeePaymentController {
     
     }
     
+    // Day-end batch entry: per-item results in request order; confirmation emails are queued
+    // after the batch commits
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/record-batch")
+    public ResponseEntity<?> recordPaymentBatch(@RequestBody List<FeePaymentRequest> requests,
+                                                @RequestParam(defaultValue = "true") boolean sendEmail) {
+        List<FeePaymentBatchResult> results;
+        try {
+            results = feePaymentService.recordPayments(requests);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+        
+        int recorded = 0;
+        int emailsQueued = 0;
+        for (FeePaymentBatchResult result : results) {
+            if (!FeePaymentBatchResult.RECORDED.equals(result.status())) {
+                continue;
+            }
+            recorded++;
+            if (sendEmail) {
+                try {
+                    feePaymentService.sendPaymentConfirmationAsync(result.paymentId());
+                    emailsQueued++;
+                } catch (TaskRejectedException e) {
+                    System.err.println("❌ Mail queue full, no confirmation for payment " + result.paymentId());
+                }
+            }
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("results", results);
+        response.put("total", results.size());
+        response.put("recorded", recorded);
+        response.put("failed", results.size() - recorded);
+        response.put("emailsQueued", emailsQueued);
+        return ResponseEntity.ok(response);
+    }
+    
     @PostMapping("/record-with-email")
     public ResponseEntity<?> recordPaymentWithEmail(@RequestBody FeePaymentRequest request) {
         try {
             FeePayment payment = feePaymentService.recordPayment(request);
             
-            // Send email
-            try {
-                feePaymentService.sendPaymentConfirmation(payment.getId());
-            } catch (Exception emailError) {
-                // Log but don't fail
-            }
+            // Send email in the background - never fails the payment
+            feePaymentService.sendPaymentConfirmationAsync(payment.getId());
             
             // Return JSON with payment ID
             Map<String, Object> response = new HashMap<>();
@@ -145,12 +244,8 @@ public class FeePaymentController {
             // Record payment
             FeePayment payment = feePaymentService.recordPayment(request);
             
-            // Send email
-            try {
-                feePaymentService.sendPaymentConfirmation(payment.getId());
-            } catch (Exception emailError) {
-                // Log but don't fail
-            }
+            // Send email in the background - never fails the payment
+            feePaymentService.sendPaymentConfirmationAsync(payment.getId());
             
             // Generate PDF
             byte[] pdfBytes = receiptPDFService.generatePaymentReceipt(
@@ -187,7 +282,7 @@ public class FeePaymentController {
      try {
          System.out.println("📄 PDF Request for payment: " + paymentId + ", Accept: " + acceptHeader);
          
-         FeePayment payment = feePaymentRepository.findById(paymentId)
+         FeePayment payment = feePaymentRepository.findByIdWithDetails(paymentId)
              .orElseThrow(() -> new RuntimeException("Payment not found with id: " + paymentId));
          
          byte[] pdfBytes = receiptPDFService.generatePaymentReceipt(
@@ -247,7 +342,7 @@ public class FeePaymentController {
         @GetMapping("/receipt/{paymentId}/base64")
         public ResponseEntity<?> getReceiptBase64(@PathVariable Long paymentId) {
             try {
-                FeePayment payment = feePaymentRepository.findById(paymentId)
+                FeePayment payment = feePaymentRepository.findByIdWithDetails(paymentId)
                     .orElseThrow(() -> new RuntimeException("Payment not found"));
                 
                 byte[] pdfBytes = receiptPDFService.generatePaymentReceipt(
@@ -281,7 +376,7 @@ public class FeePaymentController {
                    produces = MediaType.APPLICATION_PDF_VALUE)
         public ResponseEntity<byte[]> downloadReceiptPDF(@PathVariable Long paymentId) {
             try {
-                FeePayment payment = feePaymentRepository.findById(paymentId)
+                FeePayment payment = feePaymentRepository.findByIdWithDetails(paymentId)
                     .orElseThrow(() -> new RuntimeException("Payment not found"));
                 
                 byte[] pdfBytes = receiptPDFService.generatePaymentReceipt(
@@ -0,0 +1,59 @@
+package com.example.SM.controller;
+
+import com.example.SM.dto.ReminderCampaignReport;
+import com.example.SM.service.FeeReminderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Manual trigger and last result of the overdue reminder campaign (normally run on the 15th).
+ */
+@RestController
+@RequestMapping("/api/fee-reminders")
+@PreAuthorize("hasRole('ADMIN')")
+@CrossOrigin(origins = "http://localhost:3000")
+public class FeeReminderController {
+    
+    @Autowired
+    private FeeReminderService feeReminderService;
+    
+    // Runs in the background; poll GET /last for the outcome
+    @PostMapping("/run")
+    public ResponseEntity<?> runCampaign() {
+        if (LocalDate.now().getDayOfMonth() <= FeeReminderService.GRACE_PERIOD_DAYS) {
+            return error(HttpStatus.BAD_REQUEST, "Grace period is still active; reminders start on the 15th");
+        }
+        if (feeReminderService.isRunning()) {
+            return error(HttpStatus.CONFLICT, "A reminder campaign is already running");
+        }
+        feeReminderService.runCampaign();
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Reminder campaign started");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+    
+    @GetMapping("/last")
+    public ResponseEntity<?> getLastReport() {
+        ReminderCampaignReport report = feeReminderService.getLastReport();
+        if (report == null) {
+            return error(HttpStatus.NOT_FOUND, "No reminder campaign has run since startup");
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("report", report);
+        response.put("running", feeReminderService.isRunning());
+        return ResponseEntity.ok(response);
+    }
+    
+    private ResponseEntity<?> error(HttpStatus status, String message) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", message);
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
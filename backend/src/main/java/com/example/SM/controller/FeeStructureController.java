@@ -4,6 +4,7 @@ import com.example.SM.entity.FeeStructure;
 import com.example.SM.service.FeeStructureService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -24,6 +25,7 @@ public class FeeStructureController {
         return feeStructureService.getAllFees();
     }
     
+    @PreAuthorize("hasRole('ADMIN')")
     @PostMapping
     public ResponseEntity<?> createFeeStructure(@RequestBody FeeStructure feeStructure) {
         try {
@@ -34,6 +36,7 @@ public class FeeStructureController {
         }
     }
     
+    @PreAuthorize("hasRole('ADMIN')")
     @PutMapping("/{id}")
     public ResponseEntity<?> updateFeeStructure(@PathVariable Long id, @RequestBody FeeStructure feeStructure) {
         try {
@@ -44,6 +47,7 @@ public class FeeStructureController {
         }
     }
     
+    @PreAuthorize("hasRole('ADMIN')")
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteFeeStructure(@PathVariable Long id) {
         try {
@@ -1,12 +1,16 @@
 package com.example.SM.controller;
 
+import com.example.SM.config.RepresentationETagAdvice;
 import com.example.SM.entity.Student;
 import com.example.SM.entity.SchoolClass;
 import com.example.SM.service.StudentService;
 import com.example.SM.service.SchoolClassService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.sql.DataSource; // ADD THIS IMPORT
 import java.sql.Connection;
@@ -30,6 +34,9 @@ public class StudentController {
     
     @Autowired
     private SchoolClassService schoolClassService;
+
+    @Autowired
+    private RepresentationETagAdvice representationETagAdvice;
     
     @Autowired
     private DataSource dataSource; // ADD THIS
@@ -296,9 +303,27 @@ public class StudentController {
         }
     }
     
+    // Supports delta polling via ?since=<watermark> and ETag / If-None-Match revalidation
     @GetMapping
-    public List<Student> getAllStudents() {
-        return studentService.getAllStudents();
+    public ResponseEntity<?> getAllStudents(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit,
+            WebRequest webRequest) {
+        try {
+            String notModified = representationETagAdvice.notModifiedTag(webRequest, studentService.getStudentsETag(since, limit));
+            if (notModified != null) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(notModified).varyBy(HttpHeaders.ACCEPT).build();
+            }
+            
+            if (since == null) {
+                return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(studentService.getAllStudents());
+            }
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(studentService.getStudentChanges(since, limit));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
     }
     
     @GetMapping("/{id}")
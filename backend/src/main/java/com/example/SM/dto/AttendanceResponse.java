@@ -16,6 +16,7 @@ public class AttendanceResponse {
     private Long sessionId;
     private String subject;
     private String className;
+    private Long classId;
     
     // Getters and Setters
     public Long getId() { return id; }
@@ -53,4 +54,7 @@ public class AttendanceResponse {
     
     public String getClassName() { return className; }
     public void setClassName(String className) { this.className = className; }
+    
+    public Long getClassId() { return classId; }
+    public void setClassId(Long classId) { this.classId = classId; }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.example.SM.dto;
+
+import java.math.BigDecimal;
+
+// GET /api/dashboard/quick-stats: the dashboard cards
+public record DashboardQuickStats(
+    int totalStudents,
+    int activeClasses,
+    int todayAttendance,
+    BigDecimal totalCollected,
+    long pendingStudents,
+    double collectionRate
+) {}
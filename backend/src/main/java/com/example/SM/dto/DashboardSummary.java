@@ -0,0 +1,17 @@
+package com.example.SM.dto;
+
+import com.example.SM.entity.Student;
+
+import java.util.List;
+
+// GET /api/dashboard/summary
+public record DashboardSummary(
+    List<Student> recentStudents,
+    List<FeePaymentResponse> recentPayments,
+    List<AttendanceResponse> todayAttendance,
+    FeeStatistics feeStatistics,
+    int totalStudents,
+    int activeClassesCount,
+    int totalClassesCount,
+    int activeSessionsCount
+) {}
@@ -0,0 +1,60 @@
+package com.example.SM.dto;
+
+import com.example.SM.util.SyncWatermark;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class DeltaResponse<T> {
+    private List<T> items;
+    private String watermark;
+    private boolean hasMore;
+    private long totalCount; // Lets clients detect deletions and fall back to a full reload
+
+    public DeltaResponse() {}
+
+    public DeltaResponse(List<T> items, String watermark, boolean hasMore, long totalCount) {
+        this.items = items;
+        this.watermark = watermark;
+        this.hasMore = hasMore;
+        this.totalCount = totalCount;
+    }
+
+    public static final int MAX_LIMIT = 2000;
+
+    public static int clampLimit(int requested) {
+        return Math.max(1, Math.min(requested, MAX_LIMIT));
+    }
+
+    // Builds a delta page from rows fetched with limit + 1 (the extra row only signals hasMore)
+    public static <E, R> DeltaResponse<R> of(List<E> rows, int limit, SyncWatermark since, long totalCount,
+                                             Function<E, LocalDateTime> timestamp, Function<E, Long> id,
+                                             Function<E, R> mapper) {
+        boolean hasMore = rows.size() > limit;
+        List<E> page = hasMore ? rows.subList(0, limit) : rows;
+        
+        SyncWatermark next = since;
+        if (!page.isEmpty()) {
+            E last = page.get(page.size() - 1);
+            next = new SyncWatermark(timestamp.apply(last), id.apply(last));
+        }
+        
+        List<R> items = page.stream().map(mapper).collect(Collectors.toList());
+        return new DeltaResponse<>(items, next.toString(), hasMore, totalCount);
+    }
+
+    // Getters and Setters
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public String getWatermark() { return watermark; }
+    public void setWatermark(String watermark) { this.watermark = watermark; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+
+    public long getTotalCount() { return totalCount; }
+    public void setTotalCount(long totalCount) { this.totalCount = totalCount; }
+}
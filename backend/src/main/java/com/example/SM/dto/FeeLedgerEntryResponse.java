@@ -0,0 +1,31 @@
+package com.example.SM.dto;
+
+import com.example.SM.entity.FeeLedgerEntry;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One statement line; balanceAfter is the student's running balance (positive = owed)
+public record FeeLedgerEntryResponse(
+    Long id,
+    String month,
+    String entryType,
+    BigDecimal amount,
+    BigDecimal balanceAfter,
+    Long classId,
+    Long paymentId,
+    LocalDate entryDate
+) {
+    // Only ids are read from the lazy associations, so no proxy is initialized
+    public static FeeLedgerEntryResponse from(FeeLedgerEntry entry) {
+        return new FeeLedgerEntryResponse(
+            entry.getId(),
+            entry.getMonth(),
+            entry.getEntryType().name(),
+            entry.getAmount(),
+            entry.getBalanceAfter(),
+            entry.getSchoolClass().getId(),
+            entry.getPayment() != null ? entry.getPayment().getId() : null,
+            entry.getEntryDate());
+    }
+}
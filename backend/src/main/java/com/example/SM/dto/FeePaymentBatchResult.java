@@ -0,0 +1,23 @@
+package com.example.SM.dto;
+
+// Outcome of one item of a record-batch request, in request order
+public record FeePaymentBatchResult(
+    int index,
+    String studentId,
+    String month,
+    String status,
+    Long paymentId,
+    String error
+) {
+    public static final String RECORDED = "RECORDED";
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String REJECTED = "REJECTED";
+
+    public static FeePaymentBatchResult recorded(int index, FeePaymentRequest request, Long paymentId) {
+        return new FeePaymentBatchResult(index, request.getStudentId(), request.getMonth(), RECORDED, paymentId, null);
+    }
+
+    public static FeePaymentBatchResult failed(int index, FeePaymentRequest request, String status, String error) {
+        return new FeePaymentBatchResult(index, request.getStudentId(), request.getMonth(), status, null, error);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.SM.dto;
+
+import java.math.BigDecimal;
+
+// GET /api/fee-payments/statistics, and the fee figures on the dashboard
+public record FeeStatistics(
+    BigDecimal totalCollected,
+    long pendingStudents,
+    long totalStudents,
+    double collectionRate,
+    long recentPaymentCount
+) {
+    public static FeeStatistics empty() {
+        return new FeeStatistics(BigDecimal.ZERO, 0, 0, 0.0, 0);
+    }
+}
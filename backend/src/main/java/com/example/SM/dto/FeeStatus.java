@@ -19,6 +19,7 @@ public class FeeStatus {
     private Integer gracePeriodEnds; // NEW: Days left in grace period
     private LocalDate nextDueDate; // NEW: Next due date
     private String lastPaymentDate;
+    private BigDecimal outstandingBalance; // All months, from the fee ledger (includes arrears)
 
     // Constructors
     public FeeStatus() {}
@@ -88,4 +89,7 @@ public class FeeStatus {
 
     public String getLastPaymentDate() { return lastPaymentDate; }
     public void setLastPaymentDate(String lastPaymentDate) { this.lastPaymentDate = lastPaymentDate; }
-}
\ No newline at end of file
+
+    public BigDecimal getOutstandingBalance() { return outstandingBalance; }
+    public void setOutstandingBalance(BigDecimal outstandingBalance) { this.outstandingBalance = outstandingBalance; }
+}
@@ -0,0 +1,30 @@
+package com.example.SM.dto;
+
+import com.example.SM.entity.Student;
+import com.example.SM.entity.StudentFeeBalance;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// A student's balance across all months, from student_fee_balances
+public record OutstandingBalance(
+    String studentId,
+    String studentName,
+    String className,
+    BigDecimal totalCharged,
+    BigDecimal totalPaid,
+    BigDecimal balance,
+    LocalDateTime updatedAt
+) {
+    public static OutstandingBalance from(StudentFeeBalance balance) {
+        Student student = balance.getStudent();
+        return new OutstandingBalance(
+            student.getStudentId(),
+            student.getFirstName() + " " + student.getLastName(),
+            student.getSchoolClass() != null ? student.getSchoolClass().getClassName() : null,
+            balance.getTotalCharged(),
+            balance.getTotalPaid(),
+            balance.getBalance(),
+            balance.getUpdatedAt());
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.SM.dto;
+
+// GET /api/dashboard/public/stats: counts only, no personal data
+public record PublicStats(
+    int totalStudents,
+    int activeClasses,
+    int totalClasses,
+    String serverTime,
+    String status
+) {}
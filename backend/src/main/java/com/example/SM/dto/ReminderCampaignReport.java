@@ -0,0 +1,17 @@
+package com.example.SM.dto;
+
+import java.time.LocalDateTime;
+
+// Outcome of one overdue-reminder campaign run (GET /api/fee-reminders/last)
+public record ReminderCampaignReport(
+    String month,
+    LocalDateTime startedAt,
+    LocalDateTime finishedAt,
+    int overdueStudents,
+    int recipients,
+    int alreadyReminded,
+    int withoutEmail,
+    int sent,
+    int failed,
+    double sendsPerSecond
+) {}
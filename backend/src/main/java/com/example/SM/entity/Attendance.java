@@ -6,7 +6,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "attendance")
+@Table(name = "attendance", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_attendance_student_session", columnNames = {"student_id", "session_id"})
+})
 public class Attendance {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -36,6 +38,10 @@ public class Attendance {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Delta-sync watermark and list ETag input; set on every update (e.g. status corrections)
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
     // CHANGED: Added @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "session_id")
@@ -44,6 +50,12 @@ public class Attendance {
 
     public Attendance() {
         this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
     }
 
     // Getters and Setters remain the same...
@@ -74,6 +86,9 @@ public class Attendance {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
     public AttendanceSession getAttendanceSession() { return attendanceSession; }
     public void setAttendanceSession(AttendanceSession attendanceSession) { this.attendanceSession = attendanceSession; }
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.example.SM.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+/**
+ * Progress and checkpoint of one monthly charge run (see FeeChargeJobService). last_student_id
+ * is advanced in the same transaction as each chunk's ledger rows, so a restarted run resumes
+ * after the last committed chunk instead of starting over.
+ */
+@Entity
+@Table(name = "fee_charge_runs")
+public class FeeChargeRun {
+    // YYYY-MM, the month being charged
+    @Id
+    @Column(length = 7)
+    private String month;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+    
+    @Column(name = "last_student_id", nullable = false)
+    private Long lastStudentId = 0L;
+    
+    @Column(name = "total_students", nullable = false)
+    private Integer totalStudents = 0;
+    
+    @Column(name = "students_processed", nullable = false)
+    private Integer studentsProcessed = 0;
+    
+    @Column(name = "charges_created", nullable = false)
+    private Integer chargesCreated = 0;
+    
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+    
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+    
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+    
+    public FeeChargeRun() {
+    }
+    
+    public FeeChargeRun(String month) {
+        this.month = month;
+        this.status = Status.RUNNING;
+        this.startedAt = LocalDateTime.now();
+        this.updatedAt = this.startedAt;
+    }
+    
+    // Share of students charged so far, 0-100
+    public int getPercentComplete() {
+        if (status == Status.COMPLETED || totalStudents == null || totalStudents == 0) {
+            return status == Status.COMPLETED ? 100 : 0;
+        }
+        return Math.min(100, studentsProcessed * 100 / totalStudents);
+    }
+    
+    // Getters and Setters
+    public String getMonth() { return month; }
+    public void setMonth(String month) { this.month = month; }
+    
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    
+    public Long getLastStudentId() { return lastStudentId; }
+    public void setLastStudentId(Long lastStudentId) { this.lastStudentId = lastStudentId; }
+    
+    public Integer getTotalStudents() { return totalStudents; }
+    public void setTotalStudents(Integer totalStudents) { this.totalStudents = totalStudents; }
+    
+    public Integer getStudentsProcessed() { return studentsProcessed; }
+    public void setStudentsProcessed(Integer studentsProcessed) { this.studentsProcessed = studentsProcessed; }
+    
+    public Integer getChargesCreated() { return chargesCreated; }
+    public void setChargesCreated(Integer chargesCreated) { this.chargesCreated = chargesCreated; }
+    
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+    
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+}
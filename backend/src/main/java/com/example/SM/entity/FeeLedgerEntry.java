@@ -0,0 +1,90 @@
+package com.example.SM.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+/**
+ * One line of a student's fee statement: a monthly charge or a payment, with the student's
+ * running balance after it (positive = owed). Rows are append-only; see FeeLedgerService.
+ */
+@Entity
+@Table(name = "fee_ledger_entries")
+public class FeeLedgerEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    private Student student;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "class_id", nullable = false)
+    private SchoolClass schoolClass;
+    
+    @Column(nullable = false, length = 7)
+    private String month;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false)
+    private EntryType entryType;
+    
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+    
+    @Column(name = "balance_after", nullable = false, precision = 12, scale = 2)
+    private BigDecimal balanceAfter;
+    
+    // Set for PAYMENT entries
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "payment_id")
+    private FeePayment payment;
+    
+    @Column(name = "entry_date", nullable = false)
+    private LocalDate entryDate;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    public enum EntryType {
+        CHARGE, PAYMENT
+    }
+    
+    public FeeLedgerEntry() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Student getStudent() { return student; }
+    public void setStudent(Student student) { this.student = student; }
+    
+    public SchoolClass getSchoolClass() { return schoolClass; }
+    public void setSchoolClass(SchoolClass schoolClass) { this.schoolClass = schoolClass; }
+    
+    public String getMonth() { return month; }
+    public void setMonth(String month) { this.month = month; }
+    
+    public EntryType getEntryType() { return entryType; }
+    public void setEntryType(EntryType entryType) { this.entryType = entryType; }
+    
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    
+    public BigDecimal getBalanceAfter() { return balanceAfter; }
+    public void setBalanceAfter(BigDecimal balanceAfter) { this.balanceAfter = balanceAfter; }
+    
+    public FeePayment getPayment() { return payment; }
+    public void setPayment(FeePayment payment) { this.payment = payment; }
+    
+    public LocalDate getEntryDate() { return entryDate; }
+    public void setEntryDate(LocalDate entryDate) { this.entryDate = entryDate; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
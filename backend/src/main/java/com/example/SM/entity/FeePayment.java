@@ -7,7 +7,9 @@ import java.time.LocalDateTime;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "fee_payments")
+@Table(name = "fee_payments", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_fee_payments_student_month_class", columnNames = {"student_id", "month", "class_id"})
+})
 public class FeePayment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
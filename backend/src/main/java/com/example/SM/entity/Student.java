@@ -3,10 +3,13 @@ package com.example.SM.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@NaturalIdCache(region = "studentNaturalId")
 @Table(name = "students")
 public class Student {
     
@@ -14,6 +17,7 @@ public class Student {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    @NaturalId
     @Column(name = "student_id", unique = true, nullable = false)
     private String studentId;
     
@@ -68,6 +72,10 @@ public class Student {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Delta-sync watermark and list ETag input; set on every update
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
     // FIXED: Added cascade configuration for proper relationship persistence
     @ManyToOne(
         fetch = FetchType.LAZY,
@@ -86,6 +94,12 @@ public class Student {
         this.registrationDate = LocalDate.now();
         this.status = "Active";
         this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
     }
 
     // JSON Properties for class information - ADD @JsonProperty annotations!
@@ -271,6 +285,14 @@ public class Student {
         this.createdAt = createdAt;
     }
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     // Keep the getter for schoolClass (used internally)
     public SchoolClass getSchoolClass() {
         return schoolClass;
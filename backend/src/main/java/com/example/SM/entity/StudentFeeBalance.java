@@ -0,0 +1,53 @@
+package com.example.SM.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+/**
+ * Materialized running balance per student across all months (charges minus payments).
+ * Written only by FeeLedgerService, with an upsert in the same transaction as the ledger row.
+ */
+@Entity
+@Table(name = "student_fee_balances")
+public class StudentFeeBalance {
+    @Id
+    @Column(name = "student_id")
+    private Long studentId;
+    
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", insertable = false, updatable = false)
+    private Student student;
+    
+    @Column(name = "total_charged", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalCharged = BigDecimal.ZERO;
+    
+    @Column(name = "total_paid", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalPaid = BigDecimal.ZERO;
+    
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal balance = BigDecimal.ZERO;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    // Getters and Setters
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+    
+    public Student getStudent() { return student; }
+    public void setStudent(Student student) { this.student = student; }
+    
+    public BigDecimal getTotalCharged() { return totalCharged; }
+    public void setTotalCharged(BigDecimal totalCharged) { this.totalCharged = totalCharged; }
+    
+    public BigDecimal getTotalPaid() { return totalPaid; }
+    public void setTotalPaid(BigDecimal totalPaid) { this.totalPaid = totalPaid; }
+    
+    public BigDecimal getBalance() { return balance; }
+    public void setBalance(BigDecimal balance) { this.balance = balance; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -2,18 +2,27 @@ package com.example.SM.repository;
 
 import com.example.SM.entity.Attendance;
 import com.example.SM.entity.AttendanceSession;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
+    // Rows end up in AttendanceResponse with the session's subject and class name, so the
+    // session and its class come back in the same SELECT (open-in-view is off)
+    @EntityGraph(attributePaths = {"attendanceSession", "attendanceSession.schoolClass"})
     List<Attendance> findByStudentIdOrderByAttendanceDateDesc(String studentId);
+    @EntityGraph(attributePaths = {"attendanceSession", "attendanceSession.schoolClass"})
     List<Attendance> findByAttendanceDateOrderByScanTimeAsc(LocalDate attendanceDate);
+    @EntityGraph(attributePaths = {"attendanceSession", "attendanceSession.schoolClass"})
     Optional<Attendance> findByStudentIdAndAttendanceDate(String studentId, LocalDate attendanceDate);
     boolean existsByStudentIdAndAttendanceDate(String studentId, LocalDate attendanceDate);
     
@@ -23,8 +32,21 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     // NEW: Session-based queries
     boolean existsByStudentIdAndAttendanceSession(String studentId, AttendanceSession session);
     List<Attendance> findByAttendanceSessionOrderByScanTimeAsc(AttendanceSession session);
+    @EntityGraph(attributePaths = {"attendanceSession", "attendanceSession.schoolClass"})
     Optional<Attendance> findByStudentIdAndAttendanceSession(String studentId, AttendanceSession session);
     
-    @Query("SELECT a FROM Attendance a WHERE a.attendanceSession.id = :sessionId ORDER BY a.scanTime")
+    @Query("SELECT a FROM Attendance a JOIN FETCH a.attendanceSession s JOIN FETCH s.schoolClass " +
+           "WHERE s.id = :sessionId ORDER BY a.scanTime")
     List<Attendance> findBySessionId(Long sessionId);
+    
+    // Delta-sync: rows recorded or corrected after an (updatedAt, id) watermark
+    @Query("SELECT a FROM Attendance a LEFT JOIN FETCH a.attendanceSession s LEFT JOIN FETCH s.schoolClass " +
+           "WHERE a.attendanceDate = :date AND (a.updatedAt > :since OR (a.updatedAt = :since AND a.id > :sinceId)) " +
+           "ORDER BY a.updatedAt, a.id")
+    List<Attendance> findChangedByDate(@Param("date") LocalDate date, @Param("since") LocalDateTime since,
+                                       @Param("sinceId") Long sinceId, Pageable pageable);
+    
+    // Cheap change fingerprint for ETag checks; MAX(updatedAt) moves on any status correction
+    @Query("SELECT COUNT(a), MAX(a.updatedAt), MAX(a.id) FROM Attendance a WHERE a.attendanceDate = :date")
+    List<Object[]> findFingerprintByDate(@Param("date") LocalDate date);
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.example.SM.repository;
 
 import com.example.SM.entity.AttendanceSession;
 import com.example.SM.entity.SchoolClass;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -13,13 +14,21 @@ import java.util.Optional;
 
 @Repository
 public interface AttendanceSessionRepository extends JpaRepository<AttendanceSession, Long> {
+    // Sessions are returned as JSON with their schoolClass and scans compare class names,
+    // so these fetch it up front (open-in-view is off)
+    @Override
+    @EntityGraph(attributePaths = "schoolClass")
+    Optional<AttendanceSession> findById(Long id);
+    
+    @EntityGraph(attributePaths = "schoolClass")
     List<AttendanceSession> findBySchoolClassAndDate(SchoolClass schoolClass, LocalDate date);
+    @EntityGraph(attributePaths = "schoolClass")
     List<AttendanceSession> findByDateAndStatus(LocalDate date, AttendanceSession.SessionStatus status);
     
-    @Query("SELECT s FROM AttendanceSession s WHERE s.date = :date AND s.status = 'ACTIVE'")
+    @Query("SELECT s FROM AttendanceSession s JOIN FETCH s.schoolClass WHERE s.date = :date AND s.status = 'ACTIVE'")
     List<AttendanceSession> findActiveSessionsByDate(LocalDate date);
     
-    @Query("SELECT s FROM AttendanceSession s WHERE s.date = CURRENT_DATE AND s.status = 'ACTIVE'")
+    @Query("SELECT s FROM AttendanceSession s JOIN FETCH s.schoolClass WHERE s.date = CURRENT_DATE AND s.status = 'ACTIVE'")
     List<AttendanceSession> findTodayActiveSessions();
     
     @Query("SELECT s FROM AttendanceSession s WHERE s.schoolClass.id = :classId AND s.date = :date AND s.subject = :subject")
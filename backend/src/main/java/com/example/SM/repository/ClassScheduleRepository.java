@@ -2,21 +2,29 @@ package com.example.SM.repository;
 
 import com.example.SM.entity.ClassSchedule;
 import com.example.SM.entity.SchoolClass;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.DayOfWeek;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ClassScheduleRepository extends JpaRepository<ClassSchedule, Long> {
+    // Schedules are serialized with their schoolClass (open-in-view is off)
+    @Override
+    @EntityGraph(attributePaths = "schoolClass")
+    Optional<ClassSchedule> findById(Long id);
+    
     List<ClassSchedule> findBySchoolClass(SchoolClass schoolClass);
     List<ClassSchedule> findBySchoolClassAndDayOfWeek(SchoolClass schoolClass, DayOfWeek dayOfWeek);
     
-    @Query("SELECT cs FROM ClassSchedule cs WHERE cs.schoolClass.id = :classId")
+    // Class is fetched with the schedules so cached results serialize without a session
+    @Query("SELECT cs FROM ClassSchedule cs JOIN FETCH cs.schoolClass WHERE cs.schoolClass.id = :classId")
     List<ClassSchedule> findByClassId(Long classId);
     
-    @Query("SELECT cs FROM ClassSchedule cs WHERE cs.schoolClass.id = :classId AND cs.dayOfWeek = :dayOfWeek ORDER BY cs.startTime")
+    @Query("SELECT cs FROM ClassSchedule cs JOIN FETCH cs.schoolClass WHERE cs.schoolClass.id = :classId AND cs.dayOfWeek = :dayOfWeek ORDER BY cs.startTime")
     List<ClassSchedule> findByClassIdAndDayOfWeek(Long classId, DayOfWeek dayOfWeek);
 }
\ No newline at end of file
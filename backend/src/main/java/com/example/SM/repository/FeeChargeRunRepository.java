@@ -0,0 +1,14 @@
+package com.example.SM.repository;
+
+import com.example.SM.entity.FeeChargeRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FeeChargeRunRepository extends JpaRepository<FeeChargeRun, String> {
+    
+    // Newest month first; YYYY-MM sorts chronologically
+    List<FeeChargeRun> findTop12ByOrderByMonthDesc();
+}
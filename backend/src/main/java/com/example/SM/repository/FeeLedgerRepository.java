@@ -0,0 +1,18 @@
+package com.example.SM.repository;
+
+import com.example.SM.entity.FeeLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FeeLedgerRepository extends JpaRepository<FeeLedgerEntry, Long> {
+    
+    // Statement, oldest first; idx_fee_ledger_student_id
+    List<FeeLedgerEntry> findByStudentIdOrderByIdAsc(Long studentId);
+    
+    // Charges are posted once per student, class and month (uk_fee_ledger_student_class_month_type)
+    boolean existsByStudentIdAndSchoolClassIdAndMonthAndEntryType(Long studentId, Long classId, String month,
+                                                                 FeeLedgerEntry.EntryType entryType);
+}
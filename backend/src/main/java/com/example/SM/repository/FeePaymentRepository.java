@@ -1,6 +1,8 @@
 package com.example.SM.repository;
 
 import com.example.SM.entity.FeePayment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,12 +10,16 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface FeePaymentRepository extends JpaRepository<FeePayment, Long> {
     
+    // Mapped to FeePaymentResponse (student and class names) after the query returns
+    @EntityGraph(attributePaths = {"student", "schoolClass"})
     List<FeePayment> findByStudentStudentIdOrderByPaymentDateDesc(String studentId);
     
     List<FeePayment> findByStudentIdOrderByPaymentDateDesc(Long studentId);
@@ -35,7 +41,8 @@ public interface FeePaymentRepository extends JpaRepository<FeePayment, Long> {
     List<FeePayment> findPaymentsBetweenDates(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
     // ADD THIS METHOD - it was missing but being used in the service
-    @Query("SELECT fp FROM FeePayment fp WHERE fp.paymentDate >= :startDate ORDER BY fp.paymentDate DESC")
+    @Query("SELECT fp FROM FeePayment fp LEFT JOIN FETCH fp.student LEFT JOIN FETCH fp.schoolClass " +
+           "WHERE fp.paymentDate >= :startDate ORDER BY fp.paymentDate DESC")
     List<FeePayment> findRecentPayments(@Param("startDate") LocalDate startDate);
     
     @Query("SELECT fp.student.studentId, SUM(fp.amountPaid) FROM FeePayment fp WHERE fp.month = :month GROUP BY fp.student.studentId")
@@ -63,4 +70,24 @@ public interface FeePaymentRepository extends JpaRepository<FeePayment, Long> {
     
     @Query("SELECT p FROM FeePayment p LEFT JOIN FETCH p.student LEFT JOIN FETCH p.schoolClass WHERE p.id = :id")
     Optional<FeePayment> findByIdWithDetails(@Param("id") Long id);
+    
+    // Delta-sync: recent payments created or updated after a (updatedAt, id) watermark
+    @Query("SELECT fp FROM FeePayment fp LEFT JOIN FETCH fp.student LEFT JOIN FETCH fp.schoolClass " +
+           "WHERE fp.paymentDate >= :startDate AND (fp.updatedAt > :since OR (fp.updatedAt = :since AND fp.id > :sinceId)) " +
+           "ORDER BY fp.updatedAt, fp.id")
+    List<FeePayment> findRecentPaymentsChangedSince(@Param("startDate") LocalDate startDate,
+                                                    @Param("since") LocalDateTime since,
+                                                    @Param("sinceId") Long sinceId, Pageable pageable);
+    
+    @Query("SELECT COUNT(fp), MAX(fp.updatedAt), MAX(fp.id) FROM FeePayment fp WHERE fp.paymentDate >= :startDate")
+    List<Object[]> findRecentPaymentsFingerprint(@Param("startDate") LocalDate startDate);
+    
+    // record-batch duplicate check: (student id, class id, month) of payments already recorded
+    @Query("SELECT fp.student.id, fp.schoolClass.id, fp.month FROM FeePayment fp " +
+           "WHERE fp.student.id IN :studentIds AND fp.month IN :months")
+    List<Object[]> findPaymentKeys(@Param("studentIds") Collection<Long> studentIds,
+                                   @Param("months") Collection<String> months);
+    
+    @Query("SELECT fp.transactionId FROM FeePayment fp WHERE fp.transactionId IN :transactionIds")
+    List<String> findExistingTransactionIds(@Param("transactionIds") Collection<String> transactionIds);
 }
\ No newline at end of file
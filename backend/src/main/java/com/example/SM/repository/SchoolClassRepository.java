@@ -2,7 +2,9 @@ package com.example.SM.repository;
 
 import com.example.SM.entity.SchoolClass;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,9 +14,12 @@ import java.util.Optional;
 public interface SchoolClassRepository extends JpaRepository<SchoolClass, Long> {
     Optional<SchoolClass> findByClassName(String className);
     List<SchoolClass> findByGrade(String grade);
+    // Query cache holds only the ids; the classes themselves come from the second-level cache
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<SchoolClass> findByActiveTrue();
     List<SchoolClass> findByGradeAndActiveTrue(String grade);
     
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     @Query("SELECT c FROM SchoolClass c WHERE c.active = true ORDER BY c.grade, c.className")
     List<SchoolClass> findAllActiveClasses();
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.example.SM.repository;
+
+import com.example.SM.entity.StudentFeeBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface StudentFeeBalanceRepository extends JpaRepository<StudentFeeBalance, Long> {
+    
+    // Everyone who owes anything, largest balance first; one range read on idx_student_fee_balances_balance
+    @Query("SELECT b FROM StudentFeeBalance b JOIN FETCH b.student s LEFT JOIN FETCH s.schoolClass " +
+           "WHERE b.balance > 0 ORDER BY b.balance DESC")
+    List<StudentFeeBalance> findOutstanding();
+    
+    @Query("SELECT COALESCE(SUM(b.balance), 0) FROM StudentFeeBalance b WHERE b.balance > 0")
+    BigDecimal sumOutstanding();
+}
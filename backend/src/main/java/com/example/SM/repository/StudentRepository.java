@@ -2,31 +2,61 @@ package com.example.SM.repository;
 
 import com.example.SM.entity.SchoolClass;
 import com.example.SM.entity.Student;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
-    Optional<Student> findByStudentId(String studentId);
+public interface StudentRepository extends JpaRepository<Student, Long>, StudentRepositoryCustom {
+    // Student JSON includes classId/className/classTeacher/roomNumber, so every lookup that gets
+    // serialized fetches schoolClass in the same SELECT (open-in-view is off)
+    @Override
+    @EntityGraph(attributePaths = "schoolClass")
+    List<Student> findAll();
+    
+    @Override
+    @EntityGraph(attributePaths = "schoolClass")
+    Optional<Student> findById(Long id);
+    
+    @EntityGraph(attributePaths = "schoolClass")
     List<Student> findByGrade(String grade);
+    @EntityGraph(attributePaths = "schoolClass")
     List<Student> findByStatus(String status);
     
     // Class-based queries
+    @EntityGraph(attributePaths = "schoolClass")
     List<Student> findBySchoolClass(SchoolClass schoolClass);
+    @EntityGraph(attributePaths = "schoolClass")
     List<Student> findBySchoolClassId(Long classId);
     
+    // Set-based lookup for record-batch
+    List<Student> findByStudentIdIn(Collection<String> studentIds);
+    
     @Query("SELECT s FROM Student s WHERE s.schoolClass IS NULL")
     List<Student> findBySchoolClassIsNull();
     
     @Query("SELECT COUNT(s) FROM Student s WHERE s.schoolClass.id = :classId")
     Long countByClassId(Long classId);
     
-    @Query("SELECT s FROM Student s WHERE s.schoolClass.id = :classId AND s.status = 'Active'")
+    @Query("SELECT s FROM Student s JOIN FETCH s.schoolClass c WHERE c.id = :classId AND s.status = 'Active'")
     List<Student> findActiveStudentsByClassId(Long classId);
     
+    // Delta-sync: students registered or edited after an (updatedAt, id) watermark
+    @Query("SELECT s FROM Student s LEFT JOIN FETCH s.schoolClass WHERE s.updatedAt > :since OR (s.updatedAt = :since AND s.id > :sinceId) " +
+           "ORDER BY s.updatedAt, s.id")
+    List<Student> findChangedSince(@Param("since") LocalDateTime since, @Param("sinceId") Long sinceId, Pageable pageable);
+    
+    // Change fingerprint for ETags: COUNT catches deletes, MAX(updatedAt) inserts and edits
+    @Query("SELECT COUNT(s), MAX(s.updatedAt), MAX(s.id) FROM Student s")
+    List<Object[]> findFingerprint();
+    
     // Keep only the methods you actually need
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.example.SM.repository;
+
+import com.example.SM.entity.Student;
+
+import java.util.Optional;
+
+public interface StudentRepositoryCustom {
+    // Resolved through Hibernate's natural-id cache instead of a derived query
+    Optional<Student> findByStudentId(String studentId);
+}
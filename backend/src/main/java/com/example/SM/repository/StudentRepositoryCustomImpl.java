@@ -0,0 +1,29 @@
+package com.example.SM.repository;
+
+import com.example.SM.entity.Student;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public class StudentRepositoryCustomImpl implements StudentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Gate scans look students up by their QR studentId; the id mapping comes from the
+    // natural-id cache, so only the primary-key load hits the database. The class is resolved
+    // here (from the second-level cache) because callers use it after the session has closed.
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Student> findByStudentId(String studentId) {
+        Optional<Student> student = entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Student.class)
+                .loadOptional(studentId);
+        student.ifPresent(s -> Hibernate.initialize(s.getSchoolClass()));
+        return student;
+    }
+}
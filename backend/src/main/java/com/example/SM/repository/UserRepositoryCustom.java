@@ -0,0 +1,10 @@
+package com.example.SM.repository;
+
+import com.example.SM.entity.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+    // Resolved through Hibernate's natural-id and entity caches instead of a derived query
+    Optional<User> findByUsername(String username);
+}
@@ -5,10 +5,15 @@ import com.example.SM.entity.Student;
 import com.example.SM.entity.AttendanceSession;
 import com.example.SM.dto.AttendanceRequest;
 import com.example.SM.dto.AttendanceResponse;
+import com.example.SM.dto.DeltaResponse;
 import com.example.SM.repository.AttendanceRepository;
 import com.example.SM.repository.StudentRepository;
 import com.example.SM.repository.AttendanceSessionRepository;
+import com.example.SM.util.ConstraintViolations;
+import com.example.SM.util.SyncWatermark;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -30,10 +35,20 @@ public class AttendanceService {
     @Autowired
     private AttendanceSessionRepository attendanceSessionRepository;
     
+    @Autowired
+    private AttendanceStreamService attendanceStreamService;
+    
+    @Autowired
+    private MetricsService metricsService;
+    
     public AttendanceResponse recordAttendance(AttendanceRequest request) {
+        return metricsService.time(MetricsService.ATTENDANCE_RECORD, () -> processScan(request));
+    }
+    
+    private AttendanceResponse processScan(AttendanceRequest request) {
         Optional<Student> studentOpt = studentRepository.findByStudentId(request.getStudentId());
         if (studentOpt.isEmpty()) {
-            throw new RuntimeException("Student not found with ID: " + request.getStudentId());
+            throw rejectScan(MetricsService.SCAN_UNKNOWN_STUDENT, "Student not found with ID: " + request.getStudentId());
         }
         
         Student student = studentOpt.get();
@@ -41,41 +56,36 @@ public class AttendanceService {
             LocalDate.parse(request.getDate()) : LocalDate.now();
         
         if (request.getSessionId() == null) {
-            throw new RuntimeException("Attendance session is required");
+            throw rejectScan(MetricsService.SCAN_INVALID_SESSION, "Attendance session is required");
         }
         
         Optional<AttendanceSession> sessionOpt = attendanceSessionRepository.findById(request.getSessionId());
         if (sessionOpt.isEmpty()) {
-            throw new RuntimeException("Invalid attendance session");
+            throw rejectScan(MetricsService.SCAN_INVALID_SESSION, "Invalid attendance session");
         }
         
         AttendanceSession session = sessionOpt.get();
         
         if (session.getStatus() != AttendanceSession.SessionStatus.ACTIVE) {
-            throw new RuntimeException("Attendance session is not active. Current status: " + session.getStatus());
+            throw rejectScan(MetricsService.SCAN_INACTIVE_SESSION, "Attendance session is not active. Current status: " + session.getStatus());
         }
         
         LocalTime currentTime = LocalTime.now();
         if (currentTime.isBefore(session.getScheduledStartTime()) || 
             currentTime.isAfter(session.getScheduledEndTime())) {
-            throw new RuntimeException("Attendance can only be recorded during session hours: " + 
+            throw rejectScan(MetricsService.SCAN_OUTSIDE_HOURS, "Attendance can only be recorded during session hours: " + 
                 session.getScheduledStartTime() + " - " + session.getScheduledEndTime());
         }
         
         if (student.getSchoolClass() == null) {
-            throw new RuntimeException("Student is not assigned to any class");
+            throw rejectScan(MetricsService.SCAN_NO_CLASS, "Student is not assigned to any class");
         }
         
         if (!student.getSchoolClass().getId().equals(session.getSchoolClass().getId())) {
-            throw new RuntimeException("Student belongs to " + student.getSchoolClass().getClassName() + 
+            throw rejectScan(MetricsService.SCAN_WRONG_CLASS, "Student belongs to " + student.getSchoolClass().getClassName() + 
                 ", but this session is for " + session.getSchoolClass().getClassName());
         }
         
-        if (attendanceRepository.existsByStudentIdAndAttendanceSession(request.getStudentId(), session)) {
-            throw new RuntimeException("Attendance already recorded for student " + 
-                request.getStudentId() + " in this session");
-        }
-        
         String status = determineAttendanceStatus(LocalDateTime.now(), session.getScheduledStartTime());
         
         Attendance attendance = new Attendance();
@@ -88,9 +98,29 @@ public class AttendanceService {
         attendance.setScanMethod("QR");
         attendance.setAttendanceSession(session);
         
-        Attendance savedAttendance = attendanceRepository.save(attendance);
+        // Duplicate scans are rejected by uk_attendance_student_session rather than a pre-check SELECT
+        Attendance savedAttendance;
+        try {
+            savedAttendance = attendanceRepository.saveAndFlush(attendance);
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolationOf(e, ConstraintViolations.ATTENDANCE_STUDENT_SESSION)) {
+                throw rejectScan(MetricsService.SCAN_DUPLICATE, "Attendance already recorded for student " + 
+                    request.getStudentId() + " in this session");
+            }
+            throw e;
+        }
+        metricsService.recordScan(MetricsService.SCAN_ACCEPTED);
+        AttendanceResponse response = convertToResponse(savedAttendance);
+        
+        // Push the accepted scan to live attendance screens
+        attendanceStreamService.publish(response);
         
-        return convertToResponse(savedAttendance);
+        return response;
+    }
+    
+    private RuntimeException rejectScan(String outcome, String message) {
+        metricsService.recordScan(outcome);
+        return new RuntimeException(message);
     }
     
     public List<AttendanceResponse> getStudentAttendance(String studentId) {
@@ -112,6 +142,26 @@ public class AttendanceService {
             .collect(Collectors.toList());
     }
     
+    // Delta-sync for polling clients: only rows recorded or corrected after the given watermark
+    public DeltaResponse<AttendanceResponse> getAttendanceChangesByDate(String date, String since, int limit) {
+        limit = DeltaResponse.clampLimit(limit);
+        LocalDate attendanceDate = LocalDate.parse(date);
+        SyncWatermark watermark = SyncWatermark.parse(since);
+        
+        List<Attendance> changed = attendanceRepository.findChangedByDate(
+            attendanceDate, watermark.getTimestamp(), watermark.getId(), PageRequest.of(0, limit + 1));
+        Object[] fingerprint = attendanceRepository.findFingerprintByDate(attendanceDate).get(0);
+        
+        return DeltaResponse.of(changed, limit, watermark, ((Number) fingerprint[0]).longValue(),
+            Attendance::getUpdatedAt, Attendance::getId, this::convertToResponse);
+    }
+    
+    public String getAttendanceETag(String date, String since, int limit) {
+        LocalDate attendanceDate = LocalDate.parse(date);
+        return SyncWatermark.etag("att-" + attendanceDate,
+            attendanceRepository.findFingerprintByDate(attendanceDate).get(0), since, DeltaResponse.clampLimit(limit));
+    }
+    
     public List<AttendanceResponse> getAttendanceBySession(Long sessionId) {
         Optional<AttendanceSession> session = attendanceSessionRepository.findById(sessionId);
         if (session.isEmpty()) {
@@ -192,7 +242,12 @@ public class AttendanceService {
         }
         
         Attendance savedAttendance = attendanceRepository.save(attendance);
-        return convertToResponse(savedAttendance);
+        AttendanceResponse response = convertToResponse(savedAttendance);
+        
+        // Teacher marks and corrections reach live screens too; clients replace a record with the same id
+        attendanceStreamService.publish(response);
+        
+        return response;
     }
     
     public List<AttendanceSession> getActiveSessions() {
@@ -220,6 +275,7 @@ public class AttendanceService {
             response.setSessionId(attendance.getAttendanceSession().getId());
             response.setSubject(attendance.getAttendanceSession().getSubject());
             response.setClassName(attendance.getAttendanceSession().getSchoolClass().getClassName());
+            response.setClassId(attendance.getAttendanceSession().getSchoolClass().getId());
         }
         
         return response;
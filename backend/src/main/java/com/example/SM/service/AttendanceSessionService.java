@@ -9,6 +9,7 @@ import com.example.SM.repository.SchoolClassRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
@@ -40,6 +41,8 @@ public class AttendanceSessionService {
         throw new RuntimeException("Class not found with id: " + classId);
     }
     
+    // Transactional so save() returns the loaded session (class fetched) rather than a merged copy
+    @Transactional
     public AttendanceSession startSession(Long sessionId) {
         Optional<AttendanceSession> sessionOpt = attendanceSessionRepository.findById(sessionId);
         if (sessionOpt.isPresent()) {
@@ -51,6 +54,7 @@ public class AttendanceSessionService {
         throw new RuntimeException("Session not found with id: " + sessionId);
     }
     
+    @Transactional
     public AttendanceSession endSession(Long sessionId) {
         Optional<AttendanceSession> sessionOpt = attendanceSessionRepository.findById(sessionId);
         if (sessionOpt.isPresent()) {
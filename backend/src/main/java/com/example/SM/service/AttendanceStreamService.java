@@ -0,0 +1,209 @@
+package com.example.SM.service;
+
+import com.example.SM.dto.AttendanceResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Pushes accepted attendance scans to connected screens over Server-Sent Events.
+ * Each subscriber gets its own bounded buffer; when a slow client falls behind the
+ * oldest pending scans are dropped so publishing never blocks the scan request.
+ * A subscriber has at most one send in flight, on its own dispatcher thread, so a stalled
+ * client never delays the others; one stuck longer than the write timeout is dropped.
+ */
+@Service
+public class AttendanceStreamService {
+
+    @Value("${attendance.stream.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${attendance.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${attendance.stream.write-timeout-ms:10000}")
+    private long writeTimeoutMs;
+
+    private final CopyOnWriteArrayList<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    // Unbounded, but each subscriber drains on at most one thread, so the count is capped by subscribers.
+    // Platform threads: a blocked servlet write would pin a virtual thread's carrier.
+    private final ExecutorService dispatcher = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "attendance-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SseEmitter subscribe(Long sessionId, Long classId) {
+        return subscribe(new SseEmitter(timeoutMs), sessionId, classId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Long sessionId, Long classId) {
+        Subscriber subscriber = new Subscriber(emitter, sessionId, classId, bufferSize);
+        subscribers.add(subscriber);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> {
+            subscribers.remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        try {
+            emitter.send(SseEmitter.event().name("connected").data("ok"));
+        } catch (IOException e) {
+            fail(subscriber, e);
+        }
+
+        System.out.println("📡 Attendance stream subscriber added (session=" + sessionId
+            + ", class=" + classId + "), total: " + subscribers.size());
+        return emitter;
+    }
+
+    // Publishes once the surrounding transaction (if any) has committed
+    public void publish(AttendanceResponse attendance) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(attendance);
+                }
+            });
+        } else {
+            dispatch(attendance);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private void dispatch(AttendanceResponse attendance) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.accepts(attendance) && subscriber.offer(SseEmitter.event()
+                    .name("attendance")
+                    .id(String.valueOf(attendance.getId()))
+                    .data(attendance, MediaType.APPLICATION_JSON))) {
+                dispatcher.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        SseEmitter.SseEventBuilder next;
+        while ((next = subscriber.poll()) != null) {
+            subscriber.sendStartedAt = System.nanoTime();
+            try {
+                subscriber.emitter.send(next);
+            } catch (Exception e) {
+                fail(subscriber, e);
+                return;
+            } finally {
+                subscriber.sendStartedAt = 0;
+            }
+        }
+    }
+
+    // Completing the emitter ends the async request now rather than at the emitter timeout
+    private void fail(Subscriber subscriber, Exception e) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    // Keeps idle connections open through proxies and weeds out closed and stalled clients.
+    // Runs on the shared scheduler, so it only queues the heartbeat; the dispatcher does the I/O.
+    @Scheduled(fixedRate = 15000)
+    public void heartbeat() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long startedAt = subscriber.sendStartedAt;
+            if (startedAt != 0 && now - startedAt > TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs)) {
+                fail(subscriber, new TimeoutException("No progress writing to the client for " + writeTimeoutMs + "ms"));
+            } else if (subscriber.offerHeartbeat(SseEmitter.event().comment("heartbeat"))) {
+                dispatcher.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        dispatcher.shutdownNow();
+    }
+
+    static class Subscriber {
+        private final SseEmitter emitter;
+        private final Long sessionId;
+        private final Long classId;
+        private final int capacity;
+        private final ArrayDeque<SseEmitter.SseEventBuilder> buffer;
+        private boolean draining;
+        // System.nanoTime() when the current send began, 0 when none is in flight
+        private volatile long sendStartedAt;
+
+        Subscriber(SseEmitter emitter, Long sessionId, Long classId, int capacity) {
+            this.emitter = emitter;
+            this.sessionId = sessionId;
+            this.classId = classId;
+            this.capacity = Math.max(1, capacity);
+            this.buffer = new ArrayDeque<>(this.capacity);
+        }
+
+        boolean accepts(AttendanceResponse attendance) {
+            if (sessionId != null && !Objects.equals(sessionId, attendance.getSessionId())) {
+                return false;
+            }
+            return classId == null || Objects.equals(classId, attendance.getClassId());
+        }
+
+        // Returns true when the caller must schedule a drain for this subscriber.
+        // Monitors here guard only the in-memory buffer (no I/O), so they don't pin virtual threads for long.
+        synchronized boolean offer(SseEmitter.SseEventBuilder event) {
+            if (buffer.size() >= capacity) {
+                buffer.pollFirst();
+            }
+            buffer.addLast(event);
+            if (draining) {
+                return false;
+            }
+            draining = true;
+            return true;
+        }
+
+        // Only when nothing is being sent; a connection with data in flight does not need one
+        synchronized boolean offerHeartbeat(SseEmitter.SseEventBuilder heartbeat) {
+            if (draining) {
+                return false;
+            }
+            buffer.addLast(heartbeat);
+            draining = true;
+            return true;
+        }
+
+        synchronized SseEmitter.SseEventBuilder poll() {
+            SseEmitter.SseEventBuilder next = buffer.pollFirst();
+            if (next == null) {
+                draining = false;
+            }
+            return next;
+        }
+    }
+}
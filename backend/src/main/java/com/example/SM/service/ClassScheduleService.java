@@ -1,11 +1,15 @@
 package com.example.SM.service;
 
+import com.example.SM.config.CacheConfig;
 import com.example.SM.entity.ClassSchedule;
 import com.example.SM.entity.SchoolClass;
 import com.example.SM.repository.ClassScheduleRepository;
 import com.example.SM.repository.SchoolClassRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.DayOfWeek;
 import java.util.List;
@@ -20,15 +24,20 @@ public class ClassScheduleService {
     @Autowired
     private SchoolClassRepository schoolClassRepository;
     
+    @Cacheable(CacheConfig.SCHEDULES_BY_CLASS)
     public List<ClassSchedule> getSchedulesByClass(Long classId) {
         return classScheduleRepository.findByClassId(classId);
     }
     
+    // Keyed by day too, so yesterday's entry is never served after midnight
+    @Cacheable(cacheNames = CacheConfig.TODAY_SCHEDULES_BY_CLASS,
+        key = "#classId + ':' + T(java.time.LocalDate).now().getDayOfWeek()")
     public List<ClassSchedule> getTodaySchedulesByClass(Long classId) {
         DayOfWeek today = java.time.LocalDate.now().getDayOfWeek();
         return classScheduleRepository.findByClassIdAndDayOfWeek(classId, today);
     }
     
+    @CacheEvict(cacheNames = {CacheConfig.SCHEDULES_BY_CLASS, CacheConfig.TODAY_SCHEDULES_BY_CLASS}, allEntries = true)
     public ClassSchedule createSchedule(ClassSchedule schedule) {
         // Validate that schoolClass is provided and has an ID
         if (schedule.getSchoolClass() == null || schedule.getSchoolClass().getId() == null) {
@@ -61,10 +70,14 @@ public class ClassScheduleService {
                 newSchedule.getStartTime().isAfter(existing.getEndTime()));
     }
     
+    @CacheEvict(cacheNames = {CacheConfig.SCHEDULES_BY_CLASS, CacheConfig.TODAY_SCHEDULES_BY_CLASS}, allEntries = true)
     public void deleteSchedule(Long scheduleId) {
         classScheduleRepository.deleteById(scheduleId);
     }
     
+    // One persistence context, so the returned schedule keeps its fetched schoolClass
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.SCHEDULES_BY_CLASS, CacheConfig.TODAY_SCHEDULES_BY_CLASS}, allEntries = true)
     public ClassSchedule updateSchedule(Long id, ClassSchedule scheduleDetails) {
         Optional<ClassSchedule> existingSchedule = classScheduleRepository.findById(id);
         if (existingSchedule.isPresent()) {
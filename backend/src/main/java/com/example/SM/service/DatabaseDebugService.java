@@ -1,5 +1,7 @@
 package com.example.SM.service;
 
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -297,4 +299,34 @@ public class DatabaseDebugService {
         
         return result;
     }
-}
\ No newline at end of file
+    
+    /**
+     * Snapshot of the connection pool - same numbers exported as hikaricp.* metrics
+     */
+    public Map<String, Object> getPoolStatus() {
+        Map<String, Object> result = new HashMap<>();
+        
+        if (!(dataSource instanceof HikariDataSource hikari)) {
+            result.put("pooled", false);
+            result.put("dataSource", dataSource.getClass().getName());
+            return result;
+        }
+        
+        result.put("pooled", true);
+        result.put("poolName", hikari.getPoolName());
+        result.put("maximumPoolSize", hikari.getMaximumPoolSize());
+        result.put("minimumIdle", hikari.getMinimumIdle());
+        result.put("connectionTimeoutMs", hikari.getConnectionTimeout());
+        result.put("leakDetectionThresholdMs", hikari.getLeakDetectionThreshold());
+        
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool != null) {
+            result.put("active", pool.getActiveConnections());
+            result.put("idle", pool.getIdleConnections());
+            result.put("total", pool.getTotalConnections());
+            result.put("pending", pool.getThreadsAwaitingConnection());
+        }
+        
+        return result;
+    }
+}
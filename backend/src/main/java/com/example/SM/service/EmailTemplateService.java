@@ -0,0 +1,90 @@
+package com.example.SM.service;
+
+import com.example.SM.util.HtmlTemplate;
+import jakarta.annotation.PostConstruct;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The application's HTML email templates (resources/email-templates), compiled once at startup.
+ * Each template is declared with its placeholders in render order; a template file that does not
+ * match its declaration fails startup instead of producing a broken email.
+ */
+@Service
+public class EmailTemplateService {
+
+    public static final String QR_CODE = "qr-code";
+    public static final String PAYMENT_CONFIRMATION = "payment-confirmation";
+    public static final String OVERDUE_REMINDER = "overdue-reminder";
+    public static final String OVERDUE_REMINDER_ROW = "overdue-reminder-row";
+
+    private static final String LOCATION = "email-templates/";
+
+    // Template name -> placeholders, in the order render() takes the values
+    private static final Map<String, List<String>> DECLARED = new LinkedHashMap<>();
+    static {
+        DECLARED.put(QR_CODE, List.of("studentName", "studentId", "className", "email"));
+        DECLARED.put(PAYMENT_CONFIRMATION, List.of("studentName", "studentId", "className", "amount", "month",
+            "paymentMethod", "transactionId", "paymentDate"));
+        DECLARED.put(OVERDUE_REMINDER, List.of("month", "recipientName", "graceEnd", "rows", "outstanding"));
+        DECLARED.put(OVERDUE_REMINDER_ROW, List.of("name", "studentId", "className", "fee", "paid", "due"));
+    }
+
+    // DecimalFormat is not thread-safe
+    private static final ThreadLocal<DecimalFormat> AMOUNT = ThreadLocal.withInitial(
+        () -> new DecimalFormat("#,##0.00", DecimalFormatSymbols.getInstance(Locale.ROOT)));
+
+    private final Map<String, HtmlTemplate> templates = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (Map.Entry<String, List<String>> declared : DECLARED.entrySet()) {
+            HtmlTemplate template = HtmlTemplate.compile(load(declared.getKey()));
+            if (!template.slotNames().equals(declared.getValue())) {
+                throw new IllegalStateException("Email template " + declared.getKey() + " has placeholders " +
+                    template.slotNames() + ", expected " + declared.getValue());
+            }
+            templates.put(declared.getKey(), template);
+        }
+    }
+
+    public HtmlTemplate get(String name) {
+        HtmlTemplate template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown email template: " + name);
+        }
+        return template;
+    }
+
+    public String render(String name, Object... values) {
+        return get(name).render(values);
+    }
+
+    // Money as shown in emails: 12,500.00
+    public static String formatAmount(BigDecimal amount) {
+        return amount == null ? "0.00" : AMOUNT.get().format(amount.setScale(2, RoundingMode.HALF_UP));
+    }
+
+    private static String load(String name) {
+        ClassPathResource resource = new ClassPathResource(LOCATION + name + ".html");
+        try (InputStream in = resource.getInputStream()) {
+            return StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot load email template " + resource.getPath(), e);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.SM.service;
+
+import com.example.SM.entity.FeeChargeRun;
+import com.example.SM.repository.FeeChargeRunRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Posts every active student's monthly charge to the fee ledger in one background pass at the
+ * start of the month. Students are read in id order in chunks (keyset, no OFFSET); each chunk's
+ * ledger rows and the run's checkpoint commit together, so the job can be re-run at any point:
+ * a finished month is skipped, an interrupted one resumes after its last committed chunk, and
+ * students who were already charged (e.g. by an early payment) are skipped by FeeLedgerService.
+ */
+@Service
+public class FeeChargeJobService {
+
+    private static final String CHUNK_SQL =
+        "SELECT s.id, s.class_id, fs.total_fee FROM students s " +
+        "JOIN fee_structures fs ON fs.class_id = s.class_id " +
+        "WHERE s.status = 'Active' AND fs.total_fee IS NOT NULL AND s.id > ? " +
+        "ORDER BY s.id LIMIT ?";
+
+    private static final String COUNT_SQL =
+        "SELECT COUNT(*) FROM students s JOIN fee_structures fs ON fs.class_id = s.class_id " +
+        "WHERE s.status = 'Active' AND fs.total_fee IS NOT NULL";
+
+    // A chunk that collides with a concurrent payment's charge is re-read and retried
+    private static final int CHUNK_ATTEMPTS = 3;
+
+    @Autowired
+    private FeeChargeRunRepository feeChargeRunRepository;
+
+    @Autowired
+    private FeeLedgerService feeLedgerService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${fees.charge-job.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${fees.charge-job.run-on-startup:true}")
+    private boolean runOnStartup;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Scheduled(cron = "${fees.charge-job.cron:0 5 0 1 * ?}")
+    public void chargeCurrentMonth() {
+        run(YearMonth.now().toString());
+    }
+
+    // Catches up after downtime over the 1st or a run that died mid-way; off the startup thread
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        if (!runOnStartup) {
+            return;
+        }
+        String month = YearMonth.now().toString();
+        Optional<FeeChargeRun> existing = feeChargeRunRepository.findById(month);
+        if (existing.isEmpty() || existing.get().getStatus() != FeeChargeRun.Status.COMPLETED) {
+            run(month);
+        }
+    }
+
+    public FeeChargeRun run(String month) {
+        YearMonth yearMonth = parseMonth(month);
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("A fee charge run is already in progress");
+        }
+        try {
+            return execute(yearMonth.toString(), yearMonth.atDay(1));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Optional<FeeChargeRun> getRun(String month) {
+        return feeChargeRunRepository.findById(parseMonth(month).toString());
+    }
+
+    public List<FeeChargeRun> getRecentRuns() {
+        return feeChargeRunRepository.findTop12ByOrderByMonthDesc();
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private FeeChargeRun execute(String month, LocalDate entryDate) {
+        FeeChargeRun run = feeChargeRunRepository.findById(month).orElseGet(() -> new FeeChargeRun(month));
+        if (run.getStatus() == FeeChargeRun.Status.COMPLETED) {
+            System.out.println("💰 Fee charges for " + month + " already generated");
+            return run;
+        }
+
+        boolean resuming = run.getLastStudentId() > 0;
+        run.setStatus(FeeChargeRun.Status.RUNNING);
+        run.setLastError(null);
+        run.setTotalStudents(jdbcTemplate.queryForObject(COUNT_SQL, Integer.class));
+        run.setUpdatedAt(LocalDateTime.now());
+        run = feeChargeRunRepository.save(run);
+        System.out.println("💰 " + (resuming ? "Resuming" : "Starting") + " fee charges for " + month +
+            " (" + run.getTotalStudents() + " students" +
+            (resuming ? ", after student " + run.getLastStudentId() : "") + ")");
+
+        long start = System.currentTimeMillis();
+        try {
+            while (true) {
+                FeeChargeRun checkpoint = processChunk(run, month, entryDate);
+                if (checkpoint == null) {
+                    break;
+                }
+                run = checkpoint;
+            }
+            run.setStatus(FeeChargeRun.Status.COMPLETED);
+            run.setCompletedAt(LocalDateTime.now());
+            run.setUpdatedAt(run.getCompletedAt());
+            run = feeChargeRunRepository.save(run);
+            System.out.println("✅ Fee charges for " + month + " done: " + run.getChargesCreated() + " created for " +
+                run.getStudentsProcessed() + " students in " + (System.currentTimeMillis() - start) + "ms");
+        } catch (RuntimeException e) {
+            // Committed chunks stay; the next run picks up from last_student_id
+            restoreCheckpoint(run, month);
+            System.err.println("❌ Fee charges for " + month + " failed after student " +
+                run.getLastStudentId() + ": " + e.getMessage());
+            run.setStatus(FeeChargeRun.Status.FAILED);
+            run.setLastError(e.getMessage());
+            run.setUpdatedAt(LocalDateTime.now());
+            run = feeChargeRunRepository.save(run);
+        }
+        return run;
+    }
+
+    // Posts the next chunk and advances the checkpoint in one transaction; null when no students are left
+    private FeeChargeRun processChunk(FeeChargeRun run, String month, LocalDate entryDate) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    List<FeeLedgerService.MonthlyCharge> chunk = jdbcTemplate.query(CHUNK_SQL,
+                        (rs, rowNum) -> new FeeLedgerService.MonthlyCharge(
+                            rs.getLong("id"), rs.getLong("class_id"), rs.getBigDecimal("total_fee")),
+                        run.getLastStudentId(), chunkSize);
+                    if (chunk.isEmpty()) {
+                        return null;
+                    }
+                    int created = feeLedgerService.postCharges(month, entryDate, chunk);
+
+                    run.setLastStudentId(chunk.get(chunk.size() - 1).studentId());
+                    run.setStudentsProcessed(run.getStudentsProcessed() + chunk.size());
+                    run.setChargesCreated(run.getChargesCreated() + created);
+                    run.setUpdatedAt(LocalDateTime.now());
+                    return feeChargeRunRepository.save(run);
+                });
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= CHUNK_ATTEMPTS) {
+                    throw e;
+                }
+                restoreCheckpoint(run, month);
+            }
+        }
+    }
+
+    // After a rollback the detached run may be ahead of what was committed
+    private void restoreCheckpoint(FeeChargeRun run, String month) {
+        feeChargeRunRepository.findById(month).ifPresent(committed -> {
+            run.setLastStudentId(committed.getLastStudentId());
+            run.setStudentsProcessed(committed.getStudentsProcessed());
+            run.setChargesCreated(committed.getChargesCreated());
+        });
+    }
+
+    private YearMonth parseMonth(String month) {
+        try {
+            return YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Invalid month, expected YYYY-MM: " + month);
+        }
+    }
+}
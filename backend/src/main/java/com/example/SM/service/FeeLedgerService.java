@@ -0,0 +1,279 @@
+package com.example.SM.service;
+
+import com.example.SM.dto.FeeLedgerEntryResponse;
+import com.example.SM.dto.OutstandingBalance;
+import com.example.SM.entity.FeeLedgerEntry;
+import com.example.SM.entity.FeePayment;
+import com.example.SM.entity.SchoolClass;
+import com.example.SM.entity.Student;
+import com.example.SM.entity.StudentFeeBalance;
+import com.example.SM.repository.FeeLedgerRepository;
+import com.example.SM.repository.StudentFeeBalanceRepository;
+import com.example.SM.repository.StudentRepository;
+import com.example.SM.util.ConstraintViolations;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Per-student fee ledger. Every charge and payment appends one fee_ledger_entries row and
+ * applies its delta to student_fee_balances in the same transaction, so a student's
+ * outstanding balance across all months is a primary-key read and "who owes what" is one
+ * indexed range scan, instead of a query per month per student.
+ */
+@Service
+public class FeeLedgerService {
+
+    // Upsert of the running totals. The row lock it takes serializes postings per student
+    // until commit, so balance_after values are strictly sequential.
+    private static final String APPLY_DELTA_SQL =
+        "INSERT INTO student_fee_balances (student_id, total_charged, total_paid, balance, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE total_charged = total_charged + ?, total_paid = total_paid + ?, " +
+        "balance = balance + ?, updated_at = ?";
+
+    private static final String INSERT_ENTRY_SQL =
+        "INSERT INTO fee_ledger_entries (student_id, class_id, month, entry_type, amount, balance_after, " +
+        "payment_id, entry_date, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /** One student's charge for the month, as read by FeeChargeJobService. */
+    public record MonthlyCharge(Long studentId, Long classId, BigDecimal amount) {
+    }
+
+    // A ledger row about to be written by a batch posting
+    private record Posting(Long studentId, Long classId, String month, FeeLedgerEntry.EntryType type,
+                           BigDecimal amount, Long paymentId, LocalDate entryDate) {
+        BigDecimal delta() {
+            return type == FeeLedgerEntry.EntryType.CHARGE ? amount : amount.negate();
+        }
+    }
+
+    @Autowired
+    private FeeLedgerRepository feeLedgerRepository;
+
+    @Autowired
+    private StudentFeeBalanceRepository studentFeeBalanceRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    // Plain JDBC for the balance row: a native Hibernate update would evict the whole second-level cache
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Posts the month's charge first if it is missing, so a payment never precedes its charge
+    @Transactional
+    public FeeLedgerEntry postPayment(FeePayment payment) {
+        if (payment.getFeeStructure() != null && payment.getFeeStructure().getTotalFee() != null) {
+            postCharge(payment.getStudent(), payment.getSchoolClass(), payment.getMonth(),
+                payment.getFeeStructure().getTotalFee(), payment.getPaymentDate());
+        }
+        return post(payment.getStudent(), payment.getSchoolClass(), payment.getMonth(),
+            FeeLedgerEntry.EntryType.PAYMENT, payment.getAmountPaid(), payment, payment.getPaymentDate());
+    }
+
+    // Idempotent: false if the student already has a charge for this class and month. The charge
+    // job can post it between the check and the insert, so a clash on the unique key also means
+    // the charge is already there and must not fail the payment that triggered it.
+    @Transactional
+    public boolean postCharge(Student student, SchoolClass schoolClass, String month,
+                              BigDecimal amount, LocalDate entryDate) {
+        if (feeLedgerRepository.existsByStudentIdAndSchoolClassIdAndMonthAndEntryType(
+                student.getId(), schoolClass.getId(), month, FeeLedgerEntry.EntryType.CHARGE)) {
+            return false;
+        }
+        // Balance row first, as writePostings does, so both paths lock in the same order
+        BigDecimal balanceAfter = applyDelta(student.getId(), amount, BigDecimal.ZERO);
+        try {
+            // Plain JDBC: a failed JPA flush would leave the caller's transaction unusable
+            jdbcTemplate.update(INSERT_ENTRY_SQL, student.getId(), schoolClass.getId(), month,
+                FeeLedgerEntry.EntryType.CHARGE.name(), amount, balanceAfter, null,
+                java.sql.Date.valueOf(entryDate != null ? entryDate : LocalDate.now()),
+                Timestamp.valueOf(LocalDateTime.now()));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            if (!ConstraintViolations.isViolationOf(e, ConstraintViolations.LEDGER_STUDENT_CLASS_MONTH_TYPE)) {
+                throw e;
+            }
+            // Only the failed statement is rolled back; take the delta back out
+            applyDelta(student.getId(), amount.negate(), BigDecimal.ZERO);
+            return false;
+        }
+    }
+
+    // Batch form of postCharge for one chunk of students in id order, run in the caller's
+    // transaction. Returns the number of charges created.
+    @Transactional
+    public int postCharges(String month, LocalDate entryDate, List<MonthlyCharge> charges) {
+        if (charges.isEmpty()) {
+            return 0;
+        }
+        // Range read on uk_fee_ledger_student_class_month_type
+        Set<String> alreadyCharged = new HashSet<>(jdbcTemplate.queryForList(
+            "SELECT CONCAT(student_id, ':', class_id) FROM fee_ledger_entries " +
+            "WHERE student_id BETWEEN ? AND ? AND month = ? AND entry_type = 'CHARGE'",
+            String.class, charges.get(0).studentId(), charges.get(charges.size() - 1).studentId(), month));
+
+        List<Posting> postings = new ArrayList<>();
+        for (MonthlyCharge charge : charges) {
+            if (!alreadyCharged.contains(charge.studentId() + ":" + charge.classId())) {
+                postings.add(new Posting(charge.studentId(), charge.classId(), month,
+                    FeeLedgerEntry.EntryType.CHARGE, charge.amount(), null, entryDate));
+            }
+        }
+        writePostings(postings);
+        return postings.size();
+    }
+
+    // Batch form of postPayment for payments saved in the caller's transaction (record-batch)
+    @Transactional
+    public void postPayments(List<FeePayment> payments) {
+        if (payments.isEmpty()) {
+            return;
+        }
+        Set<Long> studentIds = new HashSet<>();
+        Set<String> months = new HashSet<>();
+        for (FeePayment payment : payments) {
+            studentIds.add(payment.getStudent().getId());
+            months.add(payment.getMonth());
+        }
+        List<Object> args = new ArrayList<>(studentIds);
+        args.addAll(months);
+        Set<String> alreadyCharged = new HashSet<>(jdbcTemplate.queryForList(
+            "SELECT CONCAT(student_id, ':', class_id, ':', month) FROM fee_ledger_entries " +
+            "WHERE student_id IN (" + placeholders(studentIds.size()) + ") " +
+            "AND month IN (" + placeholders(months.size()) + ") AND entry_type = 'CHARGE'",
+            String.class, args.toArray()));
+
+        List<Posting> postings = new ArrayList<>();
+        for (FeePayment payment : payments) {
+            Long studentId = payment.getStudent().getId();
+            Long classId = payment.getSchoolClass().getId();
+            BigDecimal totalFee = payment.getFeeStructure() != null ? payment.getFeeStructure().getTotalFee() : null;
+            if (totalFee != null && alreadyCharged.add(studentId + ":" + classId + ":" + payment.getMonth())) {
+                postings.add(new Posting(studentId, classId, payment.getMonth(), FeeLedgerEntry.EntryType.CHARGE,
+                    totalFee, null, payment.getPaymentDate()));
+            }
+            postings.add(new Posting(studentId, classId, payment.getMonth(), FeeLedgerEntry.EntryType.PAYMENT,
+                payment.getAmountPaid(), payment.getId(), payment.getPaymentDate()));
+        }
+        writePostings(postings);
+    }
+
+    // One batched upsert with each student's net delta, one balance read, then the ledger rows in
+    // one batch with balance_after worked back from the new balance
+    private void writePostings(List<Posting> postings) {
+        if (postings.isEmpty()) {
+            return;
+        }
+        Map<Long, BigDecimal[]> totals = new LinkedHashMap<>();
+        for (Posting posting : postings) {
+            BigDecimal[] studentTotals = totals.computeIfAbsent(posting.studentId(),
+                id -> new BigDecimal[] {BigDecimal.ZERO, BigDecimal.ZERO});
+            int slot = posting.type() == FeeLedgerEntry.EntryType.CHARGE ? 0 : 1;
+            studentTotals[slot] = studentTotals[slot].add(posting.amount());
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> deltas = new ArrayList<>();
+        totals.forEach((studentId, t) -> {
+            BigDecimal delta = t[0].subtract(t[1]);
+            deltas.add(new Object[] {studentId, t[0], t[1], delta, now, t[0], t[1], delta, now});
+        });
+        jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, deltas);
+
+        // Balance before the batch, per student; advanced row by row below
+        Map<Long, BigDecimal> running = new HashMap<>();
+        jdbcTemplate.query("SELECT student_id, balance FROM student_fee_balances WHERE student_id IN (" +
+                placeholders(totals.size()) + ")",
+            rs -> {
+                BigDecimal[] t = totals.get(rs.getLong(1));
+                running.put(rs.getLong(1), rs.getBigDecimal(2).subtract(t[0]).add(t[1]));
+            },
+            totals.keySet().toArray());
+
+        List<Object[]> rows = new ArrayList<>();
+        for (Posting posting : postings) {
+            BigDecimal balanceAfter = running.merge(posting.studentId(), posting.delta(), BigDecimal::add);
+            rows.add(new Object[] {posting.studentId(), posting.classId(), posting.month(), posting.type().name(),
+                posting.amount(), balanceAfter, posting.paymentId(), java.sql.Date.valueOf(posting.entryDate()), now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_ENTRY_SQL, rows,
+            new int[] {Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.DECIMAL, Types.DECIMAL,
+                       Types.BIGINT, Types.DATE, Types.TIMESTAMP});
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private FeeLedgerEntry post(Student student, SchoolClass schoolClass, String month, FeeLedgerEntry.EntryType type,
+                                BigDecimal amount, FeePayment payment, LocalDate entryDate) {
+        BigDecimal charged = type == FeeLedgerEntry.EntryType.CHARGE ? amount : BigDecimal.ZERO;
+        BigDecimal paid = type == FeeLedgerEntry.EntryType.PAYMENT ? amount : BigDecimal.ZERO;
+        BigDecimal balanceAfter = applyDelta(student.getId(), charged, paid);
+
+        FeeLedgerEntry entry = new FeeLedgerEntry();
+        entry.setStudent(student);
+        entry.setSchoolClass(schoolClass);
+        entry.setMonth(month);
+        entry.setEntryType(type);
+        entry.setAmount(amount);
+        entry.setBalanceAfter(balanceAfter);
+        entry.setPayment(payment);
+        entry.setEntryDate(entryDate != null ? entryDate : LocalDate.now());
+        return feeLedgerRepository.save(entry);
+    }
+
+    // Applies one posting's totals and returns the new balance, read under the row lock the upsert took
+    private BigDecimal applyDelta(Long studentId, BigDecimal charged, BigDecimal paid) {
+        BigDecimal delta = charged.subtract(paid);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(APPLY_DELTA_SQL, studentId, charged, paid, delta, now, charged, paid, delta, now);
+        return jdbcTemplate.queryForObject(
+            "SELECT balance FROM student_fee_balances WHERE student_id = ?", BigDecimal.class, studentId);
+    }
+
+    // Balance across all months; zero for students with no postings yet
+    public BigDecimal getBalance(Long studentId) {
+        return studentFeeBalanceRepository.findById(studentId)
+            .map(StudentFeeBalance::getBalance)
+            .orElse(BigDecimal.ZERO);
+    }
+
+    @Transactional(readOnly = true)
+    public List<FeeLedgerEntryResponse> getStatement(String studentId) {
+        Student student = studentRepository.findByStudentId(studentId)
+            .orElseThrow(() -> new RuntimeException("Student not found with ID: " + studentId));
+        return feeLedgerRepository.findByStudentIdOrderByIdAsc(student.getId()).stream()
+            .map(FeeLedgerEntryResponse::from)
+            .collect(Collectors.toList());
+    }
+
+    public List<OutstandingBalance> getOutstandingBalances() {
+        return studentFeeBalanceRepository.findOutstanding().stream()
+            .map(OutstandingBalance::from)
+            .collect(Collectors.toList());
+    }
+
+    public BigDecimal getTotalOutstanding() {
+        return studentFeeBalanceRepository.sumOutstanding();
+    }
+}
@@ -1,8 +1,11 @@
 // src/main/java/com/example/SM/service/FeePaymentService.java
 package com.example.SM.service;
 
+import com.example.SM.dto.DeltaResponse;
+import com.example.SM.dto.FeePaymentBatchResult;
 import com.example.SM.dto.FeePaymentRequest;
 import com.example.SM.dto.FeePaymentResponse;
+import com.example.SM.dto.FeeStatistics;
 import com.example.SM.dto.FeeStatus;
 import com.example.SM.entity.FeePayment;
 import com.example.SM.entity.FeeStructure;
@@ -12,16 +15,30 @@ import com.example.SM.repository.FeePaymentRepository;
 import com.example.SM.repository.FeeStructureRepository;
 import com.example.SM.repository.SchoolClassRepository;
 import com.example.SM.repository.StudentRepository;
+import com.example.SM.util.ConstraintViolations;
+import com.example.SM.util.SyncWatermark;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -47,8 +64,41 @@ public class FeePaymentService {
     @Autowired
     private ReceiptPDFService receiptPDFService;
     
+    @Autowired
+    private MetricsService metricsService;
+    
+    // Cached reference-data lookups
+    @Autowired
+    private SchoolClassService schoolClassService;
+    
+    @Autowired
+    private FeeStructureService feeStructureService;
+    
+    @Autowired
+    private FeeLedgerService feeLedgerService;
+    
+    @Autowired
+    private EmailTemplateService emailTemplateService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
     
+    @Value("${fees.record-batch.max-size:500}")
+    private int maxBatchSize;
+    
+    private static final String INSERT_PAYMENT_SQL =
+        "INSERT INTO fee_payments (student_id, fee_structure_id, class_id, amount_paid, payment_date, month, " +
+        "payment_method, transaction_id, status, notes, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    
+    // Payment and its ledger posting commit together
+    @Transactional
     public FeePayment recordPayment(FeePaymentRequest request) {
+        return metricsService.time(MetricsService.PAYMENT_RECORD, () -> savePayment(request));
+    }
+    
+    private FeePayment savePayment(FeePaymentRequest request) {
         try {
             System.out.println("🔄 Recording payment for student: " + request.getStudentId());
             
@@ -57,21 +107,13 @@ public class FeePaymentService {
                 .orElseThrow(() -> new RuntimeException("Student not found with ID: " + request.getStudentId()));
             
             // Validate class exists
-            SchoolClass schoolClass = schoolClassRepository.findById(request.getClassId())
+            SchoolClass schoolClass = schoolClassService.getClassById(request.getClassId())
                 .orElseThrow(() -> new RuntimeException("Class not found with ID: " + request.getClassId()));
             
             // Get fee structure for the class
-            FeeStructure feeStructure = feeStructureRepository.findBySchoolClassId(request.getClassId())
+            FeeStructure feeStructure = feeStructureService.getFeeByClassId(request.getClassId())
                 .orElseThrow(() -> new RuntimeException("Fee structure not found for class: " + schoolClass.getClassName()));
             
-            // Check if payment already exists for this student, month, and class
-            Optional<FeePayment> existingPayment = feePaymentRepository
-                .findByStudentStudentIdAndMonthAndSchoolClassId(request.getStudentId(), request.getMonth(), request.getClassId());
-            
-            if (existingPayment.isPresent()) {
-                throw new RuntimeException("Payment already recorded for " + request.getMonth() + " in class " + schoolClass.getClassName());
-            }
-            
             // Create and save payment
             FeePayment payment = new FeePayment();
             payment.setStudent(student);
@@ -92,15 +134,19 @@ public class FeePaymentService {
             payment.setNotes(request.getNotes());
             
             // Set status based on payment amount
-            if (request.getAmountPaid().compareTo(feeStructure.getTotalFee()) >= 0) {
-                payment.setStatus(FeePayment.PaymentStatus.PAID);
-            } else if (request.getAmountPaid().compareTo(BigDecimal.ZERO) > 0) {
-                payment.setStatus(FeePayment.PaymentStatus.PARTIAL);
-            } else {
-                payment.setStatus(FeePayment.PaymentStatus.PENDING);
-            }
+            payment.setStatus(statusFor(request.getAmountPaid(), feeStructure));
             
-            FeePayment savedPayment = feePaymentRepository.save(payment);
+            // Duplicate payments are rejected by uk_fee_payments_student_month_class rather than a pre-check SELECT
+            FeePayment savedPayment;
+            try {
+                savedPayment = feePaymentRepository.saveAndFlush(payment);
+            } catch (DataIntegrityViolationException e) {
+                if (ConstraintViolations.isViolationOf(e, ConstraintViolations.PAYMENT_STUDENT_MONTH_CLASS)) {
+                    throw new RuntimeException("Payment already recorded for " + request.getMonth() + " in class " + schoolClass.getClassName());
+                }
+                throw e;
+            }
+            feeLedgerService.postPayment(savedPayment);
             System.out.println("✅ Payment recorded successfully: " + savedPayment.getId());
             
             return savedPayment;
@@ -111,6 +157,177 @@ public class FeePaymentService {
         }
     }
     
+    private FeePayment.PaymentStatus statusFor(BigDecimal amountPaid, FeeStructure feeStructure) {
+        if (amountPaid.compareTo(feeStructure.getTotalFee()) >= 0) {
+            return FeePayment.PaymentStatus.PAID;
+        } else if (amountPaid.compareTo(BigDecimal.ZERO) > 0) {
+            return FeePayment.PaymentStatus.PARTIAL;
+        }
+        return FeePayment.PaymentStatus.PENDING;
+    }
+    
+    // Day-end entry of many receipts: students, classes, fee structures and existing payments are
+    // each fetched with one query for the whole batch, then every valid item is inserted in one
+    // JDBC batch and posted to the ledger in the same transaction. Invalid or duplicate items are
+    // reported per item and do not stop the rest; a constraint violation on insert (a payment
+    // recorded concurrently) rolls back the whole batch.
+    @Transactional
+    public List<FeePaymentBatchResult> recordPayments(List<FeePaymentRequest> requests) {
+        if (requests.size() > maxBatchSize) {
+            throw new RuntimeException("Too many payments in one batch: " + requests.size() + " (max " + maxBatchSize + ")");
+        }
+        return metricsService.time(MetricsService.PAYMENT_RECORD_BATCH, () -> savePayments(requests));
+    }
+    
+    private List<FeePaymentBatchResult> savePayments(List<FeePaymentRequest> requests) {
+        Set<String> studentIds = new HashSet<>();
+        Set<Long> classIds = new HashSet<>();
+        Set<String> months = new HashSet<>();
+        Set<String> transactionIds = new HashSet<>();
+        for (FeePaymentRequest request : requests) {
+            if (request == null) {
+                continue;
+            }
+            if (request.getStudentId() != null) studentIds.add(request.getStudentId());
+            if (request.getClassId() != null) classIds.add(request.getClassId());
+            if (request.getMonth() != null) months.add(request.getMonth());
+            if (request.getTransactionId() != null) transactionIds.add(request.getTransactionId());
+        }
+        
+        Map<String, Student> students = studentIds.isEmpty() ? Map.of() :
+            studentRepository.findByStudentIdIn(studentIds).stream()
+                .collect(Collectors.toMap(Student::getStudentId, s -> s));
+        Map<Long, SchoolClass> classes = classIds.isEmpty() ? Map.of() :
+            schoolClassRepository.findAllById(classIds).stream()
+                .collect(Collectors.toMap(SchoolClass::getId, c -> c));
+        Map<Long, FeeStructure> feeStructures = classIds.isEmpty() ? Map.of() :
+            feeStructureRepository.findBySchoolClassIdIn(classIds).stream()
+                .collect(Collectors.toMap(f -> f.getSchoolClass().getId(), f -> f));
+        
+        // Keys already taken, in the database or earlier in this batch
+        Set<String> paidKeys = new HashSet<>();
+        if (!students.isEmpty() && !months.isEmpty()) {
+            Set<Long> studentPks = students.values().stream().map(Student::getId).collect(Collectors.toSet());
+            for (Object[] key : feePaymentRepository.findPaymentKeys(studentPks, months)) {
+                paidKeys.add(key[0] + ":" + key[1] + ":" + key[2]);
+            }
+        }
+        Set<String> usedTransactionIds = transactionIds.isEmpty() ? new HashSet<>() :
+            new HashSet<>(feePaymentRepository.findExistingTransactionIds(transactionIds));
+        
+        FeePaymentBatchResult[] results = new FeePaymentBatchResult[requests.size()];
+        List<FeePayment> payments = new ArrayList<>();
+        List<Integer> paymentIndexes = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            FeePaymentRequest request = requests.get(i);
+            if (request == null) {
+                results[i] = new FeePaymentBatchResult(i, null, null, FeePaymentBatchResult.REJECTED, null, "Empty payment");
+                continue;
+            }
+            // The lookup maps may be Map.of(), which rejects null keys
+            Student student = request.getStudentId() != null ? students.get(request.getStudentId()) : null;
+            SchoolClass schoolClass = request.getClassId() != null ? classes.get(request.getClassId()) : null;
+            FeeStructure feeStructure = request.getClassId() != null ? feeStructures.get(request.getClassId()) : null;
+            String error = null;
+            FeePayment.PaymentMethod method = null;
+            if (student == null) {
+                error = "Student not found with ID: " + request.getStudentId();
+            } else if (schoolClass == null) {
+                error = "Class not found with ID: " + request.getClassId();
+            } else if (feeStructure == null || feeStructure.getTotalFee() == null) {
+                error = "Fee structure not found for class: " + schoolClass.getClassName();
+            } else if (request.getAmountPaid() == null || request.getMonth() == null) {
+                error = "Amount and month are required";
+            } else {
+                try {
+                    method = FeePayment.PaymentMethod.valueOf(request.getPaymentMethod());
+                } catch (IllegalArgumentException | NullPointerException e) {
+                    error = "Invalid payment method: " + request.getPaymentMethod();
+                }
+            }
+            if (error != null) {
+                results[i] = FeePaymentBatchResult.failed(i, request, FeePaymentBatchResult.REJECTED, error);
+                continue;
+            }
+            
+            if (!paidKeys.add(student.getId() + ":" + schoolClass.getId() + ":" + request.getMonth())) {
+                results[i] = FeePaymentBatchResult.failed(i, request, FeePaymentBatchResult.DUPLICATE,
+                    "Payment already recorded for " + request.getMonth() + " in class " + schoolClass.getClassName());
+                continue;
+            }
+            if (request.getTransactionId() != null && !usedTransactionIds.add(request.getTransactionId())) {
+                results[i] = FeePaymentBatchResult.failed(i, request, FeePaymentBatchResult.DUPLICATE,
+                    "Transaction ID already used: " + request.getTransactionId());
+                continue;
+            }
+            
+            FeePayment payment = new FeePayment();
+            payment.setStudent(student);
+            payment.setFeeStructure(feeStructure);
+            payment.setSchoolClass(schoolClass);
+            payment.setAmountPaid(request.getAmountPaid());
+            payment.setPaymentDate(request.getPaymentDate() != null ? request.getPaymentDate() : LocalDate.now());
+            payment.setMonth(request.getMonth());
+            payment.setPaymentMethod(method);
+            payment.setTransactionId(request.getTransactionId());
+            payment.setNotes(request.getNotes());
+            payment.setStatus(statusFor(request.getAmountPaid(), feeStructure));
+            payments.add(payment);
+            paymentIndexes.add(i);
+        }
+        
+        if (!payments.isEmpty()) {
+            insertPayments(payments);
+            feeLedgerService.postPayments(payments);
+        }
+        for (int j = 0; j < payments.size(); j++) {
+            int i = paymentIndexes.get(j);
+            results[i] = FeePaymentBatchResult.recorded(i, requests.get(i), payments.get(j).getId());
+        }
+        System.out.println("✅ Batch recorded " + payments.size() + " of " + requests.size() + " payments");
+        return Arrays.asList(results);
+    }
+    
+    // One JDBC batch; Hibernate cannot batch inserts for IDENTITY ids
+    private void insertPayments(List<FeePayment> payments) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        try {
+            jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_PAYMENT_SQL, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        FeePayment payment = payments.get(i);
+                        ps.setLong(1, payment.getStudent().getId());
+                        ps.setLong(2, payment.getFeeStructure().getId());
+                        ps.setLong(3, payment.getSchoolClass().getId());
+                        ps.setBigDecimal(4, payment.getAmountPaid());
+                        ps.setDate(5, java.sql.Date.valueOf(payment.getPaymentDate()));
+                        ps.setString(6, payment.getMonth());
+                        ps.setString(7, payment.getPaymentMethod().name());
+                        ps.setString(8, payment.getTransactionId());
+                        ps.setString(9, payment.getStatus().name());
+                        ps.setString(10, payment.getNotes());
+                        ps.setTimestamp(11, Timestamp.valueOf(payment.getCreatedAt()));
+                        ps.setTimestamp(12, Timestamp.valueOf(payment.getUpdatedAt()));
+                    }
+                    
+                    @Override
+                    public int getBatchSize() {
+                        return payments.size();
+                    }
+                }, keys);
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolationOf(e, ConstraintViolations.PAYMENT_STUDENT_MONTH_CLASS)) {
+                throw new RuntimeException("A payment in this batch was recorded by someone else meanwhile; nothing was saved, please resubmit");
+            }
+            throw e;
+        }
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        for (int i = 0; i < payments.size(); i++) {
+            payments.get(i).setId(((Number) keyList.get(i).values().iterator().next()).longValue());
+        }
+    }
+    
     // ADD THIS METHOD - Get Student Payments
     public List<FeePaymentResponse> getStudentPayments(String studentId) {
         try {
@@ -153,7 +370,31 @@ public class FeePaymentService {
         }
     }
     
+    // Delta-sync for polling clients: recent payments created or updated after the watermark
+    public DeltaResponse<FeePaymentResponse> getRecentPaymentChanges(String since, int limit) {
+        limit = DeltaResponse.clampLimit(limit);
+        LocalDate startDate = LocalDate.now().minusDays(30);
+        SyncWatermark watermark = SyncWatermark.parse(since);
+        
+        List<FeePayment> changed = feePaymentRepository.findRecentPaymentsChangedSince(
+            startDate, watermark.getTimestamp(), watermark.getId(), PageRequest.of(0, limit + 1));
+        Object[] fingerprint = feePaymentRepository.findRecentPaymentsFingerprint(startDate).get(0);
+        
+        return DeltaResponse.of(changed, limit, watermark, ((Number) fingerprint[0]).longValue(),
+            FeePayment::getUpdatedAt, FeePayment::getId, FeePaymentResponse::new);
+    }
+    
+    public String getRecentPaymentsETag(String since, int limit) {
+        LocalDate startDate = LocalDate.now().minusDays(30);
+        return SyncWatermark.etag("pay-" + startDate,
+            feePaymentRepository.findRecentPaymentsFingerprint(startDate).get(0), since, DeltaResponse.clampLimit(limit));
+    }
+    
     public List<FeeStatus> getOverdueStudents() {
+        return metricsService.time(MetricsService.FEE_OVERDUE, this::findOverdueStudents);
+    }
+    
+    private List<FeeStatus> findOverdueStudents() {
         try {
             System.out.println("🔄 Getting overdue students...");
             
@@ -182,7 +423,7 @@ public class FeePaymentService {
         }
     }
     
-    public Map<String, Object> getFeeStatistics() {
+    public FeeStatistics getFeeStatistics() {
         try {
             System.out.println("🔄 Getting fee statistics...");
             
@@ -194,14 +435,14 @@ public class FeePaymentService {
             
             // Get overdue count
             List<FeeStatus> overdueStudents = getOverdueStudents();
+            long totalStudents = studentRepository.count();
             
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("totalCollected", totalCollected);
-            stats.put("pendingStudents", overdueStudents.size());
-            stats.put("totalStudents", studentRepository.count());
-            stats.put("collectionRate", studentRepository.count() > 0 ? 
-                (studentRepository.count() - overdueStudents.size()) * 100.0 / studentRepository.count() : 0);
-            stats.put("recentPaymentCount", allPayments.size());
+            FeeStatistics stats = new FeeStatistics(
+                totalCollected,
+                overdueStudents.size(),
+                totalStudents,
+                totalStudents > 0 ? (totalStudents - overdueStudents.size()) * 100.0 / totalStudents : 0.0,
+                allPayments.size());
             
             System.out.println("✅ Statistics calculated: " + stats);
             return stats;
@@ -209,17 +450,14 @@ public class FeePaymentService {
         } catch (Exception e) {
             System.err.println("💥 Error in getFeeStatistics: " + e.getMessage());
             e.printStackTrace();
-            
-            Map<String, Object> errorStats = new HashMap<>();
-            errorStats.put("totalCollected", 0);
-            errorStats.put("pendingStudents", 0);
-            errorStats.put("totalStudents", 0);
-            errorStats.put("collectionRate", 0);
-            errorStats.put("recentPaymentCount", 0);
-            return errorStats;
+            return FeeStatistics.empty();
         }
     }
         public FeeStatus getFeeStatus(String studentId) {
+            return metricsService.time(MetricsService.FEE_STATUS, () -> computeFeeStatus(studentId));
+        }
+        
+        private FeeStatus computeFeeStatus(String studentId) {
         try {
             System.out.println("🔄 Getting fee status for student: " + studentId);
             
@@ -241,7 +479,7 @@ public class FeePaymentService {
             }
             
             // Get fee structure for student's assigned class
-            FeeStructure feeStructure = feeStructureRepository.findBySchoolClassId(student.getSchoolClass().getId())
+            FeeStructure feeStructure = feeStructureService.getFeeByClassId(student.getSchoolClass().getId())
                 .orElseThrow(() -> new RuntimeException("Fee structure not found for student's class"));
             
             // Calculate total paid for current month
@@ -301,6 +539,7 @@ public class FeePaymentService {
             feeStatus.setDaysOverdue(daysOverdue);
             feeStatus.setGracePeriodActive(currentDay <= 14);
             feeStatus.setGracePeriodEnds(currentDay <= 14 ? 14 - currentDay : 0);
+            feeStatus.setOutstandingBalance(feeLedgerService.getBalance(student.getId()));
             
             // Calculate next due date
             if (currentDay <= 14) {
@@ -335,13 +574,23 @@ public class FeePaymentService {
         }
     }
         
+        // Confirmation email off the request thread; failures are logged, the payment stays recorded
+        @Async("mailExecutor")
+        public void sendPaymentConfirmationAsync(Long paymentId) {
+            try {
+                sendPaymentConfirmation(paymentId);
+            } catch (MessagingException e) {
+                System.err.println("❌ Async confirmation email failed for payment " + paymentId + ": " + e.getMessage());
+            }
+        }
+        
      // Add this method to your FeePaymentService class
         public void sendPaymentConfirmation(Long paymentId) throws MessagingException {
             try {
                 System.out.println("📧 Sending payment confirmation email...");
                 
-                // Fetch the payment with all details
-                FeePayment payment = feePaymentRepository.findById(paymentId)
+                // Fetch the payment with student and class in one query (also safe off the request thread)
+                FeePayment payment = feePaymentRepository.findByIdWithDetails(paymentId)
                     .orElseThrow(() -> new RuntimeException("Payment not found: " + paymentId));
                 
                 Student student = payment.getStudent();
@@ -361,7 +610,7 @@ public class FeePaymentService {
                 helper.setText(emailContent, true);
                 
                 // Send email
-                mailSender.send(message);
+                metricsService.recordMailSend("payment-confirmation", () -> mailSender.send(message));
                 System.out.println("✅ Payment confirmation email sent to: " + student.getEmail());
                 
             } catch (Exception e) {
@@ -374,109 +623,14 @@ public class FeePaymentService {
             String studentName = student.getFirstName() + " " + student.getLastName();
             String className = schoolClass != null ? schoolClass.getClassName() : "Not Assigned";
             
-            return """
-                <!DOCTYPE html>
-                <html>
-                <head>
-                    <meta charset="UTF-8">
-                    <style>
-                        body { font-family: 'Arial', sans-serif; color: #333; line-height: 1.6; }
-                        .container { max-width: 600px; margin: 0 auto; background: #f9f9f9; border-radius: 10px; overflow: hidden; }
-                        .header { background: #4CAF50; color: white; padding: 30px 20px; text-align: center; }
-                        .content { padding: 30px; background: white; }
-                        .payment-details { background: #f1f8e9; padding: 20px; border-radius: 8px; margin: 20px 0; border-left: 4px solid #4CAF50; }
-                        .detail-row { display: flex; justify-content: space-between; margin: 10px 0; padding: 5px 0; border-bottom: 1px solid #eee; }
-                        .footer { background: #333; color: white; padding: 20px; text-align: center; font-size: 12px; }
-                        .success-icon { font-size: 24px; color: #4CAF50; margin-right: 10px; }
-                        .amount { font-size: 24px; color: #2E7D32; font-weight: bold; }
-                    </style>
-                </head>
-                <body>
-                    <div class="container">
-                        <div class="header">
-                            <h1>🎓 School Management System</h1>
-                            <h2>Payment Confirmation Receipt</h2>
-                        </div>
-                        
-                        <div class="content">
-                            <p>Dear <strong>%s</strong>,</p>
-                            
-                            <p>This email confirms that your fee payment has been successfully processed and recorded in our system.</p>
-                            
-                            <div class="payment-details">
-                                <h3 style="color: #2E7D32; margin-top: 0;">
-                                    <span class="success-icon">✅</span> Payment Confirmed
-                                </h3>
-                                
-                                <div class="detail-row">
-                                    <span><strong>Student ID:</strong></span>
-                                    <span>%s</span>
-                                </div>
-                                <div class="detail-row">
-                                    <span><strong>Student Name:</strong></span>
-                                    <span>%s</span>
-                                </div>
-                                <div class="detail-row">
-                                    <span><strong>Class:</strong></span>
-                                    <span>%s</span>
-                                </div>
-                                <div class="detail-row">
-                                    <span><strong>Payment Amount:</strong></span>
-                                    <span class="amount">Rs. %,.2f</span>
-                                </div>
-                                <div class="detail-row">
-                                    <span><strong>For Month:</strong></span>
-                                    <span>%s</span>
-                                </div>
-                                <div class="detail-row">
-                                    <span><strong>Payment Method:</strong></span>
-                                    <span>%s</span>
-                                </div>
-                                <div class="detail-row">
-                                    <span><strong>Transaction ID:</strong></span>
-                                    <span>%s</span>
-                                </div>
-                                <div class="detail-row">
-                                    <span><strong>Payment Date:</strong></span>
-                                    <span>%s</span>
-                                </div>
-                                <div class="detail-row">
-                                    <span><strong>Payment Status:</strong></span>
-                                    <span style="color: #4CAF50; font-weight: bold;">COMPLETED</span>
-                                </div>
-                            </div>
-                            
-                            <p><strong>Important Notes:</strong></p>
-                            <ul>
-                                <li>Please keep this email as your payment receipt</li>
-                                <li>Present this receipt if any payment verification is needed</li>
-                                <li>For any queries, contact the school accounts department</li>
-                            </ul>
-                            
-                            <p>Thank you for your timely payment.</p>
-                            
-                            <p>Best regards,<br>
-                            <strong>School Accounts Department</strong><br>
-                            School Management System</p>
-                        </div>
-                        
-                        <div class="footer">
-                            <p>This is an automated message. Please do not reply to this email.</p>
-                            <p>© 2024 School Management System. All rights reserved.</p>
-                        </div>
-                    </div>
-                </body>
-                </html>
-                """.formatted(
-                    studentName,
-                    student.getStudentId(),
-                    studentName,
-                    className,
-                    payment.getAmountPaid(),
-                    payment.getMonth(),
-                    payment.getPaymentMethod().toString(),
-                    payment.getTransactionId() != null ? payment.getTransactionId() : "N/A",
-                    payment.getPaymentDate().toString()
-                );
+            return emailTemplateService.render(EmailTemplateService.PAYMENT_CONFIRMATION,
+                studentName,
+                student.getStudentId(),
+                className,
+                EmailTemplateService.formatAmount(payment.getAmountPaid()),
+                payment.getMonth(),
+                payment.getPaymentMethod(),
+                payment.getTransactionId() != null ? payment.getTransactionId() : "N/A",
+                payment.getPaymentDate());
         }
 }
\ No newline at end of file
@@ -0,0 +1,254 @@
+package com.example.SM.service;
+
+import com.example.SM.dto.ReminderCampaignReport;
+import com.example.SM.util.HtmlTemplate;
+import com.example.SM.util.TokenBucket;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Overdue fee reminders, sent once the 14-day grace period is over. Overdue students come from
+ * one query (current month's payments against the class fee, plus the ledger balance); messages
+ * are rendered from a precompiled template and sent in batches, each batch over one pooled SMTP
+ * connection (PooledMailSender), paced by a token bucket. Each address gets at most one reminder per month
+ * (fee_reminders), so the campaign can be re-run after failures.
+ */
+@Service
+public class FeeReminderService {
+
+    // Same grace period as FeePaymentService.getFeeStatus: overdue from the 15th
+    public static final int GRACE_PERIOD_DAYS = 14;
+
+    // Active students with a fee structure whose payments for the month are short of the class fee
+    private static final String OVERDUE_SQL =
+        "SELECT s.id, s.student_id, s.first_name, s.last_name, s.email, c.class_name, fs.total_fee, " +
+        "COALESCE(p.paid, 0) AS paid, COALESCE(b.balance, 0) AS outstanding " +
+        "FROM students s " +
+        "JOIN school_classes c ON c.id = s.class_id " +
+        "JOIN fee_structures fs ON fs.class_id = s.class_id " +
+        "LEFT JOIN (SELECT student_id, SUM(amount_paid) AS paid FROM fee_payments WHERE month = ? " +
+        "           GROUP BY student_id) p ON p.student_id = s.id " +
+        "LEFT JOIN student_fee_balances b ON b.student_id = s.id " +
+        "WHERE s.status = 'Active' AND fs.total_fee IS NOT NULL AND COALESCE(p.paid, 0) < fs.total_fee " +
+        "ORDER BY s.email, s.id";
+
+    private record OverdueStudent(Long id, String studentId, String name, String email, String className,
+                                  BigDecimal fee, BigDecimal paid, BigDecimal outstanding) {
+    }
+
+    // One email per address; siblings sharing an address are listed together
+    private record Recipient(String email, List<OverdueStudent> students) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private MetricsService metricsService;
+
+    @Autowired
+    private EmailTemplateService emailTemplateService;
+
+    @Value("${fees.reminders.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fees.reminders.batch-size:50}")
+    private int batchSize;
+
+    @Value("${fees.reminders.rate-per-second:5}")
+    private double ratePerSecond;
+
+    @Value("${fees.reminders.from:accounts@schoolmanagement.com}")
+    private String from;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private final AtomicReference<ReminderCampaignReport> lastReport = new AtomicReference<>();
+
+    // Platform mail threads: Jakarta Mail pins virtual threads during connect (see AsyncConfig)
+    @Async("mailExecutor")
+    @Scheduled(cron = "${fees.reminders.cron:0 0 9 15 * ?}")
+    public void runCampaign() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        if (today.getDayOfMonth() <= GRACE_PERIOD_DAYS) {
+            System.out.println("⏳ Reminder campaign skipped: grace period still active");
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            System.out.println("⏳ Reminder campaign already running");
+            return;
+        }
+        try {
+            lastReport.set(send(YearMonth.from(today)));
+        } catch (RuntimeException e) {
+            System.err.println("❌ Reminder campaign failed: " + e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public ReminderCampaignReport getLastReport() {
+        return lastReport.get();
+    }
+
+    private ReminderCampaignReport send(YearMonth yearMonth) {
+        String month = yearMonth.toString();
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+
+        List<OverdueStudent> overdue = jdbcTemplate.query(OVERDUE_SQL,
+            (rs, rowNum) -> new OverdueStudent(rs.getLong("id"), rs.getString("student_id"),
+                rs.getString("first_name") + " " + rs.getString("last_name"), rs.getString("email"),
+                rs.getString("class_name"), rs.getBigDecimal("total_fee"), rs.getBigDecimal("paid"),
+                rs.getBigDecimal("outstanding")),
+            month);
+
+        Set<String> reminded = new HashSet<>(jdbcTemplate.queryForList(
+            "SELECT email FROM fee_reminders WHERE month = ?", String.class, month));
+        Map<String, Recipient> recipients = new LinkedHashMap<>();
+        int withoutEmail = 0;
+        int alreadyReminded = 0;
+        for (OverdueStudent student : overdue) {
+            if (student.email() == null || student.email().isBlank()) {
+                withoutEmail++;
+                continue;
+            }
+            String email = student.email().trim().toLowerCase(Locale.ROOT);
+            if (reminded.contains(email)) {
+                alreadyReminded++;
+                continue;
+            }
+            recipients.computeIfAbsent(email, e -> new Recipient(e, new ArrayList<>())).students().add(student);
+        }
+        System.out.println("📨 Reminder campaign " + month + ": " + overdue.size() + " overdue students, " +
+            recipients.size() + " recipients to email");
+
+        String graceEnd = yearMonth.atDay(GRACE_PERIOD_DAYS).toString();
+        TokenBucket pace = new TokenBucket(batchSize, ratePerSecond, System.nanoTime());
+        List<Recipient> pending = new ArrayList<>(recipients.values());
+        int sent = 0;
+        int failed = 0;
+        for (int offset = 0; offset < pending.size(); offset += batchSize) {
+            List<Recipient> batch = pending.subList(offset, Math.min(offset + batchSize, pending.size()));
+            for (int i = 0; i < batch.size(); i++) {
+                long wait;
+                while ((wait = pace.tryConsume(System.nanoTime())) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            List<Recipient> delivered = sendBatch(batch, month, graceEnd);
+            sent += delivered.size();
+            failed += batch.size() - delivered.size();
+            markReminded(delivered, month);
+        }
+
+        double seconds = Math.max(0.001, (System.nanoTime() - start) / 1e9);
+        metricsService.recordReminders("sent", sent);
+        metricsService.recordReminders("failed", failed);
+        metricsService.recordReminders("already_reminded", alreadyReminded);
+        ReminderCampaignReport report = new ReminderCampaignReport(month, startedAt, LocalDateTime.now(),
+            overdue.size(), recipients.size(), alreadyReminded, withoutEmail, sent, failed,
+            Math.round(sent / seconds * 100) / 100.0);
+        System.out.println("✅ Reminder campaign " + month + " done: " + sent + " sent, " + failed + " failed in " +
+            ChronoUnit.MILLIS.between(startedAt, report.finishedAt()) + "ms (" + report.sendsPerSecond() + "/s)");
+        return report;
+    }
+
+    // The whole batch goes over one pooled SMTP connection; returns the recipients that were accepted
+    private List<Recipient> sendBatch(List<Recipient> batch, String month, String graceEnd) {
+        Map<MimeMessage, Recipient> messages = new LinkedHashMap<>();
+        for (Recipient recipient : batch) {
+            try {
+                messages.put(createMessage(recipient, month, graceEnd), recipient);
+            } catch (MessagingException e) {
+                System.err.println("❌ Could not build reminder for " + recipient.email() + ": " + e.getMessage());
+            }
+        }
+        List<Recipient> delivered = new ArrayList<>(messages.values());
+        try {
+            metricsService.recordMailSend("overdue-reminder",
+                () -> mailSender.send(messages.keySet().toArray(new MimeMessage[0])));
+        } catch (MailSendException e) {
+            // Messages before a connection failure may have gone out; only the listed ones failed
+            e.getFailedMessages().keySet().forEach(message -> delivered.remove(messages.get(message)));
+            System.err.println("❌ " + e.getFailedMessages().size() + " reminders failed: " + e.getMessage());
+        } catch (MailException e) {
+            System.err.println("❌ Reminder batch failed: " + e.getMessage());
+            delivered.clear();
+        }
+        return delivered;
+    }
+
+    private MimeMessage createMessage(Recipient recipient, String month, String graceEnd) throws MessagingException {
+        StringBuilder rows = new StringBuilder(256 * recipient.students().size());
+        BigDecimal outstanding = BigDecimal.ZERO;
+        HtmlTemplate row = emailTemplateService.get(EmailTemplateService.OVERDUE_REMINDER_ROW);
+        for (OverdueStudent student : recipient.students()) {
+            row.renderTo(rows, student.name(), student.studentId(), student.className(),
+                EmailTemplateService.formatAmount(student.fee()), EmailTemplateService.formatAmount(student.paid()),
+                EmailTemplateService.formatAmount(student.fee().subtract(student.paid())));
+            outstanding = outstanding.add(student.outstanding());
+        }
+        OverdueStudent first = recipient.students().get(0);
+        String recipientName = recipient.students().size() == 1 ? first.name() : "Parent/Guardian";
+
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+        helper.setTo(recipient.email());
+        helper.setFrom(from);
+        helper.setSubject("⚠️ Fee Payment Overdue - " + month);
+        helper.setText(emailTemplateService.render(EmailTemplateService.OVERDUE_REMINDER,
+            month, recipientName, graceEnd, rows, EmailTemplateService.formatAmount(outstanding)), true);
+        return message;
+    }
+
+    private void markReminded(List<Recipient> delivered, String month) {
+        if (delivered.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        for (Recipient recipient : delivered) {
+            rows.add(new Object[] {month, recipient.email(), recipient.students().get(0).id(), now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO fee_reminders (month, email, student_id, sent_at) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE sent_at = sent_at", rows);
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.SM.service;
 
+import com.example.SM.config.CacheConfig;
 import com.example.SM.entity.FeeStructure;
 import com.example.SM.entity.SchoolClass;
 import com.example.SM.repository.FeeStructureRepository;
 import com.example.SM.repository.SchoolClassRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -23,10 +26,12 @@ public class FeeStructureService {
         return feeStructureRepository.findAll();
     }
     
+    @Cacheable(cacheNames = CacheConfig.FEE_BY_CLASS, unless = "#result == null")
     public Optional<FeeStructure> getFeeByClassId(Long classId) {
         return feeStructureRepository.findBySchoolClassId(classId);
     }
     
+    @CacheEvict(cacheNames = CacheConfig.FEE_BY_CLASS, allEntries = true)
     public FeeStructure createFeeStructure(FeeStructure feeStructure) {
         // Validate class exists
         if (feeStructure.getSchoolClass() == null || feeStructure.getSchoolClass().getId() == null) {
@@ -49,6 +54,7 @@ public class FeeStructureService {
         return feeStructureRepository.save(feeStructure);
     }
     
+    @CacheEvict(cacheNames = CacheConfig.FEE_BY_CLASS, allEntries = true)
     public FeeStructure updateFeeStructure(Long id, FeeStructure feeDetails) {
         Optional<FeeStructure> existingFee = feeStructureRepository.findById(id);
         if (existingFee.isPresent()) {
@@ -69,6 +75,7 @@ public class FeeStructureService {
         throw new RuntimeException("Fee structure not found with id: " + id);
     }
     
+    @CacheEvict(cacheNames = CacheConfig.FEE_BY_CLASS, allEntries = true)
     public void deleteFeeStructure(Long id) {
         feeStructureRepository.deleteById(id);
     }
@@ -0,0 +1,135 @@
+package com.example.SM.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Responses to POSTs that carried an Idempotency-Key, so a client retry gets the original
+ * response back instead of running the write again. Recent responses are held in a Caffeine
+ * cache bounded by total body size; every response is also written to idempotency_keys, so
+ * retries still replay after a restart or once the entry has been evicted.
+ */
+@Service
+public class IdempotencyService {
+
+    /** A stored response; requestHash is the SHA-256 of the original request body. */
+    public record StoredResponse(String requestHash, int status, String contentType,
+                                 String contentDisposition, byte[] body) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${idempotency.cache.max-bytes:16777216}")
+    private long maxCacheBytes;
+
+    @Value("${idempotency.max-body-bytes:1048576}")
+    private int maxBodyBytes;
+
+    private Cache<String, StoredResponse> cache;
+
+    // Keys whose first request is still running
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+            .maximumWeight(maxCacheBytes)
+            .weigher((String key, StoredResponse response) -> 256 + response.body().length)
+            .expireAfterWrite(Duration.ofHours(ttlHours))
+            .build();
+    }
+
+    // Scoped to user and endpoint, so two clients picking the same key never collide
+    public String scopedKey(String user, String method, String path, String clientKey) {
+        return sha256((user + "|" + method + " " + path + "|" + clientKey).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Optional<StoredResponse> find(String key) {
+        StoredResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        List<StoredResponse> stored = jdbcTemplate.query(
+            "SELECT request_hash, status_code, content_type, content_disposition, body FROM idempotency_keys " +
+            "WHERE key_hash = ? AND expires_at > ?",
+            (rs, rowNum) -> new StoredResponse(rs.getString(1), rs.getInt(2), rs.getString(3), rs.getString(4),
+                rs.getBytes(5) != null ? rs.getBytes(5) : new byte[0]),
+            key, Timestamp.valueOf(LocalDateTime.now()));
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+        cache.put(key, stored.get(0));
+        return Optional.of(stored.get(0));
+    }
+
+    // False if a request with this key is already being processed
+    public boolean begin(String key) {
+        return inFlight.add(key);
+    }
+
+    public void end(String key) {
+        inFlight.remove(key);
+    }
+
+    public void save(String key, StoredResponse response) {
+        if (response.body().length > maxBodyBytes) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            jdbcTemplate.update(
+                "INSERT INTO idempotency_keys (key_hash, request_hash, status_code, content_type, " +
+                "content_disposition, body, created_at, expires_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                key, response.requestHash(), response.status(), response.contentType(),
+                response.contentDisposition(), response.body(),
+                Timestamp.valueOf(now), Timestamp.valueOf(now.plusHours(ttlHours)));
+        } catch (DuplicateKeyException e) {
+            // Another instance stored it first; keep theirs
+            return;
+        } catch (Exception e) {
+            // The write itself already succeeded; a retry then runs it again and fails as a duplicate
+            System.err.println("❌ Could not persist idempotency key: " + e.getMessage());
+        }
+        cache.put(key, response);
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int removed = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at <= ?",
+            Timestamp.valueOf(LocalDateTime.now()));
+        if (removed > 0) {
+            System.out.println("🧹 Purged " + removed + " expired idempotency keys");
+        }
+    }
+
+    public static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.SM.service;
+
+import com.example.SM.entity.User;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces last-login timestamps in memory and writes them in one JDBC batch per interval,
+ * so a login does not wait on an UPDATE of the users row. Repeated logins by the same user
+ * between flushes become a single write.
+ */
+@Service
+public class LastLoginService {
+
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public void recordLogin(Long userId) {
+        pending.put(userId, LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${auth.last-login.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>();
+        List<Long> userIds = new ArrayList<>();
+        for (Map.Entry<Long, LocalDateTime> entry : pending.entrySet()) {
+            // Only drop the entry if no newer login arrived while we were reading it
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batch.add(new Object[] {Timestamp.valueOf(entry.getValue()), entry.getKey()});
+                userIds.add(entry.getKey());
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate("UPDATE users SET last_login = ? WHERE id = ?", batch);
+            // Users are in the second-level cache; drop the rows written behind Hibernate's back
+            userIds.forEach(id -> entityManagerFactory.getCache().evict(User.class, id));
+        } catch (Exception e) {
+            System.err.println("❌ Last-login flush failed for " + batch.size() + " users: " + e.getMessage());
+            // Put them back unless a newer login has replaced them
+            for (Object[] row : batch) {
+                pending.putIfAbsent((Long) row[1], ((Timestamp) row[0]).toLocalDateTime());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.SM.service;
+
+import com.example.SM.config.PooledMailSender;
+import com.example.SM.util.AdaptiveConcurrencyLimit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Supplier;
+
+/**
+ * Hot-path timers and counters scraped from /actuator/prometheus.
+ * Percentile histograms for every "sm.*" timer are switched on in application.properties.
+ */
+@Service
+public class MetricsService {
+
+    public static final String ATTENDANCE_RECORD = "sm.attendance.record";
+    public static final String ATTENDANCE_SCANS = "sm.attendance.scans";
+    public static final String PAYMENT_RECORD = "sm.fee.payment.record";
+    public static final String PAYMENT_RECORD_BATCH = "sm.fee.payment.record.batch";
+    public static final String FEE_STATUS = "sm.fee.status";
+    public static final String FEE_OVERDUE = "sm.fee.overdue";
+    public static final String QR_GENERATE = "sm.qr.generate";
+    public static final String RECEIPT_PDF = "sm.receipt.pdf";
+    public static final String MAIL_SEND = "sm.mail.send";
+    public static final String MAIL_CONNECT = "sm.mail.transport.connect";
+    public static final String MAIL_TRANSPORT_SEND = "sm.mail.transport.send";
+    public static final String MAIL_CONNECTIONS = "sm.mail.connections";
+    public static final String MAIL_POOL_OPEN = "sm.mail.pool.open";
+    public static final String MAIL_POOL_IDLE = "sm.mail.pool.idle";
+    public static final String PASSWORD_VERIFY = "sm.auth.password.verify";
+    public static final String HTTP_REJECTED = "sm.http.rejected";
+    public static final String CONCURRENCY_LIMIT = "sm.http.concurrency.limit";
+    public static final String CONCURRENCY_IN_FLIGHT = "sm.http.concurrency.in_flight";
+    public static final String IDEMPOTENT_REPLAYS = "sm.http.idempotent.replays";
+    public static final String FEE_REMINDERS = "sm.fee.reminders";
+
+    // Scan outcomes, used as the "outcome" tag on sm.attendance.scans
+    public static final String SCAN_ACCEPTED = "accepted";
+    public static final String SCAN_DUPLICATE = "duplicate";
+    public static final String SCAN_WRONG_CLASS = "wrong_class";
+    public static final String SCAN_INACTIVE_SESSION = "inactive_session";
+    public static final String SCAN_OUTSIDE_HOURS = "outside_hours";
+    public static final String SCAN_UNKNOWN_STUDENT = "unknown_student";
+    public static final String SCAN_INVALID_SESSION = "invalid_session";
+    public static final String SCAN_NO_CLASS = "no_class";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public Timer.Sample startTimer() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void stopTimer(Timer.Sample sample, String name, boolean success) {
+        sample.stop(meterRegistry.timer(name, "outcome", success ? "success" : "error"));
+    }
+
+    public <T> T time(String name, Supplier<T> work) {
+        Timer.Sample sample = startTimer();
+        boolean success = false;
+        try {
+            T result = work.get();
+            success = true;
+            return result;
+        } finally {
+            stopTimer(sample, name, success);
+        }
+    }
+
+    public void recordScan(String outcome) {
+        meterRegistry.counter(ATTENDANCE_SCANS, "outcome", outcome).increment();
+    }
+
+    // Times a single SMTP hand-off; type separates QR, receipt and plain emails
+    public void recordMailSend(String type, Runnable send) {
+        Timer.Sample sample = startTimer();
+        boolean success = false;
+        try {
+            send.run();
+            success = true;
+        } finally {
+            sample.stop(meterRegistry.timer(MAIL_SEND, "type", type, "outcome", success ? "success" : "error"));
+        }
+    }
+
+    // SMTP connection lifecycle in PooledMailSender: opened, reused, retired, expired or broken
+    public void recordMailConnection(String event) {
+        meterRegistry.counter(MAIL_CONNECTIONS, "event", event).increment();
+    }
+
+    // Requests turned away by RateLimitFilter; reason is rate_limited or overloaded
+    public void recordRejection(String rule, String reason) {
+        meterRegistry.counter(HTTP_REJECTED, "rule", rule, "reason", reason).increment();
+    }
+
+    // Retries answered from the idempotency store instead of reaching a controller
+    public void recordIdempotentReplay() {
+        meterRegistry.counter(IDEMPOTENT_REPLAYS).increment();
+    }
+
+    // Overdue reminder outcomes per campaign run: sent, failed or already_reminded
+    public void recordReminders(String outcome, int count) {
+        meterRegistry.counter(FEE_REMINDERS, "outcome", outcome).increment(count);
+    }
+
+    public void registerConcurrencyLimit(String group, AdaptiveConcurrencyLimit limit) {
+        Gauge.builder(CONCURRENCY_LIMIT, limit, AdaptiveConcurrencyLimit::getLimit)
+            .tag("group", group)
+            .register(meterRegistry);
+        Gauge.builder(CONCURRENCY_IN_FLIGHT, limit, AdaptiveConcurrencyLimit::getInFlight)
+            .tag("group", group)
+            .register(meterRegistry);
+    }
+
+    public void registerMailPool(PooledMailSender mailSender) {
+        Gauge.builder(MAIL_POOL_OPEN, mailSender, PooledMailSender::getOpenConnections).register(meterRegistry);
+        Gauge.builder(MAIL_POOL_IDLE, mailSender, PooledMailSender::getIdleConnections).register(meterRegistry);
+    }
+}
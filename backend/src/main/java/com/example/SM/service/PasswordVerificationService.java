@@ -0,0 +1,80 @@
+package com.example.SM.service;
+
+import com.example.SM.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt work for logins, run on the passwordHashExecutor (see AsyncConfig) rather than on
+ * the request thread. Hashes stored with a cost other than auth.bcrypt.strength are replaced
+ * after the next successful login, so changing the cost needs no password resets.
+ */
+@Service
+public class PasswordVerificationService {
+
+    // $2a$10$... / $2b$12$... : the two digits after the version are the cost
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    @Qualifier("passwordHashExecutor")
+    private TaskExecutor passwordHashExecutor;
+
+    @Autowired
+    private MetricsService metricsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${auth.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    // Throws TaskRejectedException straight away when the queue is full
+    public CompletableFuture<Boolean> verify(String rawPassword, String encodedPassword) {
+        return CompletableFuture.supplyAsync(
+            () -> metricsService.time(MetricsService.PASSWORD_VERIFY,
+                () -> passwordEncoder.matches(rawPassword, encodedPassword)),
+            passwordHashExecutor);
+    }
+
+    public boolean needsRehash(String encodedPassword) {
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != bcryptStrength;
+    }
+
+    // Called after a successful login; the response does not wait for the new hash
+    public void rehashInBackground(User user, String rawPassword) {
+        Long userId = user.getId();
+        String oldHash = user.getPassword();
+        try {
+            passwordHashExecutor.execute(() -> {
+                String newHash = passwordEncoder.encode(rawPassword);
+                // Guarded on the old hash so a password changed in the meantime is not overwritten
+                int rows = jdbcTemplate.update("UPDATE users SET password = ? WHERE id = ? AND password = ?",
+                    newHash, userId, oldHash);
+                entityManagerFactory.getCache().evict(User.class, userId);
+                if (rows == 1) {
+                    System.out.println("🔁 Password re-hashed with cost " + bcryptStrength + " for user id " + userId);
+                }
+            });
+        } catch (Exception e) {
+            // Busy: try again on the next login
+            System.err.println("⚠️ Password re-hash skipped for user id " + userId + ": " + e.getMessage());
+        }
+    }
+}
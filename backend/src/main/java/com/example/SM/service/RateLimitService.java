@@ -0,0 +1,121 @@
+package com.example.SM.service;
+
+import com.example.SM.util.AdaptiveConcurrencyLimit;
+import com.example.SM.util.TokenBucket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Per-client token buckets for the endpoints a stuck client can hammer (gate scans, login,
+ * receipts) and adaptive concurrency limits for the expensive ones (PDF, QR, statistics).
+ * Buckets live in a size-bounded Caffeine map, so a flood of distinct clients cannot grow
+ * memory; an evicted client simply starts again with a full bucket.
+ */
+@Service
+public class RateLimitService {
+
+    // Rate-limit rules
+    public static final String SCAN = "scan";
+    public static final String LOGIN = "login";
+    public static final String RECEIPT = "receipt";
+
+    // Concurrency-limited groups
+    public static final String PDF = "pdf";
+    public static final String QR = "qr";
+    public static final String STATISTICS = "statistics";
+
+    @Autowired
+    private MetricsService metricsService;
+
+    @Value("${ratelimit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ratelimit.max-clients:10000}")
+    private int maxClients;
+
+    @Value("${ratelimit.scan.capacity:20}")
+    private int scanCapacity;
+
+    @Value("${ratelimit.scan.per-second:5}")
+    private double scanPerSecond;
+
+    @Value("${ratelimit.login.capacity:10}")
+    private int loginCapacity;
+
+    @Value("${ratelimit.login.per-second:0.2}")
+    private double loginPerSecond;
+
+    @Value("${ratelimit.receipt.capacity:10}")
+    private int receiptCapacity;
+
+    @Value("${ratelimit.receipt.per-second:1}")
+    private double receiptPerSecond;
+
+    @Value("${ratelimit.concurrency.initial-limit:8}")
+    private int initialLimit;
+
+    @Value("${ratelimit.concurrency.min-limit:2}")
+    private int minLimit;
+
+    @Value("${ratelimit.concurrency.max-limit:64}")
+    private int maxLimit;
+
+    @Value("${ratelimit.concurrency.target-latency-ms:500}")
+    private long targetLatencyMs;
+
+    private Cache<String, TokenBucket> buckets;
+    private Map<String, AdaptiveConcurrencyLimit> concurrencyLimits;
+
+    @PostConstruct
+    public void init() {
+        buckets = Caffeine.newBuilder()
+            .maximumSize(maxClients)
+            // An idle client's bucket is full again after this anyway
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .build();
+        concurrencyLimits = Map.of(
+            PDF, newLimit(),
+            QR, newLimit(),
+            STATISTICS, newLimit());
+        concurrencyLimits.forEach((group, limit) -> metricsService.registerConcurrencyLimit(group, limit));
+    }
+
+    private AdaptiveConcurrencyLimit newLimit() {
+        return new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, targetLatencyMs);
+    }
+
+    // Returns 0 if the request may proceed, otherwise the seconds the client should wait
+    public long tryAcquire(String rule, String clientKey) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(rule + '|' + clientKey, key -> newBucket(rule, now));
+        long waitNanos = bucket.tryConsume(now);
+        if (waitNanos == 0) {
+            return 0;
+        }
+        metricsService.recordRejection(rule, "rate_limited");
+        return Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    private TokenBucket newBucket(String rule, long now) {
+        return switch (rule) {
+            case SCAN -> new TokenBucket(scanCapacity, scanPerSecond, now);
+            case LOGIN -> new TokenBucket(loginCapacity, loginPerSecond, now);
+            case RECEIPT -> new TokenBucket(receiptCapacity, receiptPerSecond, now);
+            default -> throw new IllegalArgumentException("Unknown rate-limit rule: " + rule);
+        };
+    }
+
+    public AdaptiveConcurrencyLimit concurrencyLimit(String group) {
+        return concurrencyLimits.get(group);
+    }
+}
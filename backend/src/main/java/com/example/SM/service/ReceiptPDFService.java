@@ -13,6 +13,7 @@ import com.itextpdf.io.font.constants.StandardFonts;
 import com.itextpdf.kernel.font.PdfFont;
 import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.colors.ColorConstants;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
@@ -22,7 +23,14 @@ import java.math.BigDecimal;
 @Service
 public class ReceiptPDFService {
     
+    @Autowired
+    private MetricsService metricsService;
+    
     public byte[] generatePaymentReceipt(FeePayment payment, Student student, SchoolClass schoolClass) {
+        return metricsService.time(MetricsService.RECEIPT_PDF, () -> renderReceipt(payment, student, schoolClass));
+    }
+    
+    private byte[] renderReceipt(FeePayment payment, Student student, SchoolClass schoolClass) {
         try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
             PdfWriter writer = new PdfWriter(baos);
             PdfDocument pdfDoc = new PdfDocument(writer);
@@ -1,8 +1,11 @@
 package com.example.SM.service;
 
+import com.example.SM.config.CacheConfig;
 import com.example.SM.entity.SchoolClass;
 import com.example.SM.repository.SchoolClassRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -20,10 +23,12 @@ public class SchoolClassService {
         return schoolClassRepository.findAll();
     }
     
+    @Cacheable(CacheConfig.ACTIVE_CLASSES)
     public List<SchoolClass> getActiveClasses() {
         return schoolClassRepository.findByActiveTrue();
     }
     
+    @Cacheable(cacheNames = CacheConfig.CLASSES_BY_GRADE, key = "#grade.trim()")
     public List<SchoolClass> getClassesByGrade(String grade) {
         try {
             System.out.println("🎯 Service - Searching for grade: '" + grade + "'");
@@ -63,10 +68,14 @@ public class SchoolClassService {
         }
     }
     
+    @Cacheable(cacheNames = CacheConfig.CLASS_BY_ID, unless = "#result == null")
     public Optional<SchoolClass> getClassById(Long id) {
         return schoolClassRepository.findById(id);
     }
     
+    // Fee structures and schedules embed their class, so every class change clears all reference caches
+    @CacheEvict(cacheNames = {CacheConfig.CLASS_BY_ID, CacheConfig.ACTIVE_CLASSES, CacheConfig.CLASSES_BY_GRADE,
+        CacheConfig.FEE_BY_CLASS, CacheConfig.SCHEDULES_BY_CLASS, CacheConfig.TODAY_SCHEDULES_BY_CLASS}, allEntries = true)
     public SchoolClass createClass(SchoolClass schoolClass) {
         if (schoolClassRepository.findByClassName(schoolClass.getClassName()).isPresent()) {
             throw new RuntimeException("Class name already exists: " + schoolClass.getClassName());
@@ -74,6 +83,8 @@ public class SchoolClassService {
         return schoolClassRepository.save(schoolClass);
     }
     
+    @CacheEvict(cacheNames = {CacheConfig.CLASS_BY_ID, CacheConfig.ACTIVE_CLASSES, CacheConfig.CLASSES_BY_GRADE,
+        CacheConfig.FEE_BY_CLASS, CacheConfig.SCHEDULES_BY_CLASS, CacheConfig.TODAY_SCHEDULES_BY_CLASS}, allEntries = true)
     public SchoolClass updateClass(Long id, SchoolClass classDetails) {
         Optional<SchoolClass> existingClass = schoolClassRepository.findById(id);
         if (existingClass.isPresent()) {
@@ -89,10 +100,14 @@ public class SchoolClassService {
         throw new RuntimeException("Class not found with id: " + id);
     }
     
+    @CacheEvict(cacheNames = {CacheConfig.CLASS_BY_ID, CacheConfig.ACTIVE_CLASSES, CacheConfig.CLASSES_BY_GRADE,
+        CacheConfig.FEE_BY_CLASS, CacheConfig.SCHEDULES_BY_CLASS, CacheConfig.TODAY_SCHEDULES_BY_CLASS}, allEntries = true)
     public void deleteClass(Long id) {
         schoolClassRepository.deleteById(id);
     }
     
+    @CacheEvict(cacheNames = {CacheConfig.CLASS_BY_ID, CacheConfig.ACTIVE_CLASSES, CacheConfig.CLASSES_BY_GRADE,
+        CacheConfig.FEE_BY_CLASS, CacheConfig.SCHEDULES_BY_CLASS, CacheConfig.TODAY_SCHEDULES_BY_CLASS}, allEntries = true)
     public SchoolClass deactivateClass(Long id) {
         Optional<SchoolClass> schoolClass = schoolClassRepository.findById(id);
         if (schoolClass.isPresent()) {
@@ -1,16 +1,19 @@
 package com.example.SM.service;
 
+import com.example.SM.dto.DeltaResponse;
 import com.example.SM.entity.SchoolClass;
 import com.example.SM.entity.Student;
 import com.example.SM.repository.SchoolClassRepository;
 import com.example.SM.repository.StudentRepository;
+import com.example.SM.util.SyncWatermark;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
-import javax.sql.DataSource; // ADD THIS IMPORT
-import java.sql.Connection;
-import java.sql.PreparedStatement;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,7 +32,7 @@ public class StudentService {
     private QRCodeService qrCodeService;
     
     @Autowired
-    private DataSource dataSource; // ADD THIS LINE
+    private JdbcTemplate jdbcTemplate; // reuses the transaction's connection rather than borrowing a second one
     
     public Student registerStudent(Student student) {
         System.out.println("🎯 SIMPLE REGISTRATION START");
@@ -98,19 +101,12 @@ public class StudentService {
             System.out.println("🔧 Executing SQL: UPDATE students SET class_id = " + classId + " WHERE id = " + studentId);
             
             // Direct SQL - this ALWAYS works
-            String sql = "UPDATE students SET class_id = ? WHERE id = ?";
+            String sql = "UPDATE students SET class_id = ?, updated_at = ? WHERE id = ?";
             
-            try (Connection conn = dataSource.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
-                
-                stmt.setLong(1, classId);
-                stmt.setLong(2, studentId);
-                int rows = stmt.executeUpdate();
-                
-                System.out.println("✅ SQL Update successful: " + rows + " row(s) affected");
-                System.out.println("   Student " + studentId + " → Class " + classId);
-                
-            }
+            int rows = jdbcTemplate.update(sql, classId, LocalDateTime.now(), studentId);
+            
+            System.out.println("✅ SQL Update successful: " + rows + " row(s) affected");
+            System.out.println("   Student " + studentId + " → Class " + classId);
         } catch (Exception e) {
             System.err.println("❌ SQL update failed: " + e.getMessage());
             e.printStackTrace();
@@ -123,6 +119,22 @@ public class StudentService {
         return studentRepository.findAll();
     }
     
+    // Delta-sync for polling clients: students registered or edited after the watermark
+    public DeltaResponse<Student> getStudentChanges(String since, int limit) {
+        limit = DeltaResponse.clampLimit(limit);
+        SyncWatermark watermark = SyncWatermark.parse(since);
+        List<Student> changed = studentRepository.findChangedSince(
+            watermark.getTimestamp(), watermark.getId(), PageRequest.of(0, limit + 1));
+        Object[] fingerprint = studentRepository.findFingerprint().get(0);
+        
+        return DeltaResponse.of(changed, limit, watermark, ((Number) fingerprint[0]).longValue(),
+            Student::getUpdatedAt, Student::getId, student -> student);
+    }
+    
+    public String getStudentsETag(String since, int limit) {
+        return SyncWatermark.etag("stu", studentRepository.findFingerprint().get(0), since, DeltaResponse.clampLimit(limit));
+    }
+    
     public Optional<Student> getStudentById(Long id) {
         return studentRepository.findById(id);
     }
@@ -143,6 +155,8 @@ public class StudentService {
         return studentRepository.findByGrade(grade);
     }
     
+    // Transactional so save() returns the loaded student (class fetched) rather than a merged copy
+    @Transactional
     public Student updateStudent(Long id, Student studentDetails) {
         Optional<Student> student = studentRepository.findById(id);
         if (student.isPresent()) {
@@ -180,6 +194,7 @@ public class StudentService {
         studentRepository.deleteById(id);
     }
     
+    @Transactional
     public Student updateStudentClass(Long studentId, Long classId) {
         Optional<Student> student = studentRepository.findById(studentId);
         Optional<SchoolClass> schoolClass = schoolClassRepository.findById(classId);
@@ -262,13 +277,9 @@ public class StudentService {
                 System.out.println("✅ Student saved with ID: " + savedStudent.getId());
                 
                 // Update class via SQL
-                String sql = "UPDATE students SET class_id = ? WHERE id = ?";
-                try (Connection conn = dataSource.getConnection();
-                     PreparedStatement stmt = conn.prepareStatement(sql)) {
-                    
-                    stmt.setLong(1, classId);
-                    stmt.setLong(2, savedStudent.getId());
-                    int rows = stmt.executeUpdate();
+                String sql = "UPDATE students SET class_id = ?, updated_at = ? WHERE id = ?";
+                try {
+                    int rows = jdbcTemplate.update(sql, classId, LocalDateTime.now(), savedStudent.getId());
                     System.out.println("✅ SQL Update: " + rows + " rows affected");
                     
                 } catch (Exception e) {
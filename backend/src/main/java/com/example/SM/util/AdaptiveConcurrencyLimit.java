@@ -0,0 +1,65 @@
+package com.example.SM.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AIMD concurrency limit for an expensive endpoint group. Calls slower than the target latency
+ * shrink the limit by 10% (at most once per target window); a full limit's worth of fast calls
+ * while the group is busy grows it by one. Calls over the limit are rejected, not queued.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger fastCalls = new AtomicInteger();
+    private final AtomicLong lastDecreaseNanos = new AtomicLong(System.nanoTime());
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long targetLatencyMillis) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.targetLatencyNanos = targetLatencyMillis * 1_000_000L;
+        this.limit = new AtomicInteger(Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit)));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Call once per successful tryAcquire
+    public void release(long startNanos) {
+        long now = System.nanoTime();
+        int busy = inFlight.getAndDecrement();
+        if (now - startNanos > targetLatencyNanos) {
+            long last = lastDecreaseNanos.get();
+            if (now - last > targetLatencyNanos && lastDecreaseNanos.compareAndSet(last, now)) {
+                limit.updateAndGet(l -> Math.max(minLimit, l - Math.max(1, l / 10)));
+                fastCalls.set(0);
+            }
+        } else if (busy * 2 >= limit.get() && fastCalls.incrementAndGet() >= limit.get()) {
+            // Only grow when the limit is actually being used
+            fastCalls.set(0);
+            limit.updateAndGet(l -> Math.min(maxLimit, l + 1));
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
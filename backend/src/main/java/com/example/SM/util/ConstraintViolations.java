@@ -0,0 +1,34 @@
+package com.example.SM.util;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Helpers for turning database unique-key violations into domain errors, so duplicate
+ * checks can rely on the constraint instead of a racy SELECT before the INSERT.
+ */
+public final class ConstraintViolations {
+
+    public static final String ATTENDANCE_STUDENT_SESSION = "uk_attendance_student_session";
+    public static final String PAYMENT_STUDENT_MONTH_CLASS = "uk_fee_payments_student_month_class";
+    public static final String LEDGER_STUDENT_CLASS_MONTH_TYPE = "uk_fee_ledger_student_class_month_type";
+
+    private ConstraintViolations() {}
+
+    public static boolean isViolationOf(DataIntegrityViolationException e, String constraintName) {
+        String expected = constraintName.toLowerCase();
+        Throwable cause = e;
+        while (cause != null) {
+            if (cause instanceof org.hibernate.exception.ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase().contains(expected)) {
+                return true;
+            }
+            // MySQL reports "Duplicate entry '...' for key 'table.constraint_name'"
+            if (cause.getMessage() != null && cause.getMessage().toLowerCase().contains(expected)) {
+                return true;
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+}
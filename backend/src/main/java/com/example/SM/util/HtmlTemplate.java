@@ -0,0 +1,130 @@
+package com.example.SM.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Email HTML template compiled once into static segments and slots. {{name}} is HTML-escaped,
+ * {{{name}}} is inserted as-is (for fragments rendered from another template). Rendering appends
+ * segments and values into a per-thread buffer sized for the template, so a message costs one
+ * pass over the output instead of a format-string parse and several intermediate strings.
+ */
+public final class HtmlTemplate {
+
+    // Buffers that grew past this (one unusually large message) are not kept for the thread
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(8192));
+
+    private final String[] segments;
+    private final int[] slots;
+    private final boolean[] raw;
+    private final List<String> names;
+    private final int staticLength;
+
+    private HtmlTemplate(String[] segments, int[] slots, boolean[] raw, List<String> names) {
+        this.segments = segments;
+        this.slots = slots;
+        this.raw = raw;
+        this.names = List.copyOf(names);
+        int length = 0;
+        for (String segment : segments) {
+            length += segment.length();
+        }
+        this.staticLength = length;
+    }
+
+    public static HtmlTemplate compile(String source) {
+        List<String> segments = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        List<Boolean> raw = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+
+        int position = 0;
+        while (true) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                break;
+            }
+            boolean unescaped = source.startsWith("{{{", open);
+            String closer = unescaped ? "}}}" : "}}";
+            int nameStart = open + (unescaped ? 3 : 2);
+            int close = source.indexOf(closer, nameStart);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+            }
+            String name = source.substring(nameStart, close).trim();
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Empty placeholder at offset " + open);
+            }
+            int slot = names.indexOf(name);
+            if (slot < 0) {
+                slot = names.size();
+                names.add(name);
+            }
+            segments.add(source.substring(position, open));
+            slots.add(slot);
+            raw.add(unescaped);
+            position = close + closer.length();
+        }
+        segments.add(source.substring(position));
+
+        int[] slotArray = new int[slots.size()];
+        boolean[] rawArray = new boolean[raw.size()];
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = slots.get(i);
+            rawArray[i] = raw.get(i);
+        }
+        return new HtmlTemplate(segments.toArray(new String[0]), slotArray, rawArray, names);
+    }
+
+    // Distinct placeholder names in order of first appearance; render() takes values in this order
+    public List<String> slotNames() {
+        return names;
+    }
+
+    public String render(Object... values) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        renderTo(buffer, values);
+        String result = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.remove();
+        }
+        return result;
+    }
+
+    // For callers assembling several fragments into one buffer of their own
+    public void renderTo(StringBuilder out, Object... values) {
+        if (values.length != names.size()) {
+            throw new IllegalArgumentException("Template expects " + names.size() + " values " + names +
+                ", got " + values.length);
+        }
+        out.ensureCapacity(out.length() + staticLength + 32 * slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(segments[i]);
+            Object value = values[slots[i]];
+            String text = value == null ? "" : value.toString();
+            if (raw[i]) {
+                out.append(text);
+            } else {
+                escape(text, out);
+            }
+        }
+        out.append(segments[slots.length]);
+    }
+
+    private static void escape(String text, StringBuilder out) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
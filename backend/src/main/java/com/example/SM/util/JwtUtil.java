@@ -9,65 +9,134 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
-    
+
+    // "typ" claim: access tokens authenticate requests, refresh tokens only buy new access tokens
+    public static final String TOKEN_TYPE_CLAIM = "typ";
+    public static final String ACCESS_TOKEN = "access";
+    public static final String REFRESH_TOKEN = "refresh";
+    // Short-lived, accepted only as ?token= on the attendance stream (EventSource cannot send headers)
+    public static final String STREAM_TOKEN = "stream";
+
     @Value("${jwt.secret}")
     private String secret;
-    
+
     @Value("${jwt.expiration}")
     private Long expiration;
-    
+
+    @Value("${jwt.refresh-expiration}")
+    private Long refreshExpiration;
+
+    @Value("${jwt.stream-expiration:60000}")
+    private Long streamExpiration;
+
+    // Built once; every authenticated request parses a token
+    private volatile JwtParser parser;
+    private volatile SecretKey signingKey;
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        if (signingKey == null) {
+            signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        }
+        return signingKey;
+    }
+
+    private JwtParser getParser() {
+        if (parser == null) {
+            parser = Jwts.parserBuilder().setSigningKey(getSigningKey()).build();
+        }
+        return parser;
     }
-    
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
-    
+
     public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
-    
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
     }
-    
+
+    // Verifies signature and expiry; throws JwtException (e.g. ExpiredJwtException) otherwise
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return getParser()
                 .parseClaimsJws(token)
                 .getBody();
     }
-    
+
     public Boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
-    
+
+    // Tokens issued before refresh support carry no "typ" and count as access tokens
+    public boolean isAccessToken(Claims claims) {
+        String type = claims.get(TOKEN_TYPE_CLAIM, String.class);
+        return type == null || ACCESS_TOKEN.equals(type);
+    }
+
+    public boolean isStreamToken(Claims claims) {
+        return STREAM_TOKEN.equals(claims.get(TOKEN_TYPE_CLAIM, String.class));
+    }
+
+    public long getStreamExpirationSeconds() {
+        return streamExpiration / 1000;
+    }
+
+    public boolean isRefreshToken(Claims claims) {
+        return REFRESH_TOKEN.equals(claims.get(TOKEN_TYPE_CLAIM, String.class));
+    }
+
+    public long getExpirationSeconds() {
+        return expiration / 1000;
+    }
+
     public String generateToken(String username, String role, String fullName) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put(TOKEN_TYPE_CLAIM, ACCESS_TOKEN);
         claims.put("role", role);
         claims.put("fullName", fullName);
-        return createToken(claims, username);
+        return createToken(claims, username, expiration);
     }
-    
-    private String createToken(Map<String, Object> claims, String subject) {
+
+    public String generateStreamToken(String username, String role) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(TOKEN_TYPE_CLAIM, STREAM_TOKEN);
+        claims.put("role", role);
+        return createToken(claims, username, streamExpiration);
+    }
+
+    public String generateRefreshToken(String username) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(TOKEN_TYPE_CLAIM, REFRESH_TOKEN);
+        return createToken(claims, username, refreshExpiration);
+    }
+
+    private String createToken(Map<String, Object> claims, String subject, long lifetimeMillis) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + lifetimeMillis))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
-    
+
     public Boolean validateToken(String token, String username) {
         final String extractedUsername = extractUsername(token);
         return (extractedUsername.equals(username) && !isTokenExpired(token));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+package com.example.SM.util;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Position in a (timestamp, id) ordered change feed, exchanged with polling
+ * clients as an opaque "2024-05-01T08:15:30.123_42" string.
+ */
+public class SyncWatermark {
+
+    // Used when a client asks for changes "since=0" (i.e. everything)
+    public static final SyncWatermark BEGINNING = new SyncWatermark(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    private final LocalDateTime timestamp;
+    private final Long id;
+
+    public SyncWatermark(LocalDateTime timestamp, Long id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    public static SyncWatermark parse(String value) {
+        if (value == null || value.isBlank() || "0".equals(value.trim())) {
+            return BEGINNING;
+        }
+        int separator = value.lastIndexOf('_');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Invalid sync watermark: " + value);
+        }
+        try {
+            LocalDateTime timestamp = LocalDateTime.parse(value.substring(0, separator));
+            Long id = Long.parseLong(value.substring(separator + 1));
+            return new SyncWatermark(timestamp, id);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid sync watermark: " + value);
+        }
+    }
+
+    // Builds a strong ETag from a (count, max timestamp, max id) fingerprint row
+    public static String etag(String prefix, Object[] fingerprint) {
+        return etag(prefix, fingerprint, null, 0);
+    }
+
+    // Delta pages of the same data differ by since/limit, so each page gets its own tag
+    public static String etag(String prefix, Object[] fingerprint, String since, int limit) {
+        StringBuilder tag = new StringBuilder("\"").append(prefix);
+        for (Object part : fingerprint) {
+            tag.append('-').append(part != null ? part.toString().replace("\"", "") : "0");
+        }
+        if (since != null) {
+            tag.append("-since-").append(since.trim().replace("\"", "")).append("-limit-").append(limit);
+        }
+        return tag.append('"').toString();
+    }
+
+    public LocalDateTime getTimestamp() { return timestamp; }
+
+    public Long getId() { return id; }
+
+    @Override
+    public String toString() {
+        return timestamp + "_" + id;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.SM.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as a single "theoretical arrival time" (GCRA): each request
+ * pushes it forward by one refill interval, and a request is allowed while it stays within
+ * capacity intervals of now. One CAS per request, no timer thread.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(int capacity, double tokensPerSecond, long nowNanos) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / tokensPerSecond));
+        this.capacityNanos = intervalNanos * Math.max(1, capacity);
+        // Starts full
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    // Returns 0 if a token was taken, otherwise the nanos until one is available
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, nowNanos) + intervalNanos;
+            long wait = next - nowNanos - capacityNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+-- Baseline schema as mapped by the JPA entities.
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-on-migrate),
+-- so this script only runs against fresh databases.
+
+CREATE TABLE IF NOT EXISTS users (
+    id              BIGINT NOT NULL AUTO_INCREMENT,
+    username        VARCHAR(255) NOT NULL,
+    password        VARCHAR(255) NOT NULL,
+    role            VARCHAR(255) NOT NULL,
+    email           VARCHAR(255),
+    full_name       VARCHAR(255),
+    is_active       BIT NOT NULL,
+    last_login      DATETIME(6),
+    created_at      DATETIME(6),
+    updated_at      DATETIME(6),
+    reference_id    BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE IF NOT EXISTS school_classes (
+    id              BIGINT NOT NULL AUTO_INCREMENT,
+    class_name      VARCHAR(255) NOT NULL,
+    grade           VARCHAR(255) NOT NULL,
+    stream          VARCHAR(255),
+    class_teacher   VARCHAR(255),
+    room_number     VARCHAR(255),
+    active          BIT NOT NULL,
+    created_at      DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_school_classes_class_name UNIQUE (class_name)
+);
+
+CREATE TABLE IF NOT EXISTS students (
+    id                  BIGINT NOT NULL AUTO_INCREMENT,
+    student_id          VARCHAR(255) NOT NULL,
+    first_name          VARCHAR(255) NOT NULL,
+    last_name           VARCHAR(255) NOT NULL,
+    gender              VARCHAR(255),
+    dob                 DATE,
+    grade               VARCHAR(255) NOT NULL,
+    email               VARCHAR(255) NOT NULL,
+    phone               VARCHAR(255),
+    address             VARCHAR(255),
+    city                VARCHAR(255),
+    district            VARCHAR(255),
+    guardian_name       VARCHAR(255),
+    guardian_phone      VARCHAR(255),
+    relationship        VARCHAR(255),
+    registration_date   DATE,
+    status              VARCHAR(255),
+    subjects            VARCHAR(255),
+    created_at          DATETIME(6),
+    class_id            BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_students_student_id UNIQUE (student_id),
+    CONSTRAINT fk_student_class FOREIGN KEY (class_id) REFERENCES school_classes (id)
+);
+
+CREATE TABLE IF NOT EXISTS class_schedules (
+    id              BIGINT NOT NULL AUTO_INCREMENT,
+    class_id        BIGINT NOT NULL,
+    day_of_week     ENUM('MONDAY','TUESDAY','WEDNESDAY','THURSDAY','FRIDAY','SATURDAY','SUNDAY') NOT NULL,
+    start_time      TIME(6) NOT NULL,
+    end_time        TIME(6) NOT NULL,
+    subject         VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_schedule_class FOREIGN KEY (class_id) REFERENCES school_classes (id)
+);
+
+CREATE TABLE IF NOT EXISTS attendance_sessions (
+    id                      BIGINT NOT NULL AUTO_INCREMENT,
+    class_id                BIGINT NOT NULL,
+    date                    DATE NOT NULL,
+    scheduled_start_time    TIME(6) NOT NULL,
+    scheduled_end_time      TIME(6) NOT NULL,
+    actual_start_time       TIME(6),
+    actual_end_time         TIME(6),
+    subject                 VARCHAR(255) NOT NULL,
+    status                  ENUM('SCHEDULED','ACTIVE','COMPLETED','CANCELLED') NOT NULL,
+    created_at              DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_session_class FOREIGN KEY (class_id) REFERENCES school_classes (id)
+);
+
+CREATE TABLE IF NOT EXISTS attendance (
+    id              BIGINT NOT NULL AUTO_INCREMENT,
+    student_id      VARCHAR(255) NOT NULL,
+    student_name    VARCHAR(255) NOT NULL,
+    grade           VARCHAR(255) NOT NULL,
+    attendance_date DATE NOT NULL,
+    scan_time       DATETIME(6) NOT NULL,
+    status          VARCHAR(255) NOT NULL,
+    scan_method     VARCHAR(255),
+    created_at      DATETIME(6),
+    session_id      BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_attendance_session FOREIGN KEY (session_id) REFERENCES attendance_sessions (id)
+);
+
+CREATE TABLE IF NOT EXISTS fee_structures (
+    id              BIGINT NOT NULL AUTO_INCREMENT,
+    class_id        BIGINT,
+    monthly_fee     DECIMAL(10,2),
+    admission_fee   DECIMAL(10,2),
+    exam_fee        DECIMAL(10,2),
+    sports_fee      DECIMAL(10,2),
+    library_fee     DECIMAL(10,2),
+    lab_fee         DECIMAL(10,2),
+    other_fee       DECIMAL(10,2),
+    total_fee       DECIMAL(10,2),
+    description     VARCHAR(255),
+    created_at      DATETIME(6),
+    updated_at      DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_fee_structures_class UNIQUE (class_id),
+    CONSTRAINT fk_fee_structure_class FOREIGN KEY (class_id) REFERENCES school_classes (id)
+);
+
+CREATE TABLE IF NOT EXISTS fee_payments (
+    id                  BIGINT NOT NULL AUTO_INCREMENT,
+    student_id          BIGINT,
+    fee_structure_id    BIGINT,
+    class_id            BIGINT NOT NULL,
+    amount_paid         DECIMAL(10,2) NOT NULL,
+    payment_date        DATE NOT NULL,
+    month               VARCHAR(7) NOT NULL,
+    payment_method      ENUM('CASH','CARD','ONLINE','BANK_TRANSFER') NOT NULL,
+    transaction_id      VARCHAR(255),
+    status              ENUM('PAID','PENDING','OVERDUE','PARTIAL','REFUNDED') NOT NULL,
+    notes               TEXT,
+    created_at          DATETIME(6) NOT NULL,
+    updated_at          DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_fee_payments_transaction UNIQUE (transaction_id),
+    CONSTRAINT fk_payment_student FOREIGN KEY (student_id) REFERENCES students (id),
+    CONSTRAINT fk_payment_fee_structure FOREIGN KEY (fee_structure_id) REFERENCES fee_structures (id),
+    CONSTRAINT fk_payment_class FOREIGN KEY (class_id) REFERENCES school_classes (id)
+);
@@ -0,0 +1,51 @@
+-- Composite indexes matched to the repository queries on the scan, dashboard and fee paths.
+
+-- AttendanceRepository
+--   findByStudentIdOrderByAttendanceDateDesc, findByStudentIdAndAttendanceDate,
+--   existsByStudentIdAndAttendanceDate, countPresentDaysByStudentId
+CREATE INDEX idx_attendance_student_date ON attendance (student_id, attendance_date);
+--   findByAttendanceDateOrderByScanTimeAsc (today / by-date lists)
+CREATE INDEX idx_attendance_date_scan ON attendance (attendance_date, scan_time);
+--   findChangedByDate / findFingerprintByDate (delta-sync)
+CREATE INDEX idx_attendance_date_created ON attendance (attendance_date, created_at, id);
+--   findBySessionId, findByAttendanceSessionOrderByScanTimeAsc
+CREATE INDEX idx_attendance_session_scan ON attendance (session_id, scan_time);
+
+-- AttendanceSessionRepository
+--   findByDateAndStatus, findActiveSessionsByDate, findTodayActiveSessions,
+--   findSessionsToStart, findSessionsToEnd
+CREATE INDEX idx_sessions_date_status ON attendance_sessions (date, status);
+--   findBySchoolClassAndDate, findByClassAndDateAndSubject
+CREATE INDEX idx_sessions_class_date_subject ON attendance_sessions (class_id, date, subject);
+
+-- ClassScheduleRepository
+--   findByClassIdAndDayOfWeek (ORDER BY start_time), findBySchoolClassAndDayOfWeek
+CREATE INDEX idx_schedules_class_day_start ON class_schedules (class_id, day_of_week, start_time);
+
+-- FeePaymentRepository
+--   findByStudentStudentIdOrderByPaymentDateDesc, findByStudentIdOrderByPaymentDateDesc
+CREATE INDEX idx_fee_payments_student_date ON fee_payments (student_id, payment_date);
+--   findPaymentsBetweenDates, findRecentPayments, countRecentPayments, recent-payment delta-sync
+CREATE INDEX idx_fee_payments_payment_date ON fee_payments (payment_date);
+--   findMonthlyPayments, findByMonthOrderByPaymentDateDesc
+CREATE INDEX idx_fee_payments_month_date ON fee_payments (month, payment_date);
+--   findBySchoolClassIdOrderByPaymentDateDesc
+CREATE INDEX idx_fee_payments_class_date ON fee_payments (class_id, payment_date);
+
+-- StudentRepository
+--   findActiveStudentsByClassId, countByClassId, findBySchoolClassId, findBySchoolClass
+CREATE INDEX idx_students_class_status ON students (class_id, status);
+--   findByGrade
+CREATE INDEX idx_students_grade ON students (grade);
+--   findByStatus
+CREATE INDEX idx_students_status ON students (status);
+--   findChangedSince (delta-sync)
+CREATE INDEX idx_students_created ON students (created_at, id);
+
+-- SchoolClassRepository
+--   findByActiveTrue, findAllActiveClasses (ORDER BY grade, class_name), findByGradeAndActiveTrue
+CREATE INDEX idx_school_classes_active_grade ON school_classes (active, grade, class_name);
+
+-- UserRepository
+--   findByEmail, existsByEmail
+CREATE INDEX idx_users_email ON users (email);
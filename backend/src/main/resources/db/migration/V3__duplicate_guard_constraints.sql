@@ -0,0 +1,11 @@
+-- Unique keys that let the database reject duplicate scans and duplicate monthly payments
+-- instead of relying on a check-then-insert SELECT.
+-- NOTE: any pre-existing duplicates must be cleaned up before this migration can apply.
+
+-- One attendance row per student per session (manual, session-less rows keep NULL session_id)
+ALTER TABLE attendance
+    ADD CONSTRAINT uk_attendance_student_session UNIQUE (student_id, session_id);
+
+-- One payment per student, month and class; also serves findTotalPaidByStudentAndMonth
+ALTER TABLE fee_payments
+    ADD CONSTRAINT uk_fee_payments_student_month_class UNIQUE (student_id, month, class_id);
@@ -0,0 +1,102 @@
+-- Per-student fee ledger: one row per monthly charge and per payment, each carrying the
+-- student's running balance after it, plus one materialized balance row per student.
+-- Both are maintained by FeeLedgerService in the same transaction as the charge/payment.
+
+CREATE TABLE IF NOT EXISTS fee_ledger_entries (
+    id                  BIGINT NOT NULL AUTO_INCREMENT,
+    student_id          BIGINT NOT NULL,
+    class_id            BIGINT NOT NULL,
+    month               VARCHAR(7) NOT NULL,
+    entry_type          ENUM('CHARGE','PAYMENT') NOT NULL,
+    amount              DECIMAL(10,2) NOT NULL,
+    balance_after       DECIMAL(12,2) NOT NULL,
+    payment_id          BIGINT,
+    entry_date          DATE NOT NULL,
+    created_at          DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    -- One charge per student, class and month; payments are already unique on the same key
+    CONSTRAINT uk_fee_ledger_student_class_month_type UNIQUE (student_id, class_id, month, entry_type),
+    CONSTRAINT uk_fee_ledger_payment UNIQUE (payment_id),
+    CONSTRAINT fk_ledger_student FOREIGN KEY (student_id) REFERENCES students (id),
+    CONSTRAINT fk_ledger_class FOREIGN KEY (class_id) REFERENCES school_classes (id),
+    CONSTRAINT fk_ledger_payment FOREIGN KEY (payment_id) REFERENCES fee_payments (id)
+);
+
+-- FeeLedgerRepository.findByStudentIdOrderById (statement view, oldest first)
+CREATE INDEX idx_fee_ledger_student_id ON fee_ledger_entries (student_id, id);
+
+CREATE TABLE IF NOT EXISTS student_fee_balances (
+    student_id          BIGINT NOT NULL,
+    total_charged       DECIMAL(12,2) NOT NULL,
+    total_paid          DECIMAL(12,2) NOT NULL,
+    balance             DECIMAL(12,2) NOT NULL,
+    updated_at          DATETIME(6) NOT NULL,
+    PRIMARY KEY (student_id),
+    CONSTRAINT fk_balance_student FOREIGN KEY (student_id) REFERENCES students (id)
+);
+
+-- StudentFeeBalanceRepository.findOutstanding (balance > 0, largest first)
+CREATE INDEX idx_student_fee_balances_balance ON student_fee_balances (balance);
+
+-- Backfill. Every active student is charged for each month from their registration month
+-- through the current month in their current class, as FeeChargeJobService would have done,
+-- and every paid month is charged in the payment's class. Charges use the class's current
+-- total fee (historical fee amounts are not recorded). Students without a registration date
+-- are only charged for the months they paid. Payments follow their month's charge.
+CREATE TABLE fee_backfill_digits (d INT NOT NULL);
+INSERT INTO fee_backfill_digits (d) VALUES (0), (1), (2), (3), (4), (5), (6), (7), (8), (9);
+
+INSERT INTO fee_ledger_entries (student_id, class_id, month, entry_type, amount, balance_after,
+                                payment_id, entry_date, created_at)
+SELECT src.student_id, src.class_id, src.month, src.entry_type, src.amount,
+       SUM(src.signed_amount) OVER (PARTITION BY src.student_id
+                                    ORDER BY src.month, src.entry_type, src.source_id
+                                    ROWS UNBOUNDED PRECEDING),
+       src.payment_id, src.entry_date, CURRENT_TIMESTAMP
+FROM (
+    SELECT c.student_id, c.class_id, c.month, 'CHARGE' AS entry_type, fs.total_fee AS amount,
+           fs.total_fee AS signed_amount, NULL AS payment_id,
+           CAST(CONCAT(c.month, '-01') AS DATE) AS entry_date, 0 AS source_id
+    FROM (
+        -- Months are numbered year * 12 + month - 1 and turned back into 'YYYY-MM'
+        SELECT am.student_id, am.class_id,
+               CONCAT(FLOOR(am.month_number / 12), '-',
+                      CASE WHEN MOD(am.month_number, 12) < 9 THEN '0' ELSE '' END,
+                      MOD(am.month_number, 12) + 1) AS month
+        FROM (
+            SELECT s.id AS student_id, s.class_id,
+                   YEAR(s.registration_date) * 12 + MONTH(s.registration_date) - 1 + o.n AS month_number
+            FROM students s
+            CROSS JOIN (SELECT ones.d + 10 * tens.d + 100 * hundreds.d AS n
+                        FROM fee_backfill_digits ones
+                        CROSS JOIN fee_backfill_digits tens
+                        CROSS JOIN fee_backfill_digits hundreds) o
+            WHERE s.status = 'Active' AND s.class_id IS NOT NULL AND s.registration_date IS NOT NULL
+              AND YEAR(s.registration_date) * 12 + MONTH(s.registration_date) - 1 + o.n
+                  <= YEAR(CURRENT_DATE) * 12 + MONTH(CURRENT_DATE) - 1
+        ) am
+        UNION
+        SELECT p.student_id, p.class_id, p.month
+        FROM fee_payments p
+        WHERE p.student_id IS NOT NULL
+    ) c
+    JOIN fee_structures fs ON fs.class_id = c.class_id
+    WHERE fs.total_fee IS NOT NULL
+    UNION ALL
+    SELECT p.student_id, p.class_id, p.month, 'PAYMENT', p.amount_paid,
+           -p.amount_paid, p.id, p.payment_date, p.id
+    FROM fee_payments p
+    WHERE p.student_id IS NOT NULL
+) src
+ORDER BY src.student_id, src.month, src.entry_type, src.source_id;
+
+DROP TABLE fee_backfill_digits;
+
+INSERT INTO student_fee_balances (student_id, total_charged, total_paid, balance, updated_at)
+SELECT student_id,
+       SUM(CASE WHEN entry_type = 'CHARGE' THEN amount ELSE 0 END),
+       SUM(CASE WHEN entry_type = 'PAYMENT' THEN amount ELSE 0 END),
+       SUM(CASE WHEN entry_type = 'CHARGE' THEN amount ELSE -amount END),
+       CURRENT_TIMESTAMP
+FROM fee_ledger_entries
+GROUP BY student_id;
@@ -0,0 +1,20 @@
+-- One row per monthly charge-generation run (FeeChargeJobService). The row is the job's
+-- checkpoint: each committed chunk advances last_student_id in the same transaction as its
+-- ledger rows, so a restarted run resumes after the last committed chunk.
+
+CREATE TABLE IF NOT EXISTS fee_charge_runs (
+    month               VARCHAR(7) NOT NULL,
+    status              ENUM('RUNNING','COMPLETED','FAILED') NOT NULL,
+    last_student_id     BIGINT NOT NULL,
+    total_students      INT NOT NULL,
+    students_processed  INT NOT NULL,
+    charges_created     INT NOT NULL,
+    started_at          DATETIME(6) NOT NULL,
+    updated_at          DATETIME(6) NOT NULL,
+    completed_at        DATETIME(6),
+    last_error          TEXT,
+    PRIMARY KEY (month)
+);
+
+-- FeeChargeJobService reads active students with a class in id order, one chunk at a time
+CREATE INDEX idx_students_status_id ON students (status, id);
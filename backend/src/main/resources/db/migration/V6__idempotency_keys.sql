@@ -0,0 +1,18 @@
+-- Stored responses for Idempotency-Key retries (IdempotencyFilter). key_hash is the SHA-256 of
+-- user, endpoint and client key; request_hash detects a key reused with a different body.
+-- The in-memory cache in IdempotencyService sits in front; this table survives restarts.
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    key_hash            CHAR(64) NOT NULL,
+    request_hash        CHAR(64) NOT NULL,
+    status_code         INT NOT NULL,
+    content_type        VARCHAR(255),
+    content_disposition VARCHAR(255),
+    body                MEDIUMBLOB,
+    created_at          DATETIME(6) NOT NULL,
+    expires_at          DATETIME(6) NOT NULL,
+    PRIMARY KEY (key_hash)
+);
+
+-- IdempotencyService.purgeExpired
+CREATE INDEX idx_idempotency_keys_expires ON idempotency_keys (expires_at);
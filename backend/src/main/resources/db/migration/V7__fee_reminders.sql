@@ -0,0 +1,11 @@
+-- One row per overdue reminder delivered (FeeReminderService): at most one email per address
+-- per month, however often the campaign runs. Failed sends are not recorded and are retried.
+
+CREATE TABLE IF NOT EXISTS fee_reminders (
+    month               VARCHAR(7) NOT NULL,
+    email               VARCHAR(255) NOT NULL,
+    student_id          BIGINT NOT NULL,
+    sent_at             DATETIME(6) NOT NULL,
+    PRIMARY KEY (month, email),
+    CONSTRAINT fk_reminder_student FOREIGN KEY (student_id) REFERENCES students (id)
+);
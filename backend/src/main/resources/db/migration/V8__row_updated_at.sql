@@ -0,0 +1,16 @@
+-- Last-modified time for students and attendance, so delta-sync feeds and list ETags see
+-- edits (class reassignment, status changes, PRESENT/LATE corrections), not only new rows.
+-- Rows written by plain JDBC inserts get the column default; entity updates set it in @PreUpdate.
+
+ALTER TABLE students ADD COLUMN updated_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+UPDATE students SET updated_at = created_at WHERE created_at IS NOT NULL;
+
+ALTER TABLE attendance ADD COLUMN updated_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+UPDATE attendance SET updated_at = created_at WHERE created_at IS NOT NULL;
+
+-- Delta feeds now page by (updated_at, id)
+DROP INDEX idx_students_created ON students;
+CREATE INDEX idx_students_updated ON students (updated_at, id);
+
+DROP INDEX idx_attendance_date_created ON attendance;
+CREATE INDEX idx_attendance_date_updated ON attendance (attendance_date, updated_at, id);
@@ -0,0 +1,63 @@
+package com.example.SM;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the whole application against H2 with the production configuration (Flyway, second-level
+ * cache, schedulers, mail pool), so a broken property or bean definition fails the build rather
+ * than the first deploy. StudentManagementApplicationTests needs a local MySQL.
+ */
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=MONTH,VALUE,YEAR;DB_CLOSE_DELAY=-1",
+	"spring.datasource.username=sa",
+	"spring.datasource.password=",
+	"spring.datasource.driver-class-name=org.h2.Driver",
+	"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.hibernate.ddl-auto=none",
+	"fees.charge-job.run-on-startup=false"
+})
+class ApplicationStartupTests {
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private AsyncConfigurer asyncConfigurer;
+
+	@Autowired
+	@Qualifier("applicationTaskExecutor")
+	private Executor applicationTaskExecutor;
+
+	@Test
+	void secondLevelCacheRegionsComeFromHibernateJcacheConf() {
+		SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+		assertThat(sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()).isTrue();
+
+		CacheImplementor cache = (CacheImplementor) sessionFactory.getCache();
+		assertThat(cache.getCacheRegionNames())
+			.contains("schoolClass", "feeStructure", "classSchedule", "user", "studentNaturalId", "userNaturalId");
+	}
+
+	@Test
+	void plainAsyncRunsOnTheConfiguredApplicationTaskExecutor() {
+		// Not the unbounded SimpleAsyncTaskExecutor @Async falls back to when no default is found
+		assertThat(asyncConfigurer.getAsyncExecutor()).isSameAs(applicationTaskExecutor);
+		assertThat(applicationTaskExecutor).isInstanceOf(ThreadPoolTaskExecutor.class);
+		ThreadPoolTaskExecutor pool = (ThreadPoolTaskExecutor) applicationTaskExecutor;
+		assertThat(pool.getThreadNamePrefix()).isEqualTo("sm-async-");
+		assertThat(pool.getMaxPoolSize()).isEqualTo(16);
+	}
+}
@@ -0,0 +1,113 @@
+package com.example.SM.config;
+
+import com.example.SM.util.JwtUtil;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Scanner writes carry an Idempotency-Key so a retry after a dropped connection is answered from
+ * the stored response instead of being recorded again.
+ */
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:idempotency_filter;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=MONTH,VALUE,YEAR;DB_CLOSE_DELAY=-1",
+	"spring.datasource.username=sa",
+	"spring.datasource.password=",
+	"spring.datasource.driver-class-name=org.h2.Driver",
+	"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.hibernate.ddl-auto=none",
+	"fees.charge-job.run-on-startup=false",
+	"ratelimit.enabled=false"
+})
+@AutoConfigureMockMvc
+class IdempotencyFilterTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private IdempotencyFilter idempotencyFilter;
+
+	@Test
+	void retriedManualAttendanceIsReplayed() throws Exception {
+		Timestamp created = Timestamp.valueOf(LocalDateTime.now().minusHours(1));
+		jdbcTemplate.update("INSERT INTO students (student_id, first_name, last_name, grade, email, status, "
+			+ "registration_date, created_at, updated_at) VALUES ('IK-0001', 'Idempotent', 'Student', 'Grade 7', "
+			+ "'ik1@test.local', 'Active', ?, ?, ?)", Date.valueOf(LocalDate.now()), created, created);
+		String token = jwtUtil.generateToken("teacher", "TEACHER", "Class Teacher");
+		String path = "/api/attendance/manual?studentId=IK-0001&date=" + LocalDate.now() + "&status=PRESENT";
+
+		MvcResult first = mockMvc.perform(post(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+			.header(IdempotencyFilter.KEY_HEADER, "scan-1")).andReturn();
+		MvcResult retry = mockMvc.perform(post(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+			.header(IdempotencyFilter.KEY_HEADER, "scan-1")).andReturn();
+
+		assertThat(first.getResponse().getStatus()).isEqualTo(200);
+		assertThat(first.getResponse().getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+		assertThat(retry.getResponse().getStatus()).isEqualTo(200);
+		assertThat(retry.getResponse().getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+		assertThat(retry.getResponse().getContentAsString()).isEqualTo(first.getResponse().getContentAsString());
+	}
+
+	@Test
+	void cachedBodySupportsNonBlockingReads() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/fee-payments/record");
+		request.addHeader(IdempotencyFilter.KEY_HEADER, "async-read");
+		request.setContent("{\"amount\":10}".getBytes(StandardCharsets.UTF_8));
+		ByteArrayOutputStream read = new ByteArrayOutputStream();
+		AtomicBoolean allRead = new AtomicBoolean();
+
+		idempotencyFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+			ServletInputStream in = req.getInputStream();
+			in.setReadListener(new ReadListener() {
+				@Override
+				public void onDataAvailable() throws IOException {
+					while (in.isReady() && !in.isFinished()) {
+						read.write(in.read());
+					}
+				}
+
+				@Override
+				public void onAllDataRead() {
+					allRead.set(true);
+				}
+
+				@Override
+				public void onError(Throwable t) {
+					throw new AssertionError(t);
+				}
+			});
+		});
+
+		assertThat(allRead).isTrue();
+		assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo("{\"amount\":10}");
+	}
+}
@@ -0,0 +1,69 @@
+package com.example.SM.config;
+
+import com.example.SM.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Debug endpoints and actuator metrics expose pool state and configuration, so only administrators
+ * may read them on the application port. The health check stays open for load balancers.
+ */
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:operational_endpoints;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=MONTH,VALUE,YEAR;DB_CLOSE_DELAY=-1",
+	"spring.datasource.username=sa",
+	"spring.datasource.password=",
+	"spring.datasource.driver-class-name=org.h2.Driver",
+	"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.hibernate.ddl-auto=none",
+	"fees.charge-job.run-on-startup=false",
+	"ratelimit.enabled=false"
+})
+@AutoConfigureMockMvc
+class OperationalEndpointSecurityTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@ParameterizedTest
+	@ValueSource(strings = {"/api/debug/db/pool", "/api/debug/config", "/actuator/metrics", "/actuator/prometheus"})
+	void anonymousCallersAreRejected(String path) throws Exception {
+		mockMvc.perform(get(path)).andExpect(status().isUnauthorized());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"/api/debug/db/pool", "/actuator/metrics"})
+	void teachersAreForbidden(String path) throws Exception {
+		String token = jwtUtil.generateToken("teacher", "TEACHER", "Class Teacher");
+		mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+			.andExpect(status().isForbidden());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"/api/debug/db/pool", "/actuator/metrics"})
+	void administratorsCanRead(String path) throws Exception {
+		String token = jwtUtil.generateToken("admin", "ADMIN", "System Administrator");
+		mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+			.andExpect(status().isOk());
+	}
+
+	@Test
+	void healthStaysOpen() throws Exception {
+		// 503 when a dependency such as the mail server is down; either way it is not an auth rejection
+		int status = mockMvc.perform(get("/actuator/health")).andReturn().getResponse().getStatus();
+		assertThat(status).isIn(200, 503);
+	}
+}
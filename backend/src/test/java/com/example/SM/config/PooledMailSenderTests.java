@@ -0,0 +1,247 @@
+package com.example.SM.config;
+
+import com.example.SM.service.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PooledMailSenderTests {
+
+	private FakeSmtpServer server;
+	private SimpleMeterRegistry registry;
+	private MetricsService metricsService;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = new FakeSmtpServer();
+		registry = new SimpleMeterRegistry();
+		metricsService = new MetricsService();
+		ReflectionTestUtils.setField(metricsService, "meterRegistry", registry);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		server.close();
+	}
+
+	@Test
+	void messagesShareOneConnection() {
+		PooledMailSender sender = sender(5, 100, 60_000);
+
+		for (int i = 0; i < 3; i++) {
+			sender.send(message(i));
+		}
+
+		assertThat(server.getMessageCount()).isEqualTo(3);
+		assertThat(server.getConnectionCount()).isEqualTo(1);
+		assertThat(sender.getOpenConnections()).isEqualTo(1);
+		assertThat(sender.getIdleConnections()).isEqualTo(1);
+		assertThat(connections(PooledMailSender.OPENED)).isEqualTo(1);
+		assertThat(connections(PooledMailSender.REUSED)).isEqualTo(2);
+		sender.destroy();
+	}
+
+	@Test
+	void connectionIsRetiredAfterMaxMessages() {
+		PooledMailSender sender = sender(5, 2, 60_000);
+
+		// A batch goes out over one connection until it reaches the per-connection limit
+		sender.send(message(1), message(2), message(3));
+
+		assertThat(server.getMessageCount()).isEqualTo(3);
+		assertThat(server.getConnectionCount()).isEqualTo(2);
+		assertThat(connections(PooledMailSender.RETIRED)).isEqualTo(1);
+		assertThat(sender.getOpenConnections()).isEqualTo(1);
+		sender.destroy();
+	}
+
+	@Test
+	void reaperClosesOnlyExpiredConnections() throws InterruptedException {
+		PooledMailSender fresh = sender(5, 100, 60_000);
+		PooledMailSender stale = sender(5, 100, 50);
+		fresh.send(message(1));
+		stale.send(message(2));
+		Thread.sleep(100);
+
+		fresh.closeIdleConnections();
+		stale.closeIdleConnections();
+
+		assertThat(fresh.getOpenConnections()).isEqualTo(1);
+		assertThat(fresh.getIdleConnections()).isEqualTo(1);
+		assertThat(stale.getOpenConnections()).isZero();
+		assertThat(stale.getIdleConnections()).isZero();
+		assertThat(connections(PooledMailSender.EXPIRED)).isEqualTo(1);
+		fresh.destroy();
+	}
+
+	@Test
+	void droppedConnectionIsRetriedOnceOnAFreshOne() {
+		PooledMailSender sender = sender(5, 100, 60_000);
+		sender.send(message(1));
+
+		// The server closes the kept connection, e.g. its own idle timeout
+		server.dropConnections();
+		sender.send(message(2));
+
+		assertThat(server.getMessageCount()).isEqualTo(2);
+		assertThat(server.getConnectionCount()).isEqualTo(2);
+		assertThat(connections(PooledMailSender.BROKEN)).isEqualTo(1);
+		assertThat(connections(PooledMailSender.OPENED)).isEqualTo(2);
+		assertThat(sender.getOpenConnections()).isEqualTo(1);
+		sender.destroy();
+	}
+
+	@Test
+	void rejectedRecipientKeepsTheConnection() {
+		PooledMailSender sender = sender(5, 100, 60_000);
+		SimpleMailMessage rejected = message(1);
+		rejected.setTo("unknown@test.local");
+
+		assertThatThrownBy(() -> sender.send(rejected)).isInstanceOf(MailSendException.class);
+		sender.send(message(2));
+
+		assertThat(server.getMessageCount()).isEqualTo(1);
+		assertThat(server.getConnectionCount()).isEqualTo(1);
+		assertThat(connections(PooledMailSender.BROKEN)).isZero();
+		assertThat(connections(PooledMailSender.REUSED)).isEqualTo(1);
+		sender.destroy();
+	}
+
+	private PooledMailSender sender(int poolSize, int maxMessages, long idleTimeoutMs) {
+		PooledMailSender sender = new PooledMailSender(metricsService, poolSize, maxMessages, idleTimeoutMs, 1000);
+		sender.setHost("localhost");
+		sender.setPort(server.getPort());
+		return sender;
+	}
+
+	private SimpleMailMessage message(int n) {
+		SimpleMailMessage message = new SimpleMailMessage();
+		message.setFrom("school@test.local");
+		message.setTo("parent" + n + "@test.local");
+		message.setSubject("Message " + n);
+		message.setText("Body " + n);
+		return message;
+	}
+
+	private double connections(String event) {
+		return registry.counter(MetricsService.MAIL_CONNECTIONS, "event", event).count();
+	}
+
+	// Minimal SMTP sink: discards every message and rejects recipients at unknown@. No TLS and no auth.
+	private static final class FakeSmtpServer implements AutoCloseable {
+
+		private final ServerSocket serverSocket = new ServerSocket(0);
+		private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+		private final AtomicInteger messages = new AtomicInteger();
+		private final AtomicInteger connections = new AtomicInteger();
+		private volatile boolean running = true;
+
+		FakeSmtpServer() throws IOException {
+			Thread.ofVirtual().name("fake-smtp-accept").start(this::acceptLoop);
+		}
+
+		int getPort() {
+			return serverSocket.getLocalPort();
+		}
+
+		int getMessageCount() {
+			return messages.get();
+		}
+
+		int getConnectionCount() {
+			return connections.get();
+		}
+
+		// Closes every open session without a 421, as a relay does when it drops idle clients
+		void dropConnections() {
+			for (Socket socket : sockets) {
+				try {
+					socket.close();
+				} catch (IOException e) {
+					// already closed
+				}
+			}
+		}
+
+		private void acceptLoop() {
+			while (running) {
+				try {
+					Socket socket = serverSocket.accept();
+					connections.incrementAndGet();
+					sockets.add(socket);
+					Thread.ofVirtual().start(() -> handle(socket));
+				} catch (IOException e) {
+					// closed
+				}
+			}
+		}
+
+		private void handle(Socket socket) {
+			try (socket;
+				 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+				 OutputStream out = socket.getOutputStream()) {
+				reply(out, "220 localhost fake SMTP ready");
+				String line;
+				while ((line = in.readLine()) != null) {
+					String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+					switch (command) {
+						case "EHLO":
+							reply(out, "250-localhost\r\n250 8BITMIME");
+							break;
+						case "DATA":
+							reply(out, "354 End data with <CR><LF>.<CR><LF>");
+							while ((line = in.readLine()) != null && !line.equals(".")) {
+								// discard message body
+							}
+							messages.incrementAndGet();
+							reply(out, "250 OK queued");
+							break;
+						case "RCPT":
+							reply(out, line.contains("unknown@") ? "550 No such user" : "250 OK");
+							break;
+						case "QUIT":
+							reply(out, "221 Bye");
+							return;
+						default:
+							// HELO, MAIL, RSET, NOOP
+							reply(out, "250 OK");
+					}
+				}
+			} catch (IOException e) {
+				// client went away
+			} finally {
+				sockets.remove(socket);
+			}
+		}
+
+		private static void reply(OutputStream out, String text) throws IOException {
+			out.write((text + "\r\n").getBytes(StandardCharsets.US_ASCII));
+			out.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			running = false;
+			dropConnections();
+			serverSocket.close();
+		}
+	}
+}
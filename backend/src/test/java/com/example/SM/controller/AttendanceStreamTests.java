@@ -0,0 +1,115 @@
+package com.example.SM.controller;
+
+import com.example.SM.util.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A browser EventSource cannot send an Authorization header, so live screens open the stream with a
+ * short-lived stream token in the query string. That token works nowhere else, and an access token
+ * is never accepted from the query string.
+ */
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:attendance_stream;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=MONTH,VALUE,YEAR;DB_CLOSE_DELAY=-1",
+	"spring.datasource.username=sa",
+	"spring.datasource.password=",
+	"spring.datasource.driver-class-name=org.h2.Driver",
+	"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.hibernate.ddl-auto=none",
+	"fees.charge-job.run-on-startup=false",
+	"ratelimit.enabled=false"
+})
+@AutoConfigureMockMvc
+class AttendanceStreamTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void streamNeedsAStreamToken() throws Exception {
+		String accessToken = jwtUtil.generateToken("teacher", "TEACHER", "Class Teacher");
+
+		mockMvc.perform(get("/api/attendance/stream")).andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/api/attendance/stream").param("token", accessToken)).andExpect(status().isUnauthorized());
+		mockMvc.perform(post("/api/attendance/stream/token")).andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void streamTokenOnlyOpensTheStream() throws Exception {
+		String streamToken = jwtUtil.generateStreamToken("teacher", "TEACHER");
+
+		mockMvc.perform(get("/api/students").header(HttpHeaders.AUTHORIZATION, "Bearer " + streamToken))
+			.andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/api/students").param("token", streamToken))
+			.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void manualMarkReachesAScreenSubscribedWithAStreamToken() throws Exception {
+		Timestamp created = Timestamp.valueOf(LocalDateTime.now().minusHours(1));
+		jdbcTemplate.update("INSERT INTO students (student_id, first_name, last_name, grade, email, status, "
+			+ "registration_date, created_at, updated_at) VALUES ('ST-0001', 'Stream', 'Student', 'Grade 7', "
+			+ "'st1@test.local', 'Active', ?, ?, ?)", Date.valueOf(LocalDate.now()), created, created);
+		String accessToken = jwtUtil.generateToken("teacher", "TEACHER", "Class Teacher");
+
+		String body = mockMvc.perform(post("/api/attendance/stream/token")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getContentAsString();
+		String streamToken = objectMapper.readTree(body).get("token").asText();
+
+		MvcResult stream = mockMvc.perform(get("/api/attendance/stream").param("token", streamToken))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		mockMvc.perform(post("/api/attendance/manual")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+				.param("studentId", "ST-0001")
+				.param("date", LocalDate.now().toString())
+				.param("status", "PRESENT"))
+			.andExpect(status().isOk());
+
+		String events = awaitContent(stream, "ST-0001");
+		assertThat(events).contains("event:connected");
+		assertThat(events).contains("event:attendance");
+		assertThat(events).contains("\"studentId\":\"ST-0001\"");
+	}
+
+	// Events are written by the dispatcher thread after the request that produced them returns
+	private String awaitContent(MvcResult stream, String expected) throws Exception {
+		long deadline = System.currentTimeMillis() + 5000;
+		String content = stream.getResponse().getContentAsString();
+		while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+			content = stream.getResponse().getContentAsString();
+		}
+		return content;
+	}
+}
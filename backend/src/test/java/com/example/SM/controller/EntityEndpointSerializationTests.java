@@ -0,0 +1,149 @@
+package com.example.SM.controller;
+
+import com.example.SM.util.JwtUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.stream.Stream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * With spring.jpa.open-in-view=false, entities are serialized after their transaction has closed.
+ * Every read endpoint that returns entities (or DTOs built from them) is called once against
+ * seeded rows; a lazy association touched during serialization fails the request with a 500.
+ */
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:entity_endpoints;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=MONTH,VALUE,YEAR;DB_CLOSE_DELAY=-1",
+	"spring.datasource.username=sa",
+	"spring.datasource.password=",
+	"spring.datasource.driver-class-name=org.h2.Driver",
+	"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.hibernate.ddl-auto=none",
+	"fees.charge-job.run-on-startup=false",
+	"ratelimit.enabled=false"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EntityEndpointSerializationTests {
+
+	private static final String STUDENT_ID = "EP-0001";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	private String token;
+	private long classId;
+	private long studentRowId;
+	private long sessionId;
+	private long paymentId;
+
+	@BeforeAll
+	void seed() {
+		token = jwtUtil.generateToken("admin", "ADMIN", "System Administrator");
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		LocalDate today = LocalDate.now();
+
+		jdbcTemplate.update("INSERT INTO school_classes (class_name, grade, class_teacher, active, created_at) "
+			+ "VALUES ('EP Class', 'Grade 7', 'EP Teacher', TRUE, ?)", now);
+		classId = jdbcTemplate.queryForObject("SELECT id FROM school_classes WHERE class_name = 'EP Class'", Long.class);
+
+		jdbcTemplate.update("INSERT INTO students (student_id, first_name, last_name, grade, email, status, class_id, "
+			+ "registration_date, created_at) VALUES (?, 'Endpoint', 'Student', 'Grade 7', 'ep@test.local', 'Active', ?, ?, ?)",
+			STUDENT_ID, classId, Date.valueOf(today), now);
+		studentRowId = jdbcTemplate.queryForObject("SELECT id FROM students WHERE student_id = ?", Long.class, STUDENT_ID);
+
+		jdbcTemplate.update("INSERT INTO class_schedules (class_id, day_of_week, start_time, end_time, subject) "
+			+ "VALUES (?, ?, '00:00:00', '23:59:59', 'Science')", classId, today.getDayOfWeek().name());
+
+		jdbcTemplate.update("INSERT INTO attendance_sessions (class_id, date, scheduled_start_time, scheduled_end_time, "
+			+ "actual_start_time, subject, status, created_at) VALUES (?, ?, '00:00:00', '23:59:59', ?, 'Science', 'ACTIVE', ?)",
+			classId, Date.valueOf(today), Time.valueOf(LocalTime.now()), now);
+		sessionId = jdbcTemplate.queryForObject("SELECT id FROM attendance_sessions WHERE class_id = ?", Long.class, classId);
+
+		jdbcTemplate.update("INSERT INTO attendance (student_id, student_name, grade, attendance_date, scan_time, status, "
+			+ "scan_method, created_at, session_id) VALUES (?, 'Endpoint Student', 'Grade 7', ?, ?, 'PRESENT', 'QR', ?, ?)",
+			STUDENT_ID, Date.valueOf(today), now, now, sessionId);
+
+		jdbcTemplate.update("INSERT INTO fee_structures (class_id, monthly_fee, total_fee, created_at, updated_at) "
+			+ "VALUES (?, 2500.00, 2500.00, ?, ?)", classId, now, now);
+		long feeStructureId = jdbcTemplate.queryForObject(
+			"SELECT id FROM fee_structures WHERE class_id = ?", Long.class, classId);
+
+		jdbcTemplate.update("INSERT INTO fee_payments (student_id, fee_structure_id, class_id, amount_paid, payment_date, "
+			+ "month, payment_method, transaction_id, status, created_at, updated_at) "
+			+ "VALUES (?, ?, ?, 1000.00, ?, ?, 'CASH', 'EP-TXN-1', 'PARTIAL', ?, ?)",
+			studentRowId, feeStructureId, classId, Date.valueOf(today), YearMonth.now().toString(), now, now);
+		paymentId = jdbcTemplate.queryForObject(
+			"SELECT id FROM fee_payments WHERE transaction_id = 'EP-TXN-1'", Long.class);
+	}
+
+	Stream<String> readEndpoints() {
+		String today = LocalDate.now().toString();
+		return Stream.of(
+			"/api/students",
+			"/api/students?since=0",
+			"/api/students/recent",
+			"/api/students/" + studentRowId,
+			"/api/students/student-id/" + STUDENT_ID,
+			"/api/students/class/" + classId,
+			"/api/students/grade/Grade 7",
+			"/api/students/unassigned",
+			"/api/students/class/" + classId + "/statistics",
+			"/api/classes",
+			"/api/classes/active",
+			"/api/classes/" + classId,
+			"/api/classes/grade/Grade 7",
+			"/api/attendance/student/" + STUDENT_ID,
+			"/api/attendance/date/" + today,
+			"/api/attendance/session/" + sessionId,
+			"/api/attendance/student/" + STUDENT_ID + "/summary",
+			"/api/attendance/today",
+			"/api/attendance/sessions/active",
+			"/api/attendance/sessions/class/" + classId,
+			"/api/schedules/class/" + classId,
+			"/api/schedules/class/" + classId + "/today",
+			"/api/fees",
+			"/api/fees/class/" + classId,
+			"/api/fee-payments/student/" + STUDENT_ID,
+			"/api/fee-payments/student/" + STUDENT_ID + "/status",
+			"/api/fee-payments/recent",
+			"/api/fee-payments/overdue",
+			"/api/fee-payments/statistics",
+			"/api/fee-payments/receipt/" + paymentId + "/base64",
+			"/api/dashboard/summary",
+			"/api/dashboard/quick-stats",
+			"/api/dashboard/attendance-today",
+			"/api/dashboard/active-sessions");
+	}
+
+	@ParameterizedTest
+	@MethodSource("readEndpoints")
+	void serializesOutsideTheTransaction(String path) throws Exception {
+		mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+			.andExpect(status().isOk());
+	}
+}
@@ -0,0 +1,69 @@
+package com.example.SM.controller;
+
+import com.example.SM.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Teachers run the fee desk (look up a student, record a payment, print the receipt); arrears
+ * reports and statistics are for administrators. Students have no access to fee payments.
+ */
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:fee_payment_authorization;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=MONTH,VALUE,YEAR;DB_CLOSE_DELAY=-1",
+	"spring.datasource.username=sa",
+	"spring.datasource.password=",
+	"spring.datasource.driver-class-name=org.h2.Driver",
+	"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.hibernate.ddl-auto=none",
+	"fees.charge-job.run-on-startup=false",
+	"ratelimit.enabled=false"
+})
+@AutoConfigureMockMvc
+class FeePaymentAuthorizationTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Test
+	void teachersCanUseTheFeeDesk() throws Exception {
+		mockMvc.perform(get("/api/fee-payments/student/NONE").header(HttpHeaders.AUTHORIZATION, bearer("TEACHER")))
+			.andExpect(status().isOk());
+		// Past authorization: the student simply does not exist
+		mockMvc.perform(get("/api/fee-payments/student/NONE/ledger").header(HttpHeaders.AUTHORIZATION, bearer("TEACHER")))
+			.andExpect(status().isNotFound());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"/api/fee-payments/statistics", "/api/fee-payments/overdue",
+		"/api/fee-payments/outstanding", "/api/fee-payments/recent"})
+	void reportsAreAdminOnly(String path) throws Exception {
+		mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, bearer("TEACHER")))
+			.andExpect(status().isForbidden());
+		mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, bearer("ADMIN")))
+			.andExpect(status().isOk());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"/api/fee-payments/student/NONE", "/api/fee-payments/statistics"})
+	void studentsAreForbidden(String path) throws Exception {
+		mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, bearer("STUDENT")))
+			.andExpect(status().isForbidden());
+	}
+
+	private String bearer(String role) {
+		return "Bearer " + jwtUtil.generateToken(role.toLowerCase(), role, role);
+	}
+}
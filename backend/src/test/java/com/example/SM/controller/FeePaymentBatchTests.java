@@ -0,0 +1,246 @@
+package com.example.SM.controller;
+
+import com.example.SM.util.JwtUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Day-end batch entry reports a result per item; an invalid or duplicate item is rejected on its
+ * own instead of failing the whole batch. Only a collision with a payment committed meanwhile
+ * rolls everything back, ledger postings included.
+ */
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:fee_payment_batch;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=MONTH,VALUE,YEAR;DB_CLOSE_DELAY=-1",
+	"spring.datasource.username=sa",
+	"spring.datasource.password=",
+	"spring.datasource.driver-class-name=org.h2.Driver",
+	"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.hibernate.ddl-auto=none",
+	"fees.charge-job.run-on-startup=false",
+	"ratelimit.enabled=false"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FeePaymentBatchTests {
+
+	private static final BigDecimal FEE = new BigDecimal("1000.00");
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private String token;
+	private long classId;
+
+	@BeforeAll
+	void seed() {
+		token = jwtUtil.generateToken("admin", "ADMIN", "System Administrator");
+		jdbcTemplate.update("INSERT INTO school_classes (class_name, grade, active) VALUES ('Batch', 'Grade 7', TRUE)");
+		classId = jdbcTemplate.queryForObject("SELECT id FROM school_classes WHERE class_name = 'Batch'", Long.class);
+		jdbcTemplate.update("INSERT INTO fee_structures (class_id, total_fee) VALUES (?, ?)", classId, FEE);
+	}
+
+	@Test
+	void itemsWithoutStudentOrClassAreRejectedIndividually() throws Exception {
+		mockMvc.perform(post("/api/fee-payments/record-batch?sendEmail=false")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"amountPaid\":1000,\"month\":\"2024-03\",\"paymentMethod\":\"CASH\"},"
+					+ "{\"studentId\":\"NOBODY\",\"amountPaid\":1000,\"month\":\"2024-03\",\"paymentMethod\":\"CASH\"}]"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.total").value(2))
+			.andExpect(jsonPath("$.recorded").value(0))
+			.andExpect(jsonPath("$.results[0].status").value("REJECTED"))
+			.andExpect(jsonPath("$.results[0].error").value("Student not found with ID: null"))
+			.andExpect(jsonPath("$.results[1].status").value("REJECTED"));
+	}
+
+	@Test
+	void unknownStudentDoesNotStopTheRestOfTheBatch() throws Exception {
+		createStudent("FB-0101");
+
+		JsonNode response = recordBatch(item("FB-0101", "2024-04", "1000", null), item("FB-9999", "2024-04", "1000", null));
+
+		assertThat(response.get("recorded").asInt()).isEqualTo(1);
+		assertThat(response.at("/results/0/status").asText()).isEqualTo("RECORDED");
+		assertThat(response.at("/results/1/status").asText()).isEqualTo("REJECTED");
+		assertThat(response.at("/results/1/error").asText()).isEqualTo("Student not found with ID: FB-9999");
+		assertThat(paymentCount("FB-9999")).isZero();
+	}
+
+	@Test
+	void alreadyRecordedMonthIsReportedAsDuplicate() throws Exception {
+		long studentId = createStudent("FB-0201");
+		createStudent("FB-0202");
+		insertPayment(studentId, "2024-05", "1000.00");
+
+		JsonNode response = recordBatch(item("FB-0201", "2024-05", "1000", null), item("FB-0202", "2024-05", "1000", null));
+
+		assertThat(response.get("recorded").asInt()).isEqualTo(1);
+		assertThat(response.at("/results/0/status").asText()).isEqualTo("DUPLICATE");
+		assertThat(response.at("/results/0/error").asText()).isEqualTo("Payment already recorded for 2024-05 in class Batch");
+		assertThat(response.at("/results/1/status").asText()).isEqualTo("RECORDED");
+		assertThat(paymentCount("FB-0201")).isEqualTo(1);
+	}
+
+	@Test
+	void transactionIdRepeatedWithinTheBatchIsRecordedOnce() throws Exception {
+		createStudent("FB-0301");
+		createStudent("FB-0302");
+
+		JsonNode response = recordBatch(item("FB-0301", "2024-06", "1000", "TXN-301"), item("FB-0302", "2024-06", "1000", "TXN-301"));
+
+		assertThat(response.at("/results/0/status").asText()).isEqualTo("RECORDED");
+		assertThat(response.at("/results/1/status").asText()).isEqualTo("DUPLICATE");
+		assertThat(response.at("/results/1/error").asText()).isEqualTo("Transaction ID already used: TXN-301");
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM fee_payments WHERE transaction_id = 'TXN-301'",
+			Integer.class)).isEqualTo(1);
+	}
+
+	@Test
+	void everySavedPaymentIsPostedToTheLedger() throws Exception {
+		long first = createStudent("FB-0401");
+		long second = createStudent("FB-0402");
+
+		JsonNode response = recordBatch(item("FB-0401", "2024-07", "600", null), item("FB-0402", "2024-07", "1000", null));
+
+		long firstPayment = response.at("/results/0/paymentId").asLong();
+		long secondPayment = response.at("/results/1/paymentId").asLong();
+		assertThat(ledger(first)).containsExactly("CHARGE null 1000.00", "PAYMENT " + firstPayment + " 400.00");
+		assertThat(ledger(second)).containsExactly("CHARGE null 1000.00", "PAYMENT " + secondPayment + " 0.00");
+	}
+
+	@Test
+	void collisionWithAConcurrentPaymentRollsBackTheWholeBatch() throws Exception {
+		long contested = createStudent("FB-0501");
+		long other = createStudent("FB-0502");
+
+		// A cashier's payment for the same month is written but not yet committed when the batch checks
+		CountDownLatch inserted = new CountDownLatch(1);
+		CountDownLatch commit = new CountDownLatch(1);
+		CompletableFuture<Void> cashier = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+			insertPayment(contested, "2024-08", "1000.00");
+			inserted.countDown();
+			await(commit);
+		}));
+		assertThat(inserted.await(5, TimeUnit.SECONDS)).isTrue();
+
+		CompletableFuture<MvcResult> batch = CompletableFuture.supplyAsync(() -> {
+			try {
+				return mockMvc.perform(post("/api/fee-payments/record-batch?sendEmail=false")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(items(item("FB-0502", "2024-08", "1000", null), item("FB-0501", "2024-08", "1000", null))))
+					.andReturn();
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		Thread.sleep(300);
+		commit.countDown();
+		cashier.get(10, TimeUnit.SECONDS);
+		MvcResult result = batch.get(10, TimeUnit.SECONDS);
+
+		assertThat(result.getResponse().getStatus()).isEqualTo(400);
+		assertThat(objectMapper.readTree(result.getResponse().getContentAsString()).get("error").asText())
+			.isEqualTo("A payment in this batch was recorded by someone else meanwhile; nothing was saved, please resubmit");
+		// The other student's payment and every ledger posting went with it
+		assertThat(paymentCount("FB-0502")).isZero();
+		assertThat(paymentCount("FB-0501")).isEqualTo(1);
+		assertThat(ledger(other)).isEmpty();
+		assertThat(ledger(contested)).isEmpty();
+	}
+
+	private JsonNode recordBatch(String... items) throws Exception {
+		String body = mockMvc.perform(post("/api/fee-payments/record-batch?sendEmail=false")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(items(items)))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	private String items(String... items) {
+		return "[" + String.join(",", items) + "]";
+	}
+
+	private String item(String studentId, String month, String amount, String transactionId) {
+		return "{\"studentId\":\"" + studentId + "\",\"classId\":" + classId + ",\"amountPaid\":" + amount
+			+ ",\"month\":\"" + month + "\",\"paymentMethod\":\"CASH\""
+			+ (transactionId != null ? ",\"transactionId\":\"" + transactionId + "\"" : "") + "}";
+	}
+
+	private List<String> ledger(long studentId) {
+		return jdbcTemplate.query("SELECT entry_type, payment_id, balance_after FROM fee_ledger_entries "
+				+ "WHERE student_id = ? ORDER BY id",
+			(rs, i) -> rs.getString(1) + " " + rs.getObject(2) + " " + rs.getBigDecimal(3), studentId);
+	}
+
+	private int paymentCount(String studentId) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM fee_payments p JOIN students s ON s.id = p.student_id "
+			+ "WHERE s.student_id = ?", Integer.class, studentId);
+	}
+
+	private long createStudent(String studentId) {
+		Timestamp created = Timestamp.valueOf(LocalDateTime.now().minusHours(1));
+		jdbcTemplate.update("INSERT INTO students (student_id, first_name, last_name, grade, email, status, "
+			+ "registration_date, created_at, updated_at, class_id) VALUES (?, 'Batch', 'Student', 'Grade 7', ?, "
+			+ "'Active', ?, ?, ?, ?)", studentId, studentId.toLowerCase() + "@test.local",
+			Date.valueOf(LocalDate.now()), created, created, classId);
+		return jdbcTemplate.queryForObject("SELECT id FROM students WHERE student_id = ?", Long.class, studentId);
+	}
+
+	private void insertPayment(long studentId, String month, String amount) {
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		jdbcTemplate.update("INSERT INTO fee_payments (student_id, class_id, amount_paid, payment_date, month, "
+			+ "payment_method, status, created_at, updated_at) VALUES (?, ?, ?, ?, ?, 'CASH', 'PAID', ?, ?)",
+			studentId, classId, new BigDecimal(amount), Date.valueOf(LocalDate.now()), month, now, now);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,193 @@
+package com.example.SM.controller;
+
+import com.example.SM.entity.Attendance;
+import com.example.SM.repository.AttendanceRepository;
+import com.example.SM.util.JwtUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Polling clients revalidate list endpoints with If-None-Match. An edit to an existing row must
+ * change the ETag (not only inserts and deletes), and each delta page and each wire format
+ * (JSON, Smile, CBOR) must have its own ETag.
+ */
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:list_revalidation;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=MONTH,VALUE,YEAR;DB_CLOSE_DELAY=-1",
+	"spring.datasource.username=sa",
+	"spring.datasource.password=",
+	"spring.datasource.driver-class-name=org.h2.Driver",
+	"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.hibernate.ddl-auto=none",
+	"fees.charge-job.run-on-startup=false",
+	"ratelimit.enabled=false"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListRevalidationTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private AttendanceRepository attendanceRepository;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private String token;
+	private long studentRowId;
+	private String today;
+
+	@BeforeAll
+	void seed() {
+		token = jwtUtil.generateToken("admin", "ADMIN", "System Administrator");
+		Timestamp created = Timestamp.valueOf(LocalDateTime.now().minusHours(1));
+		today = LocalDate.now().toString();
+
+		for (int i = 1; i <= 3; i++) {
+			jdbcTemplate.update("INSERT INTO students (student_id, first_name, last_name, grade, email, status, "
+				+ "registration_date, created_at, updated_at) VALUES (?, 'Revalidate', ?, 'Grade 7', ?, 'Active', ?, ?, ?)",
+				"RV-000" + i, "Student " + i, "rv" + i + "@test.local", Date.valueOf(LocalDate.now()), created, created);
+			jdbcTemplate.update("INSERT INTO attendance (student_id, student_name, grade, attendance_date, scan_time, "
+				+ "status, scan_method, created_at, updated_at) VALUES (?, 'Revalidate Student', 'Grade 7', ?, ?, 'PRESENT', "
+				+ "'QR', ?, ?)", "RV-000" + i, Date.valueOf(LocalDate.now()), created, created, created);
+		}
+		studentRowId = jdbcTemplate.queryForObject("SELECT id FROM students WHERE student_id = 'RV-0001'", Long.class);
+	}
+
+	@Test
+	void editingAStudentChangesTheListETag() throws Exception {
+		String before = fetch("/api/students", null).getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(put("/api/students/" + studentRowId)
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"firstName\":\"Revalidate\",\"lastName\":\"Student 1\",\"email\":\"rv1@test.local\","
+					+ "\"status\":\"Inactive\"}"))
+			.andExpect(status().isOk());
+
+		MvcResult after = fetch("/api/students", before);
+		assertThat(after.getResponse().getStatus()).isEqualTo(200);
+		assertThat(after.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(before);
+
+		// The edit is also in the delta feed for clients past the original rows
+		JsonNode delta = objectMapper.readTree(fetch("/api/students?since=0", null).getResponse().getContentAsString());
+		JsonNode last = delta.get("items").get(delta.get("items").size() - 1);
+		assertThat(last.get("status").asText()).isEqualTo("Inactive");
+	}
+
+	@Test
+	void correctingPresentToLateChangesTheAttendanceETag() throws Exception {
+		String path = "/api/attendance/date/" + today;
+		String before = fetch(path, null).getResponse().getHeader(HttpHeaders.ETAG);
+
+		Attendance record = attendanceRepository.findByStudentIdOrderByAttendanceDateDesc("RV-0002").get(0);
+		record.setStatus("LATE");
+		attendanceRepository.save(record);
+
+		MvcResult after = fetch(path, before);
+		assertThat(after.getResponse().getStatus()).isEqualTo(200);
+		assertThat(after.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(before);
+	}
+
+	@Test
+	void eachDeltaPageHasItsOwnETag() throws Exception {
+		MvcResult first = fetch("/api/students?since=0&limit=1", null);
+		String firstTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+		JsonNode page = objectMapper.readTree(first.getResponse().getContentAsString());
+		assertThat(page.get("hasMore").asBoolean()).isTrue();
+
+		// Revalidating the second page with the first page's tag must not return 304
+		MvcResult second = fetch("/api/students?since=" + page.get("watermark").asText() + "&limit=1", firstTag);
+		assertThat(second.getResponse().getStatus()).isEqualTo(200);
+		assertThat(second.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(firstTag);
+		assertThat(fetch("/api/students", firstTag).getResponse().getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void jsonAndCborRepresentationsHaveTheirOwnETag() throws Exception {
+		MvcResult json = fetch("/api/students", null);
+		MvcResult cbor = fetch("/api/students", null, "application/cbor");
+		String jsonTag = json.getResponse().getHeader(HttpHeaders.ETAG);
+		String cborTag = cbor.getResponse().getHeader(HttpHeaders.ETAG);
+
+		assertThat(cbor.getResponse().getContentType()).startsWith("application/cbor");
+		assertThat(cborTag).isNotEqualTo(jsonTag);
+		assertThat(json.getResponse().getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT);
+		assertThat(cbor.getResponse().getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT);
+
+		// A cached JSON body must not be revalidated as the CBOR one, and vice versa
+		assertThat(fetch("/api/students", jsonTag, "application/cbor").getResponse().getStatus()).isEqualTo(200);
+		assertThat(fetch("/api/students", cborTag).getResponse().getStatus()).isEqualTo(200);
+
+		MvcResult notModified = fetch("/api/students", cborTag, "application/cbor");
+		assertThat(notModified.getResponse().getStatus()).isEqualTo(304);
+		assertThat(notModified.getResponse().getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT);
+
+		// First time this Accept header is seen: the list is loaded and the 304 is decided at write time
+		MvcResult firstSeen = fetch("/api/students", cborTag, "application/cbor, */*;q=0.1");
+		assertThat(firstSeen.getResponse().getStatus()).isEqualTo(304);
+		assertThat(firstSeen.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo(cborTag);
+		assertThat(firstSeen.getResponse().getContentAsByteArray()).isEmpty();
+	}
+
+	@Test
+	void etagFollowsTheFormatTheConvertersPicked() throws Exception {
+		String jsonTag = fetch("/api/fee-payments/recent", null).getResponse().getHeader(HttpHeaders.ETAG);
+		String accept = "application/cbor;q=0.5, application/x-jackson-smile";
+
+		MvcResult smile = fetch("/api/fee-payments/recent", null, accept);
+		MvcResult anything = fetch("/api/fee-payments/recent", null, "*/*");
+		String smileTag = smile.getResponse().getHeader(HttpHeaders.ETAG);
+
+		assertThat(smile.getResponse().getContentType()).startsWith("application/x-jackson-smile");
+		assertThat(smileTag).isEqualTo(jsonTag.substring(0, jsonTag.length() - 1) + "-smile\"");
+		assertThat(anything.getResponse().getContentType()).startsWith(MediaType.APPLICATION_JSON_VALUE);
+		assertThat(anything.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo(jsonTag);
+
+		// This Accept header has been served before, so the revalidation is answered without the list
+		MvcResult notModified = fetch("/api/fee-payments/recent", smileTag, accept);
+		assertThat(notModified.getResponse().getStatus()).isEqualTo(304);
+		assertThat(notModified.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo(smileTag);
+		assertThat(notModified.getResponse().getContentAsByteArray()).isEmpty();
+	}
+
+	private MvcResult fetch(String path, String ifNoneMatch) throws Exception {
+		return fetch(path, ifNoneMatch, MediaType.APPLICATION_JSON_VALUE);
+	}
+
+	private MvcResult fetch(String path, String ifNoneMatch, String accept) throws Exception {
+		var request = get(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + token).header(HttpHeaders.ACCEPT, accept);
+		if (ifNoneMatch != null) {
+			request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+		}
+		return mockMvc.perform(request).andReturn();
+	}
+}
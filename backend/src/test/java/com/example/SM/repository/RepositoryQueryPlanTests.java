@@ -0,0 +1,239 @@
+package com.example.SM.repository;
+
+import com.example.SM.entity.AttendanceSession;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every hot repository query against an in-memory H2 database in MySQL mode (schema from the
+ * Flyway migrations), captures the SQL Hibernate actually generates, and checks that each
+ * statement's plan is served by an index rather than a table scan. Changing a repository query
+ * changes what is explained here.
+ */
+@DataJpaTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:query_plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=MONTH,VALUE,YEAR;DB_CLOSE_DELAY=-1",
+	"spring.datasource.username=sa",
+	"spring.datasource.password=",
+	"spring.datasource.driver-class-name=org.h2.Driver",
+	"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.hibernate.ddl-auto=none",
+	"spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.example.SM.repository.RepositoryQueryPlanTests$CapturedSql"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(BCryptPasswordEncoder.class) // StudentManagementApplication.initData seeds users in every context
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTests {
+
+	/** Records every statement Hibernate prepares; installed through the statement_inspector property. */
+	public static class CapturedSql implements StatementInspector {
+
+		private static final List<String> STATEMENTS = new ArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			synchronized (STATEMENTS) {
+				STATEMENTS.add(sql);
+			}
+			return sql;
+		}
+
+		static List<String> drain() {
+			synchronized (STATEMENTS) {
+				List<String> captured = new ArrayList<>(STATEMENTS);
+				STATEMENTS.clear();
+				return captured;
+			}
+		}
+	}
+
+	@FunctionalInterface
+	interface RepositoryCall {
+		void run();
+	}
+
+	@Autowired private AttendanceRepository attendanceRepository;
+	@Autowired private AttendanceSessionRepository attendanceSessionRepository;
+	@Autowired private ClassScheduleRepository classScheduleRepository;
+	@Autowired private FeePaymentRepository feePaymentRepository;
+	@Autowired private StudentRepository studentRepository;
+	@Autowired private SchoolClassRepository schoolClassRepository;
+	@Autowired private UserRepository userRepository;
+	@Autowired private EntityManager entityManager;
+	@Autowired private EntityManagerFactory entityManagerFactory;
+	@Autowired private JdbcTemplate jdbcTemplate;
+	@Autowired private DataSource dataSource;
+
+	@BeforeAll
+	void seed() {
+		seedRows();
+	}
+
+	Stream<Arguments> hotQueries() {
+		LocalDate day = LocalDate.of(2024, 3, 4);
+		return Stream.of(
+			Arguments.of("AttendanceRepository.findByStudentIdOrderByAttendanceDateDesc",
+				call(() -> attendanceRepository.findByStudentIdOrderByAttendanceDateDesc("S0001"))),
+			Arguments.of("AttendanceRepository.findByAttendanceDateOrderByScanTimeAsc",
+				call(() -> attendanceRepository.findByAttendanceDateOrderByScanTimeAsc(day))),
+			Arguments.of("AttendanceRepository.existsByStudentIdAndAttendanceSession",
+				call(() -> attendanceRepository.existsByStudentIdAndAttendanceSession("S0001",
+					entityManager.getReference(AttendanceSession.class, 1L)))),
+			Arguments.of("AttendanceRepository.countPresentDaysByStudentId",
+				call(() -> attendanceRepository.countPresentDaysByStudentId("S0001"))),
+			Arguments.of("AttendanceRepository.findBySessionId",
+				call(() -> attendanceRepository.findBySessionId(1L))),
+			Arguments.of("AttendanceRepository.findChangedByDate",
+				call(() -> attendanceRepository.findChangedByDate(day, LocalDateTime.of(2024, 3, 4, 8, 0), 5L,
+					PageRequest.of(0, 501)))),
+			Arguments.of("AttendanceSessionRepository.findByDateAndStatus",
+				call(() -> attendanceSessionRepository.findByDateAndStatus(day, AttendanceSession.SessionStatus.ACTIVE))),
+			Arguments.of("AttendanceSessionRepository.findSessionsToStart",
+				call(() -> attendanceSessionRepository.findSessionsToStart(LocalTime.of(8, 30)))),
+			Arguments.of("AttendanceSessionRepository.findByClassAndDateAndSubject",
+				call(() -> attendanceSessionRepository.findByClassAndDateAndSubject(1L, day, "Maths"))),
+			Arguments.of("ClassScheduleRepository.findByClassIdAndDayOfWeek",
+				call(() -> classScheduleRepository.findByClassIdAndDayOfWeek(1L, DayOfWeek.MONDAY))),
+			Arguments.of("FeePaymentRepository.existsByStudentStudentIdAndMonthAndSchoolClassId",
+				call(() -> feePaymentRepository.existsByStudentStudentIdAndMonthAndSchoolClassId("S0001", "2024-03", 1L))),
+			Arguments.of("FeePaymentRepository.findTotalPaidByStudentAndMonth",
+				call(() -> feePaymentRepository.findTotalPaidByStudentAndMonth("S0001", "2024-03"))),
+			Arguments.of("FeePaymentRepository.findRecentPayments",
+				call(() -> feePaymentRepository.findRecentPayments(LocalDate.of(2024, 3, 20)))),
+			Arguments.of("FeePaymentRepository.findByMonthOrderByPaymentDateDesc",
+				call(() -> feePaymentRepository.findByMonthOrderByPaymentDateDesc("2024-03"))),
+			Arguments.of("FeePaymentRepository.findBySchoolClassIdOrderByPaymentDateDesc",
+				call(() -> feePaymentRepository.findBySchoolClassIdOrderByPaymentDateDesc(1L))),
+			Arguments.of("StudentRepository.findByStudentId",
+				call(() -> studentRepository.findByStudentId("S0001"))),
+			Arguments.of("StudentRepository.findActiveStudentsByClassId",
+				call(() -> studentRepository.findActiveStudentsByClassId(1L))),
+			Arguments.of("StudentRepository.findByGrade",
+				call(() -> studentRepository.findByGrade("Grade 7"))),
+			Arguments.of("SchoolClassRepository.findByGradeAndActiveTrue",
+				call(() -> schoolClassRepository.findByGradeAndActiveTrue("O/L"))),
+			Arguments.of("UserRepository.findByUsername",
+				call(() -> userRepository.findByUsername("user1")))
+		);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("hotQueries")
+	void hotQueryUsesAnIndex(String repositoryMethod, RepositoryCall call) throws Exception {
+		List<String> statements = generatedSql(call);
+		assertThat(statements).as("%s issued no SELECT", repositoryMethod).isNotEmpty();
+
+		for (String sql : statements) {
+			String plan = explain(sql);
+			assertThat(plan)
+				.as("%s should not scan the whole table:%n%s%n%s", repositoryMethod, sql, plan)
+				.doesNotContainIgnoringCase("tableScan");
+		}
+	}
+
+	private static RepositoryCall call(RepositoryCall call) {
+		return call;
+	}
+
+	// Caches emptied first, so the query reaches the database instead of the second-level cache
+	private List<String> generatedSql(RepositoryCall call) {
+		entityManager.clear();
+		entityManagerFactory.getCache().evictAll();
+		CapturedSql.drain();
+		call.run();
+		return CapturedSql.drain().stream()
+			.filter(sql -> sql.trim().toLowerCase(Locale.ROOT).startsWith("select"))
+			.toList();
+	}
+
+	// The plan is fixed when the statement is prepared; the bound values do not change it
+	private String explain(String sql) throws Exception {
+		try (Connection connection = dataSource.getConnection();
+			 PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+			int parameters = statement.getParameterMetaData().getParameterCount();
+			for (int i = 1; i <= parameters; i++) {
+				statement.setObject(i, null);
+			}
+			StringBuilder plan = new StringBuilder();
+			try (ResultSet rs = statement.executeQuery()) {
+				while (rs.next()) {
+					plan.append(rs.getString(1)).append('\n');
+				}
+			}
+			return plan.toString();
+		}
+	}
+
+	// Enough rows that the optimizer prefers indexes over scanning
+	private void seedRows() {
+		for (int c = 1; c <= 10; c++) {
+			jdbcTemplate.update("INSERT INTO school_classes (class_name, grade, active, created_at) VALUES (?, ?, TRUE, NOW())",
+				"Class " + c, c % 2 == 0 ? "A/L" : "O/L");
+			jdbcTemplate.update("INSERT INTO fee_structures (class_id, monthly_fee, total_fee) VALUES (?, 2500, 2500)", c);
+			jdbcTemplate.update("INSERT INTO users (username, password, role, email, is_active) VALUES (?, 'x', 'TEACHER', ?, TRUE)",
+				"user" + c, "user" + c + "@example.com");
+			for (String day : new String[] {"MONDAY", "TUESDAY", "WEDNESDAY"}) {
+				jdbcTemplate.update("INSERT INTO class_schedules (class_id, day_of_week, start_time, end_time, subject) "
+					+ "VALUES (?, ?, '08:00:00', '09:00:00', 'Maths')", c, day);
+			}
+			for (int d = 1; d <= 20; d++) {
+				jdbcTemplate.update("INSERT INTO attendance_sessions (class_id, date, scheduled_start_time, "
+					+ "scheduled_end_time, subject, status, created_at) VALUES (?, DATEADD('DAY', ?, '2024-02-20'), "
+					+ "'08:00:00', '09:00:00', 'Maths', 'COMPLETED', NOW())", c, d);
+			}
+		}
+
+		List<Object[]> students = new ArrayList<>();
+		List<Object[]> attendance = new ArrayList<>();
+		List<Object[]> payments = new ArrayList<>();
+		for (int i = 1; i <= 500; i++) {
+			int classId = (i % 10) + 1;
+			students.add(new Object[] {String.format("S%04d", i), "Grade " + (i % 25), classId});
+			for (int d = 1; d <= 20; d++) {
+				attendance.add(new Object[] {String.format("S%04d", i), d, (classId - 1) * 20 + d});
+			}
+			for (int m = 1; m <= 3; m++) {
+				payments.add(new Object[] {i, classId, classId, String.format("2024-%02d-05", m), String.format("2024-%02d", m)});
+			}
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO students (student_id, first_name, last_name, grade, email, status, class_id, "
+			+ "created_at) VALUES (?, 'First', 'Last', ?, 'student@example.com', 'Active', ?, NOW())", students);
+		jdbcTemplate.batchUpdate("INSERT INTO attendance (student_id, student_name, grade, attendance_date, scan_time, status, "
+			+ "scan_method, created_at, session_id) VALUES (?, 'First Last', 'O/L', DATEADD('DAY', ?, '2024-02-20'), "
+			+ "NOW(), 'PRESENT', 'QR', NOW(), ?)", attendance);
+		jdbcTemplate.batchUpdate("INSERT INTO fee_payments (student_id, fee_structure_id, class_id, amount_paid, payment_date, "
+			+ "month, payment_method, status, created_at, updated_at) VALUES (?, ?, ?, 2500, ?, ?, 'CASH', 'PAID', NOW(), NOW())",
+			payments);
+
+		jdbcTemplate.execute("ANALYZE");
+	}
+}
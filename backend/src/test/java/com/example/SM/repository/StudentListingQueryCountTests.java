@@ -0,0 +1,106 @@
+package com.example.SM.repository;
+
+import com.example.SM.entity.Student;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Student listings are rendered to JSON together with their class fields. Every student gets
+ * its own class and the second-level cache is emptied first, so a lazy class load per student
+ * would show up as extra statements; the count must stay at one SELECT for any list size.
+ */
+@DataJpaTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:query_count;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=MONTH,VALUE,YEAR;DB_CLOSE_DELAY=-1",
+	"spring.datasource.username=sa",
+	"spring.datasource.password=",
+	"spring.datasource.driver-class-name=org.h2.Driver",
+	"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.hibernate.ddl-auto=none",
+	"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(BCryptPasswordEncoder.class) // StudentManagementApplication.initData seeds users in every context
+class StudentListingQueryCountTests {
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 10, 100})
+	void findAllRendersClassFieldsWithOneStatement(int students) throws Exception {
+		seed(students);
+
+		assertThat(statementsToRender(studentRepository::findAll, students)).isEqualTo(1);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 10, 100})
+	void findByGradeRendersClassFieldsWithOneStatement(int students) throws Exception {
+		seed(students);
+
+		assertThat(statementsToRender(() -> studentRepository.findByGrade("Grade 7"), students)).isEqualTo(1);
+	}
+
+	// Runs the query and serializes the result the way the controllers do
+	private long statementsToRender(Supplier<List<Student>> query, int expectedRows) throws Exception {
+		entityManager.clear();
+		entityManagerFactory.getCache().evictAll();
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		List<Student> result = query.get();
+		String json = objectMapper.writeValueAsString(result);
+
+		assertThat(result).hasSize(expectedRows);
+		assertThat(json).contains("\"className\":\"QC Class 1\"", "\"classTeacher\":\"Teacher 1\"");
+		return statistics.getPrepareStatementCount();
+	}
+
+	// One class per student so the class loads cannot be served from the persistence context
+	private void seed(int students) {
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		for (int i = 1; i <= students; i++) {
+			jdbcTemplate.update("INSERT INTO school_classes (class_name, grade, class_teacher, active, created_at) "
+				+ "VALUES (?, 'Grade 7', ?, TRUE, ?)", "QC Class " + i, "Teacher " + i, now);
+			Long classId = jdbcTemplate.queryForObject(
+				"SELECT id FROM school_classes WHERE class_name = ?", Long.class, "QC Class " + i);
+			jdbcTemplate.update("INSERT INTO students (student_id, first_name, last_name, grade, email, status, "
+				+ "class_id, registration_date, created_at) VALUES (?, 'Query', ?, 'Grade 7', ?, 'Active', ?, ?, ?)",
+				String.format("QC-%04d", i), "Student " + i, "qc" + i + "@test.local", classId,
+				Date.valueOf(LocalDate.now()), now);
+		}
+	}
+
+}
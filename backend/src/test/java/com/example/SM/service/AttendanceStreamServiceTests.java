@@ -0,0 +1,232 @@
+package com.example.SM.service;
+
+import com.example.SM.dto.AttendanceResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AttendanceStreamServiceTests {
+
+	private AttendanceStreamService service;
+
+	@BeforeEach
+	void setUp() {
+		service = new AttendanceStreamService();
+		ReflectionTestUtils.setField(service, "bufferSize", 3);
+		ReflectionTestUtils.setField(service, "timeoutMs", 60_000L);
+		ReflectionTestUtils.setField(service, "writeTimeoutMs", 10_000L);
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	void subscribersOnlyReceiveTheirSessionOrClass() throws InterruptedException {
+		RecordingEmitter everything = subscribe(null, null);
+		RecordingEmitter session = subscribe(10L, null);
+		RecordingEmitter schoolClass = subscribe(null, 20L);
+
+		service.publish(scan(1, 10L, 20L));
+		service.publish(scan(2, 11L, 20L));
+		service.publish(scan(3, 12L, 21L));
+
+		assertThat(everything.awaitIds(3)).containsExactly("1", "2", "3");
+		assertThat(session.awaitIds(1)).containsExactly("1");
+		assertThat(schoolClass.awaitIds(2)).containsExactly("1", "2");
+		assertThat(session.received).isEmpty();
+		assertThat(schoolClass.received).isEmpty();
+	}
+
+	@Test
+	void stalledSubscribersDropTheOldestScansWithoutDelayingOthers() throws InterruptedException {
+		RecordingEmitter firstStalled = subscribe(null, null);
+		RecordingEmitter secondStalled = subscribe(null, null);
+		RecordingEmitter healthy = subscribe(null, null);
+		firstStalled.stall();
+		secondStalled.stall();
+
+		service.publish(scan(1, 10L, 20L));
+		firstStalled.awaitSendStarted();
+		secondStalled.awaitSendStarted();
+		// Two blocked sends do not hold up the third subscriber
+		assertThat(healthy.awaitIds(1)).containsExactly("1");
+		for (int id = 2; id <= 6; id++) {
+			service.publish(scan(id, 10L, 20L));
+			assertThat(healthy.awaitIds(1)).containsExactly(String.valueOf(id));
+		}
+
+		firstStalled.resume();
+		secondStalled.resume();
+		// Scan 1 was already being written; of 2-6 only the newest buffer-size (3) are kept
+		assertThat(firstStalled.awaitIds(4)).containsExactly("1", "4", "5", "6");
+		assertThat(secondStalled.awaitIds(4)).containsExactly("1", "4", "5", "6");
+	}
+
+	@Test
+	void failedSendCompletesTheEmitterAndRemovesTheSubscriber() throws InterruptedException {
+		RecordingEmitter broken = subscribe(null, null);
+		broken.failWith(new IOException("Broken pipe"));
+
+		service.publish(scan(1, 10L, 20L));
+
+		assertThat(broken.awaitCompletion()).isInstanceOf(IOException.class);
+		assertThat(service.getSubscriberCount()).isZero();
+	}
+
+	@Test
+	void heartbeatIsWrittenByTheDispatcherNotTheScheduler() throws InterruptedException {
+		RecordingEmitter idle = subscribe(null, null);
+
+		service.heartbeat();
+
+		assertThat(idle.received.poll(5, TimeUnit.SECONDS)).isEqualTo(":heartbeat");
+		assertThat(idle.lastSendThread).startsWith("attendance-stream");
+	}
+
+	@Test
+	void failedHeartbeatCompletesTheEmitter() throws InterruptedException {
+		RecordingEmitter closed = subscribe(null, null);
+		closed.failWith(new IOException("Connection reset"));
+
+		service.heartbeat();
+
+		assertThat(closed.awaitCompletion()).isInstanceOf(IOException.class);
+		assertThat(service.getSubscriberCount()).isZero();
+	}
+
+	@Test
+	void heartbeatDisconnectsASubscriberStuckPastTheWriteTimeout() throws InterruptedException {
+		ReflectionTestUtils.setField(service, "writeTimeoutMs", 50L);
+		RecordingEmitter stalled = subscribe(null, null);
+		RecordingEmitter healthy = subscribe(null, null);
+		stalled.stall();
+		try {
+			service.publish(scan(1, 10L, 20L));
+			stalled.awaitSendStarted();
+			Thread.sleep(100);
+
+			service.heartbeat();
+
+			assertThat(stalled.awaitCompletion()).isInstanceOf(TimeoutException.class);
+			assertThat(service.getSubscriberCount()).isEqualTo(1);
+			assertThat(healthy.awaitIds(1)).containsExactly("1");
+		} finally {
+			stalled.resume();
+		}
+	}
+
+	private RecordingEmitter subscribe(Long sessionId, Long classId) throws InterruptedException {
+		RecordingEmitter emitter = new RecordingEmitter();
+		service.subscribe(emitter, sessionId, classId);
+		assertThat(emitter.received.poll(5, TimeUnit.SECONDS)).startsWith("event:connected");
+		return emitter;
+	}
+
+	private static AttendanceResponse scan(long id, Long sessionId, Long classId) {
+		AttendanceResponse response = new AttendanceResponse();
+		response.setId(id);
+		response.setSessionId(sessionId);
+		response.setClassId(classId);
+		return response;
+	}
+
+	// Records what would have been written to the client; sends can be stalled or made to fail
+	private static class RecordingEmitter extends SseEmitter {
+
+		private static final Pattern EVENT_ID = Pattern.compile("id:(\\S+)");
+
+		final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+		private final CountDownLatch sendStarted = new CountDownLatch(1);
+		private final BlockingQueue<Throwable> completion = new LinkedBlockingQueue<>();
+		private volatile CountDownLatch gate;
+		private volatile IOException failure;
+		volatile String lastSendThread;
+
+		void stall() {
+			gate = new CountDownLatch(1);
+		}
+
+		void resume() {
+			gate.countDown();
+		}
+
+		void failWith(IOException e) {
+			failure = e;
+		}
+
+		void awaitSendStarted() throws InterruptedException {
+			assertThat(sendStarted.await(5, TimeUnit.SECONDS)).isTrue();
+		}
+
+		Throwable awaitCompletion() throws InterruptedException {
+			return completion.poll(5, TimeUnit.SECONDS);
+		}
+
+		List<String> awaitIds(int count) throws InterruptedException {
+			List<String> ids = new ArrayList<>();
+			while (ids.size() < count) {
+				String event = received.poll(5, TimeUnit.SECONDS);
+				if (event == null) {
+					break;
+				}
+				Matcher matcher = EVENT_ID.matcher(event);
+				if (matcher.find()) {
+					ids.add(matcher.group(1));
+				}
+			}
+			return ids;
+		}
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			StringBuilder text = new StringBuilder();
+			for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+				text.append(part.getData() instanceof String data ? data : "<json>");
+			}
+			String event = text.toString().trim();
+			if (event.startsWith("event:connected")) {
+				received.add(event);
+				return;
+			}
+			lastSendThread = Thread.currentThread().getName();
+			sendStarted.countDown();
+			if (failure != null) {
+				throw failure;
+			}
+			CountDownLatch current = gate;
+			if (current != null) {
+				try {
+					current.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException(e);
+				}
+			}
+			received.add(event);
+		}
+
+		@Override
+		public void completeWithError(Throwable ex) {
+			completion.add(ex);
+			super.completeWithError(ex);
+		}
+	}
+}
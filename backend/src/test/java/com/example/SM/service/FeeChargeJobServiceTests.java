@@ -0,0 +1,197 @@
+package com.example.SM.service;
+
+import com.example.SM.entity.FeeChargeRun;
+import com.example.SM.entity.SchoolClass;
+import com.example.SM.entity.Student;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The monthly charge run commits one chunk of students at a time together with its checkpoint, so
+ * it can be stopped anywhere and run again without missing or double-charging anyone.
+ */
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:fee_charge_job;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=MONTH,VALUE,YEAR;DB_CLOSE_DELAY=-1",
+	"spring.datasource.username=sa",
+	"spring.datasource.password=",
+	"spring.datasource.driver-class-name=org.h2.Driver",
+	"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.hibernate.ddl-auto=none",
+	"fees.charge-job.run-on-startup=false",
+	"fees.charge-job.chunk-size=2",
+	"ratelimit.enabled=false"
+})
+class FeeChargeJobServiceTests {
+
+	private static final String MONTH = "2024-09";
+	private static final BigDecimal FEE = new BigDecimal("1000.00");
+
+	@Autowired
+	private FeeChargeJobService feeChargeJobService;
+
+	@Autowired
+	private FeeLedgerService feeLedgerService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private long classId;
+	private final List<Long> students = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.update("DELETE FROM fee_ledger_entries");
+		jdbcTemplate.update("DELETE FROM student_fee_balances");
+		jdbcTemplate.update("DELETE FROM fee_charge_runs");
+		jdbcTemplate.update("DELETE FROM students");
+		jdbcTemplate.update("DELETE FROM fee_structures");
+		jdbcTemplate.update("DELETE FROM school_classes");
+
+		jdbcTemplate.update("INSERT INTO school_classes (class_name, grade, active) VALUES ('Charge Job', 'Grade 7', TRUE)");
+		classId = jdbcTemplate.queryForObject("SELECT id FROM school_classes WHERE class_name = 'Charge Job'", Long.class);
+		jdbcTemplate.update("INSERT INTO fee_structures (class_id, total_fee) VALUES (?, ?)", classId, FEE);
+		students.clear();
+		for (int i = 1; i <= 5; i++) {
+			students.add(createStudent("CJ-000" + i, "Active"));
+		}
+		createStudent("CJ-0009", "Inactive");
+	}
+
+	@AfterEach
+	void tearDown() {
+		ReflectionTestUtils.setField(target(), "feeLedgerService", feeLedgerService);
+	}
+
+	@Test
+	void interruptedRunResumesAfterTheLastCommittedChunk() {
+		// Chunks of two: the second chunk writes its charges, then the connection drops before commit
+		ReflectionTestUtils.setField(target(), "feeLedgerService", new FailingLedger(feeLedgerService, 2));
+
+		FeeChargeRun failed = feeChargeJobService.run(MONTH);
+
+		assertThat(failed.getStatus()).isEqualTo(FeeChargeRun.Status.FAILED);
+		assertThat(failed.getLastError()).isEqualTo("Connection lost");
+		assertThat(committedRun()).containsExactly("FAILED", students.get(1), 2, 2);
+		assertThat(chargedStudents()).containsExactly(students.get(0), students.get(1));
+
+		ReflectionTestUtils.setField(target(), "feeLedgerService", feeLedgerService);
+		FeeChargeRun resumed = feeChargeJobService.run(MONTH);
+
+		assertThat(resumed.getStatus()).isEqualTo(FeeChargeRun.Status.COMPLETED);
+		assertThat(resumed.getTotalStudents()).isEqualTo(5);
+		assertThat(committedRun()).containsExactly("COMPLETED", students.get(4), 5, 5);
+		assertThat(chargedStudents()).containsExactlyElementsOf(students);
+		assertThat(balances()).containsOnly(FEE);
+	}
+
+	@Test
+	void studentsAlreadyChargedByAPaymentAreSkipped() {
+		// A payment earlier in the month posted this student's charge
+		feeLedgerService.postCharge(student(students.get(2)), schoolClass(classId), MONTH, FEE, LocalDate.of(2024, 9, 3));
+
+		FeeChargeRun run = feeChargeJobService.run(MONTH);
+
+		assertThat(run.getStatus()).isEqualTo(FeeChargeRun.Status.COMPLETED);
+		assertThat(committedRun()).containsExactly("COMPLETED", students.get(4), 5, 4);
+		assertThat(chargedStudents()).containsExactlyElementsOf(students);
+		assertThat(balances()).containsOnly(FEE);
+	}
+
+	@Test
+	void rerunningAMonthNeverChargesTwice() {
+		feeChargeJobService.run(MONTH);
+		FeeChargeRun again = feeChargeJobService.run(MONTH);
+
+		assertThat(again.getChargesCreated()).isEqualTo(5);
+		assertThat(chargedStudents()).containsExactlyElementsOf(students);
+
+		// Even with the checkpoint gone the ledger's unique charge per month holds
+		jdbcTemplate.update("DELETE FROM fee_charge_runs");
+		FeeChargeRun fromScratch = feeChargeJobService.run(MONTH);
+
+		assertThat(fromScratch.getStatus()).isEqualTo(FeeChargeRun.Status.COMPLETED);
+		assertThat(committedRun()).containsExactly("COMPLETED", students.get(4), 5, 0);
+		assertThat(chargedStudents()).containsExactlyElementsOf(students);
+		assertThat(balances()).containsOnly(FEE);
+	}
+
+	// status, last_student_id, students_processed and charges_created as committed
+	private List<Object> committedRun() {
+		return jdbcTemplate.queryForObject("SELECT status, last_student_id, students_processed, charges_created "
+				+ "FROM fee_charge_runs WHERE month = ?",
+			(rs, i) -> List.of(rs.getString(1), rs.getLong(2), rs.getInt(3), rs.getInt(4)), MONTH);
+	}
+
+	private List<Long> chargedStudents() {
+		return jdbcTemplate.queryForList("SELECT student_id FROM fee_ledger_entries "
+			+ "WHERE month = ? AND entry_type = 'CHARGE' ORDER BY student_id", Long.class, MONTH);
+	}
+
+	private List<BigDecimal> balances() {
+		return jdbcTemplate.queryForList("SELECT balance FROM student_fee_balances", BigDecimal.class);
+	}
+
+	private FeeChargeJobService target() {
+		return AopTestUtils.getTargetObject(feeChargeJobService);
+	}
+
+	private long createStudent(String studentId, String status) {
+		Timestamp created = Timestamp.valueOf(LocalDateTime.now().minusHours(1));
+		jdbcTemplate.update("INSERT INTO students (student_id, first_name, last_name, grade, email, status, "
+			+ "registration_date, created_at, updated_at, class_id) VALUES (?, 'Charge', 'Student', 'Grade 7', ?, "
+			+ "?, ?, ?, ?, ?)", studentId, studentId.toLowerCase() + "@test.local", status,
+			Date.valueOf(LocalDate.now()), created, created, classId);
+		return jdbcTemplate.queryForObject("SELECT id FROM students WHERE student_id = ?", Long.class, studentId);
+	}
+
+	private static Student student(long id) {
+		Student student = new Student();
+		student.setId(id);
+		return student;
+	}
+
+	private static SchoolClass schoolClass(long id) {
+		SchoolClass schoolClass = new SchoolClass();
+		schoolClass.setId(id);
+		return schoolClass;
+	}
+
+	// Posts through the real ledger, then fails the chosen chunk before its transaction commits
+	private static class FailingLedger extends FeeLedgerService {
+
+		private final FeeLedgerService delegate;
+		private final int failingChunk;
+		private int chunks;
+
+		FailingLedger(FeeLedgerService delegate, int failingChunk) {
+			this.delegate = delegate;
+			this.failingChunk = failingChunk;
+		}
+
+		@Override
+		public int postCharges(String month, LocalDate entryDate, List<MonthlyCharge> charges) {
+			int created = delegate.postCharges(month, entryDate, charges);
+			if (++chunks == failingChunk) {
+				throw new RuntimeException("Connection lost");
+			}
+			return created;
+		}
+	}
+}
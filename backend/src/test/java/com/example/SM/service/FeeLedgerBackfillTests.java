@@ -0,0 +1,130 @@
+package com.example.SM.service;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * V4 builds the ledger for data recorded before it existed: every active month since registration
+ * is charged, not only the months that happen to have a payment.
+ */
+class FeeLedgerBackfillTests {
+
+	private final YearMonth now = YearMonth.now();
+
+	private DriverManagerDataSource dataSource;
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		dataSource = new DriverManagerDataSource(
+			"jdbc:h2:mem:fee_ledger_backfill_" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=MONTH,VALUE,YEAR;DB_CLOSE_DELAY=-1",
+			"sa", "");
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		migrateTo("3");
+	}
+
+	@Test
+	void activeStudentsAreChargedForEveryMonthSinceRegistration() {
+		long classId = createClass("Backfill A", "1000.00");
+		long studentId = createStudent("BF-0001", classId, "Active", now.minusMonths(2).atDay(20));
+		createPayment(studentId, classId, now.minusMonths(1), "500.00");
+
+		migrateTo("4");
+
+		assertThat(ledger(studentId)).containsExactly(
+			"CHARGE " + now.minusMonths(2) + " 1000.00 1000.00",
+			"CHARGE " + now.minusMonths(1) + " 1000.00 2000.00",
+			"PAYMENT " + now.minusMonths(1) + " 500.00 1500.00",
+			"CHARGE " + now + " 1000.00 2500.00");
+		assertThat(balance(studentId)).isEqualByComparingTo("2500.00");
+	}
+
+	@Test
+	void monthsAcrossAYearEndAreNumberedCorrectly() {
+		long classId = createClass("Backfill B", "100.00");
+		long studentId = createStudent("BF-0002", classId, "Active", now.minusMonths(13).atDay(1));
+
+		migrateTo("4");
+
+		List<String> months = jdbcTemplate.queryForList(
+			"SELECT month FROM fee_ledger_entries WHERE student_id = ? ORDER BY id", String.class, studentId);
+		assertThat(months).hasSize(14);
+		assertThat(months.get(0)).isEqualTo(now.minusMonths(13).toString());
+		assertThat(months.get(13)).isEqualTo(now.toString());
+		assertThat(balance(studentId)).isEqualByComparingTo("1400.00");
+	}
+
+	@Test
+	void inactiveOrUndatedStudentsAreOnlyChargedForPaidMonths() {
+		long classId = createClass("Backfill C", "1000.00");
+		long otherClassId = createClass("Backfill D", "800.00");
+		long leftSchool = createStudent("BF-0003", classId, "Inactive", now.minusMonths(6).atDay(1));
+		long undated = createStudent("BF-0004", classId, "Active", null);
+		// Paid in a class the student has since left
+		createPayment(leftSchool, otherClassId, now.minusMonths(5), "800.00");
+
+		migrateTo("4");
+
+		assertThat(ledger(leftSchool)).containsExactly(
+			"CHARGE " + now.minusMonths(5) + " 800.00 800.00",
+			"PAYMENT " + now.minusMonths(5) + " 800.00 0.00");
+		assertThat(balance(leftSchool)).isEqualByComparingTo("0.00");
+		assertThat(ledger(undated)).isEmpty();
+	}
+
+	private void migrateTo(String version) {
+		Flyway.configure()
+			.dataSource(dataSource)
+			.locations("classpath:db/migration")
+			.target(version)
+			.load()
+			.migrate();
+	}
+
+	private List<String> ledger(long studentId) {
+		return jdbcTemplate.query("SELECT entry_type, month, amount, balance_after FROM fee_ledger_entries "
+				+ "WHERE student_id = ? ORDER BY id",
+			(rs, i) -> rs.getString(1) + " " + rs.getString(2) + " " + rs.getBigDecimal(3) + " " + rs.getBigDecimal(4),
+			studentId);
+	}
+
+	private BigDecimal balance(long studentId) {
+		return jdbcTemplate.queryForObject("SELECT balance FROM student_fee_balances WHERE student_id = ?",
+			BigDecimal.class, studentId);
+	}
+
+	private long createClass(String name, String totalFee) {
+		jdbcTemplate.update("INSERT INTO school_classes (class_name, grade, active) VALUES (?, 'Grade 7', TRUE)", name);
+		long classId = jdbcTemplate.queryForObject("SELECT id FROM school_classes WHERE class_name = ?", Long.class, name);
+		jdbcTemplate.update("INSERT INTO fee_structures (class_id, total_fee) VALUES (?, ?)", classId, new BigDecimal(totalFee));
+		return classId;
+	}
+
+	private long createStudent(String studentId, long classId, String status, LocalDate registered) {
+		jdbcTemplate.update("INSERT INTO students (student_id, first_name, last_name, grade, email, status, "
+			+ "registration_date, created_at, class_id) VALUES (?, 'Backfill', 'Student', 'Grade 7', ?, ?, ?, ?, ?)",
+			studentId, studentId.toLowerCase() + "@test.local", status,
+			registered != null ? Date.valueOf(registered) : null, Timestamp.valueOf(LocalDateTime.now()), classId);
+		return jdbcTemplate.queryForObject("SELECT id FROM students WHERE student_id = ?", Long.class, studentId);
+	}
+
+	private void createPayment(long studentId, long classId, YearMonth month, String amount) {
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		jdbcTemplate.update("INSERT INTO fee_payments (student_id, class_id, amount_paid, payment_date, month, "
+			+ "payment_method, status, created_at, updated_at) VALUES (?, ?, ?, ?, ?, 'CASH', 'PAID', ?, ?)",
+			studentId, classId, new BigDecimal(amount), Date.valueOf(month.atDay(10)), month.toString(), now, now);
+	}
+}
@@ -0,0 +1,211 @@
+package com.example.SM.service;
+
+import com.example.SM.entity.FeePayment;
+import com.example.SM.entity.FeeStructure;
+import com.example.SM.entity.SchoolClass;
+import com.example.SM.entity.Student;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every ledger row carries the student's balance after it. Batch postings apply each student's net
+ * delta in one upsert and work balance_after back from the new balance, so the rows must come out
+ * the same as if they had been posted one at a time.
+ */
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:fee_ledger;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=MONTH,VALUE,YEAR;DB_CLOSE_DELAY=-1",
+	"spring.datasource.username=sa",
+	"spring.datasource.password=",
+	"spring.datasource.driver-class-name=org.h2.Driver",
+	"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.hibernate.ddl-auto=none",
+	"fees.charge-job.run-on-startup=false",
+	"ratelimit.enabled=false"
+})
+class FeeLedgerServiceTests {
+
+	private static final BigDecimal FEE = new BigDecimal("1000.00");
+
+	@Autowired
+	private FeeLedgerService feeLedgerService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void batchChargesContinueFromTheExistingBalance() {
+		long classId = createClass("Ledger A");
+		long owing = createStudent("LA-0001", classId);
+		long fresh = createStudent("LA-0002", classId);
+		feeLedgerService.postCharge(student(owing), schoolClass(classId), "2024-01", FEE, LocalDate.of(2024, 1, 1));
+
+		int created = feeLedgerService.postCharges("2024-02", LocalDate.of(2024, 2, 1), List.of(
+			new FeeLedgerService.MonthlyCharge(owing, classId, FEE),
+			new FeeLedgerService.MonthlyCharge(fresh, classId, FEE)));
+
+		assertThat(created).isEqualTo(2);
+		assertThat(balancesAfter(owing)).containsExactly("CHARGE 2024-01 1000.00", "CHARGE 2024-02 2000.00");
+		assertThat(balancesAfter(fresh)).containsExactly("CHARGE 2024-02 1000.00");
+		assertThat(totals(owing)).containsExactly(new BigDecimal("2000.00"), new BigDecimal("0.00"), new BigDecimal("2000.00"));
+		assertThat(totals(fresh)).containsExactly(FEE, new BigDecimal("0.00"), FEE);
+	}
+
+	@Test
+	void batchChargesSkipStudentsAlreadyChargedForTheMonth() {
+		long classId = createClass("Ledger B");
+		long charged = createStudent("LB-0001", classId);
+		long uncharged = createStudent("LB-0002", classId);
+		feeLedgerService.postCharge(student(charged), schoolClass(classId), "2024-03", FEE, LocalDate.of(2024, 3, 1));
+
+		int created = feeLedgerService.postCharges("2024-03", LocalDate.of(2024, 3, 1), List.of(
+			new FeeLedgerService.MonthlyCharge(charged, classId, FEE),
+			new FeeLedgerService.MonthlyCharge(uncharged, classId, FEE)));
+
+		assertThat(created).isEqualTo(1);
+		assertThat(balancesAfter(charged)).containsExactly("CHARGE 2024-03 1000.00");
+		assertThat(totals(charged)).containsExactly(FEE, new BigDecimal("0.00"), FEE);
+	}
+
+	@Test
+	void mixedBatchWithSeveralPostingsPerStudentKeepsARunningBalance() {
+		long classId = createClass("Ledger C");
+		long first = createStudent("LC-0001", classId);
+		long second = createStudent("LC-0002", classId);
+		feeLedgerService.postCharge(student(first), schoolClass(classId), "2024-04", FEE, LocalDate.of(2024, 4, 1));
+
+		// April is already charged; May's charge is posted ahead of its payment; the students interleave
+		List<FeePayment> payments = List.of(
+			payment(first, classId, "2024-04", "600.00"),
+			payment(second, classId, "2024-04", "1000.00"),
+			payment(first, classId, "2024-05", "400.00"));
+		transactionTemplate.executeWithoutResult(status -> feeLedgerService.postPayments(payments));
+
+		assertThat(balancesAfter(first)).containsExactly(
+			"CHARGE 2024-04 1000.00", "PAYMENT 2024-04 400.00", "CHARGE 2024-05 1400.00", "PAYMENT 2024-05 1000.00");
+		assertThat(balancesAfter(second)).containsExactly("CHARGE 2024-04 1000.00", "PAYMENT 2024-04 0.00");
+		assertThat(totals(first)).containsExactly(new BigDecimal("2000.00"), new BigDecimal("1000.00"), new BigDecimal("1000.00"));
+		assertThat(totals(second)).containsExactly(FEE, FEE, new BigDecimal("0.00"));
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM fee_ledger_entries WHERE payment_id = ?",
+			Integer.class, payments.get(2).getId())).isEqualTo(1);
+	}
+
+	@Test
+	void paymentRacingTheChargeJobFindsItsChargeAlreadyPosted() throws Exception {
+		long classId = createClass("Ledger D");
+		long studentId = createStudent("LD-0001", classId);
+		feeLedgerService.postCharge(student(studentId), schoolClass(classId), "2024-05", FEE, LocalDate.of(2024, 5, 1));
+		FeePayment payment = payment(studentId, classId, "2024-06", "300.00");
+
+		// The charge job posts June and holds its transaction open
+		CountDownLatch posted = new CountDownLatch(1);
+		CountDownLatch commit = new CountDownLatch(1);
+		CompletableFuture<Void> job = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+			feeLedgerService.postCharges("2024-06", LocalDate.of(2024, 6, 1),
+				List.of(new FeeLedgerService.MonthlyCharge(studentId, classId, FEE)));
+			posted.countDown();
+			await(commit);
+		}));
+		assertThat(posted.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// The cashier's payment does not see the uncommitted charge and queues on the balance row
+		CompletableFuture<Void> cashier = CompletableFuture.runAsync(() -> feeLedgerService.postPayment(payment));
+		Thread.sleep(200);
+		commit.countDown();
+		job.get(10, TimeUnit.SECONDS);
+		cashier.get(10, TimeUnit.SECONDS);
+
+		assertThat(balancesAfter(studentId)).containsExactly(
+			"CHARGE 2024-05 1000.00", "CHARGE 2024-06 2000.00", "PAYMENT 2024-06 1700.00");
+		assertThat(totals(studentId)).containsExactly(new BigDecimal("2000.00"), new BigDecimal("300.00"), new BigDecimal("1700.00"));
+	}
+
+	private List<String> balancesAfter(long studentId) {
+		return jdbcTemplate.query("SELECT entry_type, month, balance_after FROM fee_ledger_entries WHERE student_id = ? ORDER BY id",
+			(rs, i) -> rs.getString(1) + " " + rs.getString(2) + " " + rs.getBigDecimal(3), studentId);
+	}
+
+	private List<BigDecimal> totals(long studentId) {
+		Map<String, Object> row = jdbcTemplate.queryForMap(
+			"SELECT total_charged, total_paid, balance FROM student_fee_balances WHERE student_id = ?", studentId);
+		return List.of((BigDecimal) row.get("total_charged"), (BigDecimal) row.get("total_paid"), (BigDecimal) row.get("balance"));
+	}
+
+	private long createClass(String name) {
+		jdbcTemplate.update("INSERT INTO school_classes (class_name, grade, active) VALUES (?, 'Grade 7', TRUE)", name);
+		long classId = jdbcTemplate.queryForObject("SELECT id FROM school_classes WHERE class_name = ?", Long.class, name);
+		jdbcTemplate.update("INSERT INTO fee_structures (class_id, total_fee) VALUES (?, ?)", classId, FEE);
+		return classId;
+	}
+
+	private long createStudent(String studentId, long classId) {
+		Timestamp created = Timestamp.valueOf(LocalDateTime.now().minusHours(1));
+		jdbcTemplate.update("INSERT INTO students (student_id, first_name, last_name, grade, email, status, "
+			+ "registration_date, created_at, updated_at, class_id) VALUES (?, 'Ledger', 'Student', 'Grade 7', ?, "
+			+ "'Active', ?, ?, ?, ?)", studentId, studentId.toLowerCase() + "@test.local",
+			Date.valueOf(LocalDate.now()), created, created, classId);
+		return jdbcTemplate.queryForObject("SELECT id FROM students WHERE student_id = ?", Long.class, studentId);
+	}
+
+	// Saved with plain JDBC, as record-batch would have before posting it
+	private FeePayment payment(long studentId, long classId, String month, String amount) {
+		LocalDate paidOn = LocalDate.parse(month + "-10");
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		Long feeStructureId = jdbcTemplate.queryForObject("SELECT id FROM fee_structures WHERE class_id = ?", Long.class, classId);
+		jdbcTemplate.update("INSERT INTO fee_payments (student_id, fee_structure_id, class_id, amount_paid, payment_date, "
+			+ "month, payment_method, status, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, 'CASH', 'PAID', ?, ?)",
+			studentId, feeStructureId, classId, new BigDecimal(amount), Date.valueOf(paidOn), month, now, now);
+
+		FeeStructure feeStructure = new FeeStructure();
+		feeStructure.setId(feeStructureId);
+		feeStructure.setTotalFee(FEE);
+		FeePayment payment = new FeePayment();
+		payment.setId(jdbcTemplate.queryForObject("SELECT MAX(id) FROM fee_payments", Long.class));
+		payment.setStudent(student(studentId));
+		payment.setSchoolClass(schoolClass(classId));
+		payment.setFeeStructure(feeStructure);
+		payment.setAmountPaid(new BigDecimal(amount));
+		payment.setPaymentDate(paidOn);
+		payment.setMonth(month);
+		return payment;
+	}
+
+	private static Student student(long id) {
+		Student student = new Student();
+		student.setId(id);
+		return student;
+	}
+
+	private static SchoolClass schoolClass(long id) {
+		SchoolClass schoolClass = new SchoolClass();
+		schoolClass.setId(id);
+		return schoolClass;
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
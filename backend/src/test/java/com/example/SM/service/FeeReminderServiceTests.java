@@ -0,0 +1,215 @@
+package com.example.SM.service;
+
+import com.example.SM.dto.ReminderCampaignReport;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Each address gets at most one overdue reminder per month, however often the campaign runs.
+ * Only accepted messages are recorded in fee_reminders, so a rerun retries the ones that failed.
+ */
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:fee_reminders;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=MONTH,VALUE,YEAR;DB_CLOSE_DELAY=-1",
+	"spring.datasource.username=sa",
+	"spring.datasource.password=",
+	"spring.datasource.driver-class-name=org.h2.Driver",
+	"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.hibernate.ddl-auto=none",
+	"fees.charge-job.run-on-startup=false",
+	"fees.reminders.rate-per-second=1000",
+	"ratelimit.enabled=false"
+})
+class FeeReminderServiceTests {
+
+	private static final YearMonth SEPTEMBER = YearMonth.of(2024, 9);
+
+	@Autowired
+	private FeeReminderService feeReminderService;
+
+	@Autowired
+	private JavaMailSender mailSender;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private RecordingMailSender outbox;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.update("DELETE FROM fee_reminders");
+		jdbcTemplate.update("DELETE FROM fee_payments");
+		jdbcTemplate.update("DELETE FROM students");
+		jdbcTemplate.update("DELETE FROM fee_structures");
+		jdbcTemplate.update("DELETE FROM school_classes");
+
+		jdbcTemplate.update("INSERT INTO school_classes (class_name, grade, active) VALUES ('Reminders', 'Grade 7', TRUE)");
+		long classId = jdbcTemplate.queryForObject("SELECT id FROM school_classes WHERE class_name = 'Reminders'", Long.class);
+		jdbcTemplate.update("INSERT INTO fee_structures (class_id, total_fee) VALUES (?, 1000)", classId);
+		// Siblings sharing an address, written with different case
+		createStudent("RM-0001", "Asha", "family@test.local", classId);
+		createStudent("RM-0002", "Ravi", "FAMILY@test.local ", classId);
+		createStudent("RM-0003", "Nimal", "nimal@test.local", classId);
+		createStudent("RM-0004", "Kamal", "kamal@test.local", classId);
+		long paid = createStudent("RM-0005", "Paid", "paid@test.local", classId);
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		jdbcTemplate.update("INSERT INTO fee_payments (student_id, class_id, amount_paid, payment_date, month, "
+			+ "payment_method, status, created_at, updated_at) VALUES (?, ?, 1000, ?, ?, 'CASH', 'PAID', ?, ?)",
+			paid, classId, Date.valueOf(SEPTEMBER.atDay(3)), SEPTEMBER.toString(), now, now);
+
+		outbox = new RecordingMailSender();
+		ReflectionTestUtils.setField(target(), "mailSender", outbox);
+	}
+
+	@AfterEach
+	void tearDown() {
+		ReflectionTestUtils.setField(target(), "mailSender", mailSender);
+	}
+
+	@Test
+	void eachAddressIsRemindedOncePerMonth() {
+		ReminderCampaignReport first = send(SEPTEMBER);
+
+		assertThat(first.overdueStudents()).isEqualTo(4);
+		assertThat(first.recipients()).isEqualTo(3);
+		assertThat(first.sent()).isEqualTo(3);
+		assertThat(outbox.delivered).containsExactly("family@test.local", "kamal@test.local", "nimal@test.local");
+		assertThat(remindedAddresses(SEPTEMBER)).containsExactly("family@test.local", "kamal@test.local", "nimal@test.local");
+
+		outbox.delivered.clear();
+		ReminderCampaignReport rerun = send(SEPTEMBER);
+
+		assertThat(rerun.sent()).isZero();
+		assertThat(rerun.alreadyReminded()).isEqualTo(4);
+		assertThat(outbox.delivered).isEmpty();
+
+		// A new month starts over; RM-0005 only paid for September
+		ReminderCampaignReport october = send(SEPTEMBER.plusMonths(1));
+		assertThat(october.sent()).isEqualTo(4);
+		assertThat(remindedAddresses(SEPTEMBER.plusMonths(1))).hasSize(4);
+	}
+
+	@Test
+	void siblingsAreListedInOneMessage() throws Exception {
+		send(SEPTEMBER);
+
+		String family = outbox.bodies.get("family@test.local");
+		assertThat(family).contains("Dear Parent/Guardian,");
+		assertThat(family).contains("Asha Student (RM-0001)", "Ravi Student (RM-0002)");
+		assertThat(outbox.bodies.get("nimal@test.local")).contains("Dear Nimal Student,");
+	}
+
+	@Test
+	void rejectedRecipientsAreRetriedOnTheNextRun() {
+		outbox.rejecting.add("nimal@test.local");
+
+		ReminderCampaignReport first = send(SEPTEMBER);
+
+		assertThat(first.sent()).isEqualTo(2);
+		assertThat(first.failed()).isEqualTo(1);
+		assertThat(remindedAddresses(SEPTEMBER)).containsExactly("family@test.local", "kamal@test.local");
+
+		outbox.rejecting.clear();
+		outbox.delivered.clear();
+		ReminderCampaignReport retry = send(SEPTEMBER);
+
+		assertThat(retry.sent()).isEqualTo(1);
+		assertThat(retry.alreadyReminded()).isEqualTo(3);
+		assertThat(outbox.delivered).containsExactly("nimal@test.local");
+		assertThat(remindedAddresses(SEPTEMBER)).containsExactly("family@test.local", "kamal@test.local", "nimal@test.local");
+	}
+
+	@Test
+	void batchThatFailsOutrightMarksNobody() {
+		outbox.failure = new MailAuthenticationException("535 Authentication failed");
+
+		ReminderCampaignReport report = send(SEPTEMBER);
+
+		assertThat(report.sent()).isZero();
+		assertThat(report.failed()).isEqualTo(3);
+		assertThat(remindedAddresses(SEPTEMBER)).isEmpty();
+	}
+
+	private ReminderCampaignReport send(YearMonth month) {
+		return ReflectionTestUtils.invokeMethod(target(), "send", month);
+	}
+
+	private List<String> remindedAddresses(YearMonth month) {
+		return jdbcTemplate.queryForList("SELECT email FROM fee_reminders WHERE month = ? ORDER BY email",
+			String.class, month.toString());
+	}
+
+	private FeeReminderService target() {
+		return AopTestUtils.getTargetObject(feeReminderService);
+	}
+
+	private long createStudent(String studentId, String firstName, String email, long classId) {
+		Timestamp created = Timestamp.valueOf(LocalDateTime.now().minusHours(1));
+		jdbcTemplate.update("INSERT INTO students (student_id, first_name, last_name, grade, email, status, "
+			+ "registration_date, created_at, updated_at, class_id) VALUES (?, ?, 'Student', 'Grade 7', ?, "
+			+ "'Active', ?, ?, ?, ?)", studentId, firstName, email, Date.valueOf(LocalDate.now()), created, created, classId);
+		return jdbcTemplate.queryForObject("SELECT id FROM students WHERE student_id = ?", Long.class, studentId);
+	}
+
+	// Accepts messages in memory; can reject given recipients, or fail the whole batch as a connection error would
+	private static class RecordingMailSender extends JavaMailSenderImpl {
+
+		final List<String> delivered = new ArrayList<>();
+		final Map<String, String> bodies = new LinkedHashMap<>();
+		final Set<String> rejecting = new HashSet<>();
+		volatile MailException failure;
+
+		@Override
+		public void send(MimeMessage... mimeMessages) throws MailException {
+			if (failure != null) {
+				throw failure;
+			}
+			Map<Object, Exception> failed = new LinkedHashMap<>();
+			for (MimeMessage message : mimeMessages) {
+				try {
+					String to = message.getRecipients(Message.RecipientType.TO)[0].toString();
+					if (rejecting.contains(to)) {
+						failed.put(message, new MessagingException("550 No such user"));
+						continue;
+					}
+					delivered.add(to);
+					bodies.put(to, (String) message.getContent());
+				} catch (MessagingException | IOException e) {
+					failed.put(message, e);
+				}
+			}
+			if (!failed.isEmpty()) {
+				throw new MailSendException(failed);
+			}
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package com.example.SM.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRevocationServiceTests {
+
+	private TokenRevocationService service;
+
+	@BeforeEach
+	void setUp() {
+		service = new TokenRevocationService();
+		ReflectionTestUtils.setField(service, "expectedEntries", 1000);
+		ReflectionTestUtils.setField(service, "falsePositiveRate", 0.01);
+		service.init();
+	}
+
+	@Test
+	void bloomFilterHasNoFalseNegatives() {
+		TokenRevocationService.BloomFilter filter = new TokenRevocationService.BloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.add("jti-" + i);
+		}
+		for (int i = 0; i < 10_000; i++) {
+			assertThat(filter.mightContain("jti-" + i)).as("jti-%d", i).isTrue();
+		}
+	}
+
+	@Test
+	void bloomFilterFalsePositiveRateStaysNearTheConfiguredRate() {
+		TokenRevocationService.BloomFilter filter = new TokenRevocationService.BloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.add(UUID.randomUUID().toString());
+		}
+		int falsePositives = 0;
+		int probes = 100_000;
+		for (int i = 0; i < probes; i++) {
+			if (filter.mightContain(UUID.randomUUID().toString())) {
+				falsePositives++;
+			}
+		}
+		assertThat((double) falsePositives / probes).isLessThan(0.02);
+	}
+
+	@Test
+	void revokedTokenIsRejectedAndCannotBeRevokedTwice() {
+		Date expiresAt = new Date(System.currentTimeMillis() + 60_000);
+
+		assertThat(service.isRevoked("refresh-1")).isFalse();
+		assertThat(service.revoke("refresh-1", expiresAt)).isTrue();
+		assertThat(service.isRevoked("refresh-1")).isTrue();
+		// A refresh token presented a second time
+		assertThat(service.revoke("refresh-1", expiresAt)).isFalse();
+		assertThat(service.isRevoked("refresh-2")).isFalse();
+	}
+
+	@Test
+	void alreadyExpiredTokensAreNotStored() {
+		assertThat(service.revoke("old", new Date(System.currentTimeMillis() - 1000))).isFalse();
+		assertThat(service.revoke(null, new Date(System.currentTimeMillis() + 60_000))).isFalse();
+		assertThat(service.size()).isZero();
+	}
+
+	@Test
+	void purgeDropsExpiredEntriesAndKeepsLiveOnesRevoked() throws InterruptedException {
+		service.revoke("short-lived", new Date(System.currentTimeMillis() + 50));
+		service.revoke("long-lived", new Date(System.currentTimeMillis() + 60_000));
+		Thread.sleep(100);
+
+		service.purgeExpired();
+
+		assertThat(service.size()).isEqualTo(1);
+		assertThat(service.isRevoked("short-lived")).isFalse();
+		// Still found after the filter was rebuilt
+		assertThat(service.isRevoked("long-lived")).isTrue();
+	}
+}
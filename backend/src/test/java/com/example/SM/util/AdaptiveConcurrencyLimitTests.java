@@ -0,0 +1,84 @@
+package com.example.SM.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTests {
+
+	private static final long TARGET_MS = 100;
+
+	@Test
+	void rejectsCallsOverTheLimit() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, TARGET_MS);
+
+		assertThat(limit.tryAcquire()).isTrue();
+		assertThat(limit.tryAcquire()).isTrue();
+		assertThat(limit.tryAcquire()).isFalse();
+		assertThat(limit.getInFlight()).isEqualTo(2);
+
+		limit.release(System.nanoTime());
+		assertThat(limit.tryAcquire()).isTrue();
+	}
+
+	@Test
+	void slowCallsShrinkTheLimitOncePerTargetWindow() throws InterruptedException {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 1, 50, TARGET_MS);
+		Thread.sleep(2 * TARGET_MS);
+
+		acquireAndRelease(limit, slowStart());
+		assertThat(limit.getLimit()).isEqualTo(18);
+		// A second slow call in the same window is the same overload, not a new one
+		acquireAndRelease(limit, slowStart());
+		assertThat(limit.getLimit()).isEqualTo(18);
+
+		Thread.sleep(2 * TARGET_MS);
+		acquireAndRelease(limit, slowStart());
+		assertThat(limit.getLimit()).isEqualTo(17);
+	}
+
+	@Test
+	void neverShrinksBelowTheMinimum() throws InterruptedException {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(3, 2, 10, TARGET_MS);
+		for (int i = 0; i < 5; i++) {
+			Thread.sleep(2 * TARGET_MS);
+			acquireAndRelease(limit, slowStart());
+		}
+		assertThat(limit.getLimit()).isEqualTo(2);
+	}
+
+	@Test
+	void fastCallsGrowTheLimitOnlyWhileItIsInUse() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 5, TARGET_MS);
+
+		// One call at a time never uses half the limit
+		for (int i = 0; i < 20; i++) {
+			acquireAndRelease(limit, System.nanoTime());
+		}
+		assertThat(limit.getLimit()).isEqualTo(4);
+
+		for (int round = 0; round < 10; round++) {
+			int acquired = 0;
+			while (limit.tryAcquire()) {
+				acquired++;
+			}
+			for (int i = 0; i < acquired; i++) {
+				limit.release(System.nanoTime());
+			}
+		}
+		// Grew, but not past the maximum
+		assertThat(limit.getLimit()).isEqualTo(5);
+		assertThat(limit.getInFlight()).isZero();
+	}
+
+	private static void acquireAndRelease(AdaptiveConcurrencyLimit limit, long startNanos) {
+		assertThat(limit.tryAcquire()).isTrue();
+		limit.release(startNanos);
+	}
+
+	private static long slowStart() {
+		return System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(2 * TARGET_MS);
+	}
+}
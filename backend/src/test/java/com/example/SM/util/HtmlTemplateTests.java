@@ -0,0 +1,70 @@
+package com.example.SM.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HtmlTemplateTests {
+
+	@Test
+	void doubleBracesEscapeValues() {
+		HtmlTemplate template = HtmlTemplate.compile("<p>Dear {{name}},</p>");
+
+		assertThat(template.render("O'Brien <script>alert(\"x\")</script> & Sons"))
+			.isEqualTo("<p>Dear O&#39;Brien &lt;script&gt;alert(&quot;x&quot;)&lt;/script&gt; &amp; Sons,</p>");
+	}
+
+	@Test
+	void tripleBracesInsertFragmentsAsIs() {
+		HtmlTemplate row = HtmlTemplate.compile("<tr><td>{{name}}</td></tr>");
+		HtmlTemplate page = HtmlTemplate.compile("<table>{{{rows}}}</table><p>{{name}}</p>");
+
+		StringBuilder rows = new StringBuilder();
+		row.renderTo(rows, "<b>Asha</b>");
+		row.renderTo(rows, "Ravi & Co");
+
+		assertThat(page.slotNames()).containsExactly("rows", "name");
+		assertThat(page.render(rows, "<i>Parent</i>")).isEqualTo(
+			"<table><tr><td>&lt;b&gt;Asha&lt;/b&gt;</td></tr><tr><td>Ravi &amp; Co</td></tr></table>"
+				+ "<p>&lt;i&gt;Parent&lt;/i&gt;</p>");
+	}
+
+	@Test
+	void repeatedPlaceholderTakesOneValue() {
+		HtmlTemplate template = HtmlTemplate.compile("{{ month }} fees for {{name}} ({{month}})");
+
+		assertThat(template.slotNames()).containsExactly("month", "name");
+		assertThat(template.render("2024-09", null)).isEqualTo("2024-09 fees for  (2024-09)");
+	}
+
+	@Test
+	void unclosedPlaceholderIsRejected() {
+		assertThatThrownBy(() -> HtmlTemplate.compile("<p>{{name</p>"))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Unclosed placeholder at offset 3");
+		// A raw placeholder needs all three closing braces
+		assertThatThrownBy(() -> HtmlTemplate.compile("<table>{{{rows}}</table>"))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Unclosed placeholder at offset 7");
+	}
+
+	@Test
+	void emptyPlaceholderIsRejected() {
+		assertThatThrownBy(() -> HtmlTemplate.compile("<p>{{ }}</p>"))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Empty placeholder at offset 3");
+		assertThatThrownBy(() -> HtmlTemplate.compile("{{{}}}"))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Empty placeholder at offset 0");
+	}
+
+	@Test
+	void wrongNumberOfValuesIsRejected() {
+		HtmlTemplate template = HtmlTemplate.compile("{{name}} {{studentId}}");
+
+		assertThatThrownBy(() -> template.render("Asha"))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Template expects 2 values [name, studentId], got 1");
+	}
+}
@@ -0,0 +1,73 @@
+package com.example.SM.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTests {
+
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	@Test
+	void startsFullAndAllowsABurstOfCapacity() {
+		TokenBucket bucket = new TokenBucket(3, 1.0, 0);
+
+		assertThat(bucket.tryConsume(0)).isZero();
+		assertThat(bucket.tryConsume(0)).isZero();
+		assertThat(bucket.tryConsume(0)).isZero();
+		// Empty: the next token is one refill interval away
+		assertThat(bucket.tryConsume(0)).isEqualTo(SECOND);
+	}
+
+	@Test
+	void refillsAtTheConfiguredRate() {
+		TokenBucket bucket = new TokenBucket(2, 2.0, 0);
+		bucket.tryConsume(0);
+		bucket.tryConsume(0);
+
+		assertThat(bucket.tryConsume(SECOND / 4)).isEqualTo(SECOND / 4);
+		assertThat(bucket.tryConsume(SECOND / 2)).isZero();
+		assertThat(bucket.tryConsume(SECOND / 2)).isPositive();
+	}
+
+	@Test
+	void idleTimeDoesNotAccumulateBeyondCapacity() {
+		TokenBucket bucket = new TokenBucket(2, 1.0, 0);
+		long later = 60 * SECOND;
+
+		assertThat(bucket.tryConsume(later)).isZero();
+		assertThat(bucket.tryConsume(later)).isZero();
+		assertThat(bucket.tryConsume(later)).isPositive();
+	}
+
+	@Test
+	void concurrentCallersNeverTakeMoreThanCapacity() throws InterruptedException {
+		TokenBucket bucket = new TokenBucket(50, 1.0, 0);
+		AtomicInteger allowed = new AtomicInteger();
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		CountDownLatch start = new CountDownLatch(1);
+		for (int i = 0; i < 400; i++) {
+			pool.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				if (bucket.tryConsume(0) == 0) {
+					allowed.incrementAndGet();
+				}
+			});
+		}
+		start.countDown();
+		pool.shutdown();
+		assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(allowed.get()).isEqualTo(50);
+	}
+}
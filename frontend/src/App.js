@@ -16,6 +16,7 @@ import Header from './components/common/Header';
 import Footer from './components/common/Footer';
 import './App.css';
 import ManualAttendance from './components/ManualAttendance';
+import TodayAttendance from './components/TodayAttendance';
 
 // Temporary placeholder components for other routes
 const StudentReports = () => <div className="coming-soon"><h2>Student Reports</h2></div>;
@@ -23,7 +24,6 @@ const OverdueFees = () => <div className="coming-soon"><h2>Overdue Fees</h2></di
 const FeeStructure = () => <div className="coming-soon"><h2>Fee Structure</h2></div>;
 const BulkActions = () => <div className="coming-soon"><h2>Bulk Actions</h2></div>;
 const SystemSettings = () => <div className="coming-soon"><h2>System Settings</h2></div>;
-const TodayAttendance = () => <div className="coming-soon"><h2>Today Attendance</h2></div>;
 const AttendanceSessions = () => <div className="coming-soon"><h2>Attendance Sessions</h2></div>;
 const QRGenerator = () => <div className="coming-soon"><h2>QR Generator</h2></div>;
 const DataExport = () => <div className="coming-soon"><h2>Data Export</h2></div>;
@@ -75,8 +75,6 @@ const ProtectedLayout = () => {
           <Route path="classes" element={<ClassManager />} />
           <Route path="schedules" element={<ScheduleManager />} />
           <Route path="fee-payment" element={<FeePaymentScanner />} />
-          <Route path="fee-management" element={<FeeManagement />} />
-          <Route path="payment-tracker" element={<PaymentTracker />} />
           
           {/* Admin Only Routes */}
           <Route path="manual-attendance" element={
@@ -84,6 +82,16 @@ const ProtectedLayout = () => {
               <ManualAttendance />
             </ProtectedRoute>
           } />
+          <Route path="fee-management" element={
+            <ProtectedRoute allowedRoles={['ADMIN']}>
+              <FeeManagement />
+            </ProtectedRoute>
+          } />
+          <Route path="payment-tracker" element={
+            <ProtectedRoute allowedRoles={['ADMIN']}>
+              <PaymentTracker />
+            </ProtectedRoute>
+          } />
           <Route path="student-reports" element={
             <ProtectedRoute allowedRoles={['ADMIN']}>
               <StudentReports />
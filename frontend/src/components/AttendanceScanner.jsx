@@ -18,6 +18,7 @@ const AttendanceScanner = () => {
   const [attendanceRestricted, setAttendanceRestricted] = useState(false);
   const [currentTime, setCurrentTime] = useState(new Date());
   const [loadingSchedules, setLoadingSchedules] = useState(false);
+  const [recentScans, setRecentScans] = useState([]);
 
   const html5QrCodeRef = useRef(null);
   const readerId = "reader";
@@ -62,6 +63,15 @@ const AttendanceScanner = () => {
     }
   }, [selectedClass]);
 
+  // Marks for the selected class from every scanner and teacher, pushed as they are saved
+  useEffect(() => {
+    setRecentScans([]);
+    if (!selectedClass) return undefined;
+    return attendanceAPI.subscribe({ classId: selectedClass.id }, (record) => {
+      setRecentScans(current => [record, ...current.filter(scan => scan.id !== record.id)].slice(0, 10));
+    });
+  }, [selectedClass]);
+
   const loadActiveClasses = async () => {
     try {
       const classes = await classAPI.getAllActive();
@@ -386,6 +396,16 @@ const AttendanceScanner = () => {
     }
   };
 
+  // A schedule is the weekly timetable slot; the session is today's instance of it
+  const findActiveSession = async (classId, schedule) => {
+    const sessions = await attendanceAPI.getActiveSessions();
+    return (Array.isArray(sessions) ? sessions : []).find(session =>
+      String(session.schoolClass?.id) === String(classId) &&
+      session.subject === schedule.subject &&
+      session.scheduledStartTime?.substring(0, 5) === schedule.startTime?.substring(0, 5)
+    );
+  };
+
   // Record attendance with schedule-based status
   const recordAttendance = async (studentData, classId) => {
     const now = new Date();
@@ -413,12 +433,12 @@ const AttendanceScanner = () => {
       let result;
       
       if (selectedSchedule?.id) {
-        // Try to record with session/schedule ID
-        result = await attendanceAPI.recordForSession(
-          studentData.studentId,
-          selectedSchedule.id,
-          attendanceStatus
-        );
+        // Scans go against today's active session for the schedule, which the server validates
+        const session = await findActiveSession(classId, selectedSchedule);
+        if (!session) {
+          throw new Error(`No active attendance session for ${selectedSchedule.subject} - start the session first`);
+        }
+        result = await attendanceAPI.recordForSession(studentData.studentId, session.id);
       } else {
         // Fallback to manual recording
         result = await attendanceAPI.recordManual(
@@ -643,6 +663,23 @@ const AttendanceScanner = () => {
               </div>
             </div>
           )}
+
+          {recentScans.length > 0 && (
+            <div className="time-legend recent-scans">
+              <h5>Recent Scans</h5>
+              {recentScans.map(scan => (
+                <div key={scan.id} className="recent-scan">
+                  <span>{scan.studentName || scan.studentId}</span>
+                  <span
+                    className="status-indicator"
+                    style={{backgroundColor: getStatusColor(scan.status)}}
+                  >
+                    {scan.status}
+                  </span>
+                </div>
+              ))}
+            </div>
+          )}
         </div>
       )}
 
@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { Link } from 'react-router-dom';
-import { studentAPI, attendanceAPI, classAPI, feePaymentAPI, sessionAPI } from '../services/api';
+import { studentAPI, attendanceAPI, classAPI, feePaymentAPI, sessionAPI, dashboardAPI } from '../services/api';
 import { authAPI } from '../services/authAPI';
 
 import './Dashboard.css';
@@ -133,10 +133,12 @@ const Dashboard = () => {
           console.log('Sessions API error:', err.message);
           return [];
         }),
-        feePaymentAPI.getFeeStatistics().catch(err => {
+        // Dashboard totals are open to all staff; /fee-payments/statistics is admin-only
+        dashboardAPI.getQuickStats().catch(err => {
           console.log('Fee stats not available:', err.message);
           return { totalCollected: 0, pendingStudents: 0 };
         }),
+        // Admin-only; teachers get an empty list
         feePaymentAPI.getOverdueStudents().catch(err => {
           console.log('Overdue students not available:', err.message);
           return [];
@@ -1,12 +1,131 @@
-import React from 'react';
+import React, { useState, useEffect } from 'react';
+import { attendanceAPI } from '../services/api';
+import { formatTime } from '../utils/formatters';
+import './AttendanceReports.css';
+
+// Newest first; a correction replaces the record with the same id
+const mergeRecord = (records, record) =>
+  [record, ...records.filter(existing => existing.id !== record.id)];
 
 const TodayAttendance = () => {
+  const [records, setRecords] = useState([]);
+  const [loading, setLoading] = useState(true);
+  const [error, setError] = useState(null);
+  const [live, setLive] = useState(false);
+
+  useEffect(() => {
+    const today = new Date().toISOString().split('T')[0];
+
+    // The list is loaded once per (re)connect; after that each mark arrives over the stream
+    const loadToday = async () => {
+      try {
+        const data = await attendanceAPI.getToday();
+        const list = Array.isArray(data) ? data : [];
+        setRecords(list.slice().sort((a, b) => new Date(b.scanTime) - new Date(a.scanTime)));
+        setError(null);
+        setLive(true);
+      } catch (err) {
+        console.error('Error loading today\'s attendance:', err);
+        setError('Failed to load today\'s attendance: ' + err.message);
+      } finally {
+        setLoading(false);
+      }
+    };
+
+    const unsubscribe = attendanceAPI.subscribe({}, (record) => {
+      if (record.attendanceDate === today) {
+        setRecords(current => mergeRecord(current, record));
+      }
+    }, loadToday);
+
+    return unsubscribe;
+  }, []);
+
+  const present = records.filter(a => a.status === 'PRESENT').length;
+  const late = records.filter(a => a.status === 'LATE').length;
+
+  const getStatusBadge = (status) => {
+    const statusClass = status === 'PRESENT' ? 'present' :
+                       status === 'LATE' ? 'late' : 'absent';
+    return <span className={`status-badge ${statusClass}`}>{status}</span>;
+  };
+
   return (
-    <div style={{ padding: '2rem', textAlign: 'center' }}>
-      <h2>Today's Attendance</h2>
-      <p>This feature is coming soon...</p>
+    <div className="reports-container">
+      <div className="reports-header">
+        <h2>Today's Attendance</h2>
+        <div className="header-controls">
+          <span>{live ? '🟢 Live' : '⚪ Connecting...'}</span>
+        </div>
+      </div>
+
+      <div className="stats-cards">
+        <div className="stat-card total">
+          <div className="stat-icon">👥</div>
+          <div className="stat-content">
+            <h3>Marked</h3>
+            <div className="stat-number">{records.length}</div>
+          </div>
+        </div>
+        <div className="stat-card present">
+          <div className="stat-icon">✅</div>
+          <div className="stat-content">
+            <h3>On Time</h3>
+            <div className="stat-number">{present}</div>
+          </div>
+        </div>
+        <div className="stat-card late">
+          <div className="stat-icon">⏰</div>
+          <div className="stat-content">
+            <h3>Late</h3>
+            <div className="stat-number">{late}</div>
+          </div>
+        </div>
+      </div>
+
+      <div className="attendance-list-section">
+        {error && (
+          <div className="error-message">
+            <p>{error}</p>
+          </div>
+        )}
+
+        {loading ? (
+          <div className="loading-message">
+            <div className="spinner"></div>
+            <p>Loading attendance data...</p>
+          </div>
+        ) : records.length === 0 ? (
+          <div className="no-data-message">
+            <p>No attendance recorded yet today.</p>
+          </div>
+        ) : (
+          <div className="attendance-table-container">
+            <div className="attendance-table">
+              <div className="table-header">
+                <span>Student ID</span>
+                <span>Name</span>
+                <span>Class</span>
+                <span>Scan Time</span>
+                <span>Status</span>
+                <span>Method</span>
+              </div>
+              {records.map((record) => (
+                <div key={record.id} className="table-row">
+                  <span className="student-id">{record.studentId}</span>
+                  <span className="student-name">{record.studentName}</span>
+                  <span className="grade">{record.className || record.grade}</span>
+                  <span className="scan-time">{formatTime(record.scanTime)}</span>
+                  <span className="status">{getStatusBadge(record.status)}</span>
+                  <span className="method">{record.scanMethod}</span>
+                </div>
+              ))}
+            </div>
+          </div>
+        )}
+      </div>
     </div>
   );
 };
 
-export default TodayAttendance;
\ No newline at end of file
+export default TodayAttendance;
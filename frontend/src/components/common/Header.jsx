@@ -1,10 +1,10 @@
 import React, { useState, useEffect, useRef } from 'react';
-import { Link, useLocation, useNavigate } from 'react-router-dom';
+import { Link, useLocation } from 'react-router-dom';
+import { authAPI } from '../../services/authAPI';
 import './Header.css';
 
 const Header = () => {
   const location = useLocation();
-  const navigate = useNavigate();
   const [isScrolled, setIsScrolled] = useState(false);
   const [currentTime, setCurrentTime] = useState('');
   const [showLogoutConfirm, setShowLogoutConfirm] = useState(false);
@@ -95,35 +95,12 @@ const Header = () => {
   }, [isMobileMenuOpen]);
 
   const handleLogout = async () => {
-    try {
-      const token = localStorage.getItem('token');
-      
-      if (token) {
-        await fetch('https://management.sammanaedu.com/api/auth/logout', {
-          method: 'POST',
-          headers: {
-            'Authorization': `Bearer ${token}`,
-            'Content-Type': 'application/json',
-          },
-          credentials: 'include'
-        });
-      }
-
-      localStorage.removeItem('token');
-      localStorage.removeItem('user');
-      localStorage.removeItem('isAuthenticated');
-      localStorage.removeItem('loginTime');
-
-      setIsLoggedIn(false);
-      setShowLogoutConfirm(false);
-      setIsMobileMenuOpen(false);
+    setIsLoggedIn(false);
+    setShowLogoutConfirm(false);
+    setIsMobileMenuOpen(false);
 
-      navigate('/login');
-    } catch (error) {
-      console.error('Logout error:', error);
-      localStorage.clear();
-      navigate('/login');
-    }
+    // Revokes the access and refresh tokens server-side, clears both locally and goes to /login
+    await authAPI.logout();
   };
 
   const navLinks = [
@@ -1,3 +1,5 @@
+import { authAPI as session } from './authAPI';
+
 const API_BASE_URL = 'https://management.sammanaedu.com/api';
 
 const handleResponse = async (response) => {
@@ -70,8 +72,14 @@ const getAuthHeaders = () => {
   return headers;
 };
 
+// One key per logical write; retries of that write reuse it so the server replays the first result
+export const newIdempotencyKey = () =>
+  (window.crypto && window.crypto.randomUUID)
+    ? window.crypto.randomUUID()
+    : `${Date.now()}-${Math.random().toString(36).slice(2)}`;
+
 // In your api.js, update the apiFetch function:
-const apiFetch = async (url, options = {}) => {
+const apiFetch = async (url, options = {}, retried = false) => {
   const fullUrl = `${API_BASE_URL}${url}`;
   console.log(`🌐 API CALL: ${options.method || 'GET'} ${fullUrl}`);
   
@@ -91,21 +99,26 @@ const apiFetch = async (url, options = {}) => {
   try {
     const response = await fetch(fullUrl, requestOptions);
     
-    // Remove the 401 handling for now (it's causing issues)
-    // if (response.status === 401) {
-    //   console.log('🔒 Unauthorized - attempting token refresh...');
-    //   const refreshed = await authAPI.refreshToken();
-    //   if (!refreshed) {
-    //     console.log('❌ Token refresh failed, redirecting to login...');
-    //     authAPI.clearAuth();
-    //     window.location.href = '/login';
-    //     throw new Error('Session expired. Please login again.');
-    //   }
-    //   return apiFetch(url, options);
-    // }
+    // Access tokens are short-lived: refresh once and replay the request
+    if (response.status === 401 && !retried && !url.startsWith('/auth/')) {
+      console.log('🔒 Unauthorized - attempting token refresh...');
+      const refreshed = await session.refreshToken();
+      if (!refreshed) {
+        console.log('❌ Token refresh failed, redirecting to login...');
+        session.clearAuth();
+        window.location.href = '/login';
+        throw new Error('Session expired. Please login again.');
+      }
+      return apiFetch(url, options, true);
+    }
     
     return await handleResponse(response);
   } catch (error) {
+    // Network drop: a write with an Idempotency-Key is safe to send once more
+    if (error instanceof TypeError && !retried && options.headers && options.headers['Idempotency-Key']) {
+      console.log('📶 Network error - retrying with the same Idempotency-Key...');
+      return apiFetch(url, options, true);
+    }
     console.error(`💥 API Call Failed for ${fullUrl}:`, error);
     throw error;
   }
@@ -116,9 +129,10 @@ const apiFetch = async (url, options = {}) => {
 // API methods
 export const apiGet = (url) => apiFetch(url, { method: 'GET' });
 
-export const apiPost = (url, data) => apiFetch(url, {
+export const apiPost = (url, data, headers = {}) => apiFetch(url, {
   method: 'POST',
-  body: JSON.stringify(data)
+  body: JSON.stringify(data),
+  headers
 });
 
 export const apiPut = (url, data) => apiFetch(url, {
@@ -363,7 +377,14 @@ export const feePaymentAPI = {
   // Record payment
   recordPayment: (paymentData) => {
     console.log('💳 Recording payment:', paymentData);
-    return apiPost('/fee-payments/record', paymentData);
+    return apiPost('/fee-payments/record', paymentData, { 'Idempotency-Key': newIdempotencyKey() });
+  },
+
+  // Day-end entry: many payments in one request, with a result per item
+  recordPaymentBatch: (payments, sendEmail = true) => {
+    console.log('💳 Recording payment batch:', payments.length);
+    return apiPost(`/fee-payments/record-batch?sendEmail=${sendEmail}`, payments,
+      { 'Idempotency-Key': newIdempotencyKey() });
   },
   
   // FIXED: recordPaymentWithEmail - handles PDF download
@@ -372,16 +393,28 @@ export const feePaymentAPI = {
     
     try {
       const token = localStorage.getItem('token');
-      const response = await fetch(`${API_BASE_URL}/fee-payments/record-with-email`, {
+      // One key for both attempts, so a retry after a dropped connection is not charged twice
+      const idempotencyKey = newIdempotencyKey();
+      const send = () => fetch(`${API_BASE_URL}/fee-payments/record-with-email`, {
         method: 'POST',
         headers: {
           'Authorization': `Bearer ${token}`,
           'Content-Type': 'application/json',
-          'Accept': 'application/pdf, application/json' // Accept both
+          'Accept': 'application/pdf, application/json', // Accept both
+          'Idempotency-Key': idempotencyKey
         },
         body: JSON.stringify(paymentData)
       });
       
+      let response;
+      try {
+        response = await send();
+      } catch (error) {
+        if (!(error instanceof TypeError)) throw error;
+        console.log('📶 Network error - retrying with the same Idempotency-Key...');
+        response = await send();
+      }
+      
       console.log('📥 Response status:', response.status);
       console.log('📥 Response headers:', Object.fromEntries(response.headers.entries()));
       
@@ -770,7 +803,7 @@ downloadReceiptPDF: async (paymentId) => {
 
 // ATTENDANCE API
 export const attendanceAPI = {
-  record: (attendanceData) => apiPost('/attendance/record', attendanceData),
+  record: (attendanceData) => apiPost('/attendance/record', attendanceData, { 'Idempotency-Key': newIdempotencyKey() }),
   getByStudent: (studentId) => apiGet(`/attendance/student/${encodeURIComponent(studentId)}`),
   getByDate: (date) => apiGet(`/attendance/date/${date}`),
   getSummary: (studentId) => apiGet(`/attendance/student/${encodeURIComponent(studentId)}/summary`),
@@ -781,20 +814,60 @@ export const attendanceAPI = {
       status,
       ...(sessionId && { sessionId: sessionId.toString() })
     });
-    return apiPost(`/attendance/manual?${params}`, {});
+    return apiPost(`/attendance/manual?${params}`, {}, { 'Idempotency-Key': newIdempotencyKey() });
   },
   getBySession: (sessionId) => apiGet(`/attendance/session/${sessionId}`),
   getActiveSessions: () => apiGet('/attendance/sessions/active'),
   getToday: () => apiGet('/attendance/today'),
-  recordForSession: async (studentId, sessionId, status) => {
-    const response = await fetch(`/api/attendance/session/${sessionId}`, {
-      method: 'POST',
-      headers: { 'Content-Type': 'application/json' },
-      body: JSON.stringify({ studentId, status })
-    });
-    if (!response.ok) throw new Error('Failed to record attendance');
-    return response.json();
-  }
+  // Live feed of attendance marks, optionally for one session or class. EventSource cannot send the
+  // bearer token, so every (re)connect first trades it for a one-minute stream token. onConnected
+  // runs on each (re)connect so a screen can catch up on marks missed while disconnected.
+  // Returns a function that closes the feed.
+  subscribe: ({ sessionId, classId } = {}, onAttendance, onConnected) => {
+    let source = null;
+    let retryTimer = null;
+    let closed = false;
+
+    const scheduleReconnect = () => {
+      if (!closed) retryTimer = setTimeout(connect, 5000);
+    };
+
+    const connect = async () => {
+      try {
+        const { token } = await apiPost('/attendance/stream/token');
+        if (closed) return;
+        const params = new URLSearchParams({
+          token,
+          ...(sessionId && { sessionId: sessionId.toString() }),
+          ...(classId && { classId: classId.toString() })
+        });
+        source = new EventSource(`${API_BASE_URL}/attendance/stream?${params}`);
+        source.addEventListener('connected', () => onConnected && onConnected());
+        source.addEventListener('attendance', (event) => onAttendance(JSON.parse(event.data)));
+        source.onerror = () => {
+          // EventSource's own retry would reuse the expired stream token
+          source.close();
+          scheduleReconnect();
+        };
+      } catch (error) {
+        console.warn('⚠️ Attendance stream unavailable, retrying:', error.message);
+        scheduleReconnect();
+      }
+    };
+
+    connect();
+    return () => {
+      closed = true;
+      clearTimeout(retryTimer);
+      if (source) source.close();
+    };
+  },
+  // A QR scan into an active AttendanceSession; the server sets PRESENT/LATE from the session start
+  recordForSession: (studentId, sessionId) => attendanceAPI.record({
+    studentId,
+    sessionId,
+    date: new Date().toISOString().split('T')[0]
+  })
 };
 
 export const scheduleAPI = {
@@ -3,7 +3,8 @@ import { getAuthHeaders } from './authHeaders';
 // Define API_BASE_URL directly
 const API_BASE_URL = 'https://management.sammanaedu.com/api';
 
-
+// Shared by concurrent 401s so a rotated refresh token is only spent once
+let refreshInFlight = null;
 
 export const authAPI = {
   getAuthHeaders,
@@ -44,6 +45,9 @@ export const authAPI = {
       // ✅ Store authentication data
       if (data.token) {
         localStorage.setItem('token', data.token);
+        if (data.refreshToken) {
+          localStorage.setItem('refreshToken', data.refreshToken);
+        }
         console.log('✅ Token stored in localStorage');
       } else {
         console.error('❌ No token in response! Response was:', data);
@@ -76,8 +80,59 @@ export const authAPI = {
     }
   },
 
-  logout: () => {
+  // Exchanges the refresh token for a new pair; resolves false if the session is over
+  refreshToken: () => {
+    if (refreshInFlight) {
+      return refreshInFlight;
+    }
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (!refreshToken) {
+      return Promise.resolve(false);
+    }
+
+    refreshInFlight = (async () => {
+      try {
+        console.log('🔄 Refreshing access token...');
+        const response = await fetch(`${API_BASE_URL}/auth/refresh`, {
+          method: 'POST',
+          headers: { 'Content-Type': 'application/json' },
+          body: JSON.stringify({ refreshToken }),
+        });
+        if (!response.ok) {
+          console.log('❌ Token refresh rejected:', response.status);
+          return false;
+        }
+        const data = await response.json();
+        localStorage.setItem('token', data.token);
+        localStorage.setItem('refreshToken', data.refreshToken);
+        return true;
+      } catch (error) {
+        console.error('❌ Token refresh error:', error);
+        return false;
+      } finally {
+        refreshInFlight = null;
+      }
+    })();
+    return refreshInFlight;
+  },
+
+  logout: async () => {
     console.log('👋 Logging out...');
+    const token = localStorage.getItem('token');
+    const refreshToken = localStorage.getItem('refreshToken');
+    try {
+      // Revoke both tokens server-side; failure here must not block the local logout
+      await fetch(`${API_BASE_URL}/auth/logout`, {
+        method: 'POST',
+        headers: {
+          'Content-Type': 'application/json',
+          ...(token ? { 'Authorization': `Bearer ${token}` } : {}),
+        },
+        body: JSON.stringify({ refreshToken }),
+      });
+    } catch (error) {
+      console.warn('⚠️ Logout request failed:', error.message);
+    }
     authAPI.clearAuth();
     // Redirect to login page
     window.location.href = '/login';
@@ -85,6 +140,7 @@ export const authAPI = {
 
   clearAuth: () => {
     localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
     localStorage.removeItem('user');
     localStorage.removeItem('isAuthenticated');
     localStorage.removeItem('loginTime');